@@ -1,7 +1,10 @@
+import com.github.jengelman.gradle.plugins.shadow.tasks.ShadowJar
+
 plugins {
     `java-library`
     id("com.github.johnrengelman.shadow") version "6.1.0"
     id("com.github.hierynomus.license-base") version "0.15.0"
+    id("me.champeau.gradle.jmh") version "0.5.3"
 }
 
 defaultTasks("clean", "licenseMain", "shadowJar")
@@ -25,6 +28,18 @@ sourceSets {
         java.srcDir("src/test/java")
         resources.srcDir("src/test/resources")
     }
+
+    // Flight recorder events, jdk.jfr isn't part of the Java 8 API so they're compiled on their own
+    // and only loaded (reflectively) when the server runs on a JVM that has it
+    create("jfr") {
+        java.srcDir("src/jfr/java")
+        compileClasspath += main.get().output + main.get().compileClasspath
+    }
+}
+
+// The offline tool runs without a server, so it needs what paper-api would otherwise provide
+val cli: Configuration by configurations.creating {
+    extendsFrom(configurations.runtimeClasspath.get())
 }
 
 tasks {
@@ -33,6 +48,11 @@ tasks {
         options.release.set(8)
     }
 
+    named<JavaCompile>("compileJfrJava") {
+        options.encoding = "UTF-8"
+        options.release.set(11)
+    }
+
     processResources {
         duplicatesStrategy = DuplicatesStrategy.INCLUDE
 
@@ -41,9 +61,61 @@ tasks {
         }
     }
 
+    jar {
+        from(sourceSets["jfr"].output)
+    }
+
     shadowJar {
+        from(sourceSets["jfr"].output)
+        relocate("net.kyori", "com.github.fefo.worldreset.lib.kyori")
+    }
+
+    // java -jar WorldReset-<version>-cli.jar --server <folder>, see OfflineReset
+    register<ShadowJar>("cliJar") {
+        group = "build"
+        description = "Builds the offline reset tool, runnable while the server is stopped"
+        archiveClassifier.set("cli")
+        from(sourceSets.main.get().output, sourceSets["jfr"].output)
+        configurations = listOf(cli)
         relocate("net.kyori", "com.github.fefo.worldreset.lib.kyori")
+        manifest {
+            attributes("Main-Class" to "com.github.fefo.worldreset.cli.OfflineReset")
+        }
+    }
+
+    // gradlew generateWorldFixture --args="<world folder> <region files> [chunks per file] [seed]"
+    register<JavaExec>("generateWorldFixture") {
+        group = "benchmark"
+        description = "Generates a synthetic world folder to run resets against"
+        classpath = sourceSets["jmh"].runtimeClasspath
+        mainClass.set("com.github.fefo.worldreset.work.WorldFixtures")
+    }
+
+    // gradlew durationCodecParity --args="[inputs] [seed]"
+    register<JavaExec>("durationCodecParity") {
+        group = "verification"
+        description = "Checks DurationCodec against the regex parser and formatters it replaced on generated inputs"
+        classpath = sourceSets["jmh"].runtimeClasspath
+        mainClass.set("com.github.fefo.worldreset.util.DurationCodecParity")
     }
+
+    // gradlew resetThroughput --args="<scratch folder> <region files> [iterations] [reset mode] [max deletes per second]"
+    register<JavaExec>("resetThroughput") {
+        group = "benchmark"
+        description = "Runs full resets against synthetic world folders and reports time, files/s and peak heap"
+        classpath = sourceSets["jmh"].runtimeClasspath + sourceSets["jfr"].output
+        mainClass.set("com.github.fefo.worldreset.work.ResetThroughput")
+    }
+}
+
+jmh {
+    jmhVersion = "1.29"
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    // Compare two runs with any JMH visualizer, or diff them with jq
+    resultFormat = "JSON"
+    resultsFile = project.file("${project.buildDir}/reports/jmh/results.json")
 }
 
 license {
@@ -75,4 +147,18 @@ dependencies {
     compileOnly("com.mojang:brigadier:1.0.17")
     compileOnly("com.destroystokyo.paper:paper-api:1.16.5-R0.1-SNAPSHOT")
     compileOnly("org.jetbrains:annotations:20.1.0")
+
+    // compileOnly dependencies aren't on the benchmark runtime classpath
+    "jmh"("com.mojang:brigadier:1.0.17")
+    "jmh"("org.jetbrains:annotations:20.1.0")
+    "jmh"("commons-lang:commons-lang:2.6")
+    "jmh"("com.google.guava:guava:21.0")
+    "jmh"("com.google.code.gson:gson:2.8.0")
+    "jmh"("org.yaml:snakeyaml:1.27")
+
+    cli("com.mojang:brigadier:1.0.17")
+    cli("commons-lang:commons-lang:2.6")
+    cli("com.google.guava:guava:21.0")
+    cli("com.google.code.gson:gson:2.8.0")
+    cli("org.yaml:snakeyaml:1.27")
 }
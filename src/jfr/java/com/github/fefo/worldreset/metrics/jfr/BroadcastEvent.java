@@ -0,0 +1,64 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.metrics.jfr;
+
+import com.github.fefo.worldreset.metrics.FlightEvents;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.github.fefo.worldreset.Broadcast")
+@Label("Reset Broadcast")
+@Category({ "WorldReset", "Scheduler" })
+@Description("Sending an upcoming reset broadcast")
+@StackTrace(false)
+public final class BroadcastEvent extends Event implements FlightEvents.Span {
+
+  @Label("World")
+  private final String world;
+
+  @Label("Target")
+  private final String target;
+
+  @Label("Time Left")
+  @Timespan(Timespan.SECONDS)
+  private final long timeLeft;
+
+  BroadcastEvent(final String world, final String target, final long timeLeft) {
+    this.world = world;
+    this.target = target;
+    this.timeLeft = timeLeft;
+    begin();
+  }
+
+  @Override
+  public void finish() {
+    commit();
+  }
+}
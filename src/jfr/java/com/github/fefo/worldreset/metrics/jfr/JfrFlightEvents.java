@@ -0,0 +1,82 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.metrics.jfr;
+
+import com.github.fefo.worldreset.metrics.FlightEvents;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Loaded reflectively by FlightEvents.load
+public final class JfrFlightEvents implements FlightEvents {
+
+  private static final List<Class<? extends Event>> EVENTS =
+      Arrays.asList(ResetPhaseEvent.class, AuditEvent.class, BroadcastEvent.class, SaveEvent.class);
+
+  public static @Nullable FlightEvents create() {
+    if (!FlightRecorder.isAvailable()) {
+      return null;
+    }
+
+    for (final Class<? extends Event> event : EVENTS) {
+      FlightRecorder.register(event);
+    }
+    return new JfrFlightEvents();
+  }
+
+  private JfrFlightEvents() {
+  }
+
+  @Override
+  public @NotNull Span resetPhase(final @NotNull String worldName, final @NotNull String phase) {
+    return new ResetPhaseEvent(worldName, phase);
+  }
+
+  @Override
+  public @NotNull Span audit(final @NotNull String worldName) {
+    return new AuditEvent(worldName);
+  }
+
+  @Override
+  public @NotNull Span broadcast(final @NotNull String worldName, final @NotNull String target, final long secondsLeft) {
+    return new BroadcastEvent(worldName, target, secondsLeft);
+  }
+
+  @Override
+  public @NotNull Span save(final @NotNull String operation) {
+    return new SaveEvent(operation);
+  }
+
+  @Override
+  public void shutdown() {
+    for (final Class<? extends Event> event : EVENTS) {
+      FlightRecorder.unregister(event);
+    }
+  }
+}
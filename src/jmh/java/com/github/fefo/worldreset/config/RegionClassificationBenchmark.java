@@ -0,0 +1,112 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+// Classifying every file of a world folder, like a reset does after walking it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RegionClassificationBenchmark {
+
+  // What WorldsDataHandler used to filter with
+  private static final PathMatcher REGION_FILE_MATCHER = FileSystems.getDefault().getPathMatcher("regex:r(?:\\.-?\\d){2}\\.mca");
+  private static final Predicate<Path> IS_INNER_REGION = path -> {
+    return path.endsWith("r.0.0.mca") || path.endsWith("r.0.-1.mca") || path.endsWith("r.-1.0.mca") || path.endsWith("r.-1.-1.mca");
+  };
+  private static final Predicate<Path> IS_OUTER_REGION = IS_INNER_REGION.negate().and(path -> REGION_FILE_MATCHER.matches(path.getFileName()));
+
+  // Regions per direction around 0,0
+  @Param({ "4", "32" })
+  public int radius;
+
+  private final List<Path> files = new ArrayList<>();
+  private ResetProfile profile;
+
+  @Setup
+  public void setup() {
+    final Path world = Paths.get("world_the_end");
+    this.files.add(world.resolve("level.dat"));
+    this.files.add(world.resolve("session.lock"));
+    this.files.add(world.resolve("data").resolve("raids.dat"));
+    for (int x = -this.radius; x < this.radius; ++x) {
+      for (int z = -this.radius; z < this.radius; ++z) {
+        final String name = "r." + x + '.' + z;
+        this.files.add(world.resolve("DIM1").resolve("region").resolve(name + ".mca"));
+        this.files.add(world.resolve("DIM1").resolve("poi").resolve(name + ".mca"));
+        if ((x ^ z) % 7 == 0) {
+          this.files.add(world.resolve("DIM1").resolve("region").resolve(name + ".mcc"));
+        }
+      }
+    }
+
+    // Same inner regions the old predicate kept
+    this.profile = ResetProfile.builder()
+                               .interval(Duration.ofDays(1L))
+                               .broadcastMessage("")
+                               .protectedRadius(1)
+                               .build();
+  }
+
+  @Benchmark
+  public int pathMatcher() {
+    int count = 0;
+    for (final Path file : this.files) {
+      if (IS_OUTER_REGION.test(file)) {
+        ++count;
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int profile() {
+    int count = 0;
+    for (final Path file : this.files) {
+      if (this.profile.shouldDelete(file)) {
+        ++count;
+      }
+    }
+    return count;
+  }
+}
@@ -0,0 +1,81 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.messages;
+
+import com.github.fefo.worldreset.util.Utils;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BroadcastTemplateBenchmark {
+
+  private static final String WORLD_NAME = "world_the_end";
+  private static final Duration MOMENT = Duration.ofMinutes(30L);
+
+  @Param({
+      "&7Outer end islands will be reset in &a{time-left}",
+      "&#ff8800&l{world}&r&7 resets in &a{time-left-long} &8({time-left})"
+  })
+  public String message;
+
+  private BroadcastTemplate template;
+
+  @Setup
+  public void setup() {
+    this.template = BroadcastTemplate.compile(this.message);
+  }
+
+  // What broadcast used to do every time
+  @Benchmark
+  public Component replaceAndParse() {
+    String message = this.message;
+    message = Utils.replaceAll(Utils.TIME_LEFT_PATTERN, message, result -> Utils.shortDuration(MOMENT));
+    message = Utils.replaceAll(Utils.TIME_LEFT_LONG_PATTERN, message, result -> Utils.longDuration(MOMENT));
+    message = Utils.replaceAll(Utils.WORLD_NAME_PATTERN, message, result -> WORLD_NAME);
+    return Utils.fromLegacy(message);
+  }
+
+  @Benchmark
+  public Component render() {
+    return this.template.render(WORLD_NAME, MOMENT);
+  }
+
+  @Benchmark
+  public Component cached() {
+    return this.template.cached(WORLD_NAME, MOMENT);
+  }
+}
@@ -0,0 +1,90 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.util;
+
+import com.github.fefo.worldreset.commands.DurationArgumentType;
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DurationCodecBenchmark {
+
+  @Param({ "30m", "1d12h", "3mo5ws2days4.045secs" })
+  public String input;
+
+  private final DurationArgumentType argumentType = DurationArgumentType.duration();
+  private Duration duration;
+
+  @Setup
+  public void setup() {
+    this.duration = Duration.ofSeconds(DurationCodec.parseSeconds(this.input));
+  }
+
+  @Benchmark
+  public long parseRegex() {
+    return RegexDurations.parseSeconds(this.input);
+  }
+
+  @Benchmark
+  public long parseCodec() {
+    return DurationCodec.parseSeconds(this.input);
+  }
+
+  // What the command actually goes through
+  @Benchmark
+  public Duration parseArgument() throws CommandSyntaxException {
+    return this.argumentType.parse(new StringReader(this.input));
+  }
+
+  // What Utils#longDuration used to do
+  @Benchmark
+  public String formatJoiner() {
+    return RegexDurations.longDuration(this.duration);
+  }
+
+  @Benchmark
+  public String formatCodec() {
+    return DurationCodec.formatLong(this.duration, Locale.ENGLISH);
+  }
+
+  @Benchmark
+  public String formatShort() {
+    return Utils.shortDuration(this.duration);
+  }
+}
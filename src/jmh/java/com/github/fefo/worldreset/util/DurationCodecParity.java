@@ -0,0 +1,218 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.util;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Random;
+
+// Checks DurationCodec against the regex implementation it replaced (RegexDurations) on generated inputs:
+// same accept/reject decisions, same values, same suggestions and same formatted output.
+// Inputs are durations built from the grammar (random case, suffixes, fractions, units out of order
+// or repeated, a bare trailing number...) and random edits of them. Values are only compared while every
+// term stays below 2^53 seconds, past that the old double math wasn't exact anymore.
+// Usage: DurationCodecParity [inputs] [seed], exits with 1 on the first few mismatches
+public final class DurationCodecParity {
+
+  private static final double EXACT_LIMIT = 0x1p53;
+  private static final int MAX_REPORTED = 20;
+  private static final String[][] SUFFIXES = {
+      { "y", "ys", "year", "years" },
+      { "mo", "mos", "month", "months" },
+      { "w", "ws", "week", "weeks" },
+      { "d", "ds", "day", "days" },
+      { "h", "hs", "hr", "hrs", "hour", "hours" },
+      { "m", "ms", "min", "mins", "minute", "minutes" },
+      { "s", "ss", "sec", "secs", "second", "seconds" }
+  };
+  private static final String NOISE = "0123456789..ymowdhsecnrtiuaYMOWDHSx _-+";
+
+  private int checked = 0;
+  private int outOfRange = 0;
+  private int mismatches = 0;
+
+  public static void main(final String[] args) {
+    final int inputs = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+    final long seed = args.length > 1 ? Long.parseLong(args[1]) : 36L;
+
+    final DurationCodecParity parity = new DurationCodecParity();
+    final long start = System.nanoTime();
+    parity.run(new Random(seed), inputs);
+    final long millis = (System.nanoTime() - start) / 1_000_000L;
+    System.out.printf("%d inputs (seed %d) in %d ms: %d values compared, %d past 2^53, %d mismatches%n",
+                      inputs, seed, millis, parity.checked, parity.outOfRange, parity.mismatches);
+    System.exit(parity.mismatches == 0 ? 0 : 1);
+  }
+
+  private void run(final Random random, final int inputs) {
+    for (int i = 0; i < inputs && this.mismatches < MAX_REPORTED; ++i) {
+      String input = generate(random);
+      if (random.nextInt(3) == 0) {
+        input = mutate(random, input);
+      }
+      checkParse(input);
+      checkSuggestions(input);
+      // Suggestions are asked for while typing, every prefix gets its turn
+      checkSuggestions(input.substring(0, random.nextInt(input.length() + 1)));
+      checkFormat(Duration.ofSeconds(randomSeconds(random)));
+    }
+  }
+
+  private void checkParse(final String input) {
+    final long expected;
+    try {
+      expected = RegexDurations.parseSeconds(input);
+    } catch (final ArithmeticException exception) {
+      ++this.outOfRange;
+      return;
+    }
+    if (expected != DurationCodec.INVALID
+        && (expected >= EXACT_LIMIT || RegexDurations.largestTerm(input) >= EXACT_LIMIT)) {
+      ++this.outOfRange;
+      return;
+    }
+
+    ++this.checked;
+    final long actual = DurationCodec.parseSeconds(input);
+    if (actual != expected) {
+      mismatch("parse", input, describe(expected), describe(actual));
+      return;
+    }
+    if (actual != DurationCodec.INVALID) {
+      checkFormat(Duration.ofSeconds(actual));
+    }
+  }
+
+  private void checkSuggestions(final String input) {
+    final int expected = RegexDurations.nextUnit(input);
+    final int actual = DurationCodec.nextUnitAfterTrailingNumber(input.toLowerCase(Locale.ROOT));
+    if (actual != expected) {
+      mismatch("suggestions", input, String.valueOf(expected), String.valueOf(actual));
+    }
+  }
+
+  private void checkFormat(final Duration duration) {
+    final String expectedShort = RegexDurations.shortDuration(duration);
+    final String actualShort = DurationCodec.formatShort(duration);
+    if (!expectedShort.equals(actualShort)) {
+      mismatch("short format", String.valueOf(duration.getSeconds()), expectedShort, actualShort);
+    }
+    final String expectedLong = RegexDurations.longDuration(duration);
+    final String actualLong = DurationCodec.formatLong(duration, Locale.ENGLISH);
+    if (!expectedLong.equals(actualLong)) {
+      mismatch("long format", String.valueOf(duration.getSeconds()), expectedLong, actualLong);
+    }
+  }
+
+  private void mismatch(final String what, final String input, final String expected, final String actual) {
+    ++this.mismatches;
+    System.out.printf("%s of \"%s\": regex %s, codec %s%n", what, input, expected, actual);
+  }
+
+  private static String describe(final long seconds) {
+    return seconds == DurationCodec.INVALID ? "rejects it" : String.valueOf(seconds);
+  }
+
+  // Units in decreasing order most of the time, sometimes out of order or twice
+  private static String generate(final Random random) {
+    final StringBuilder builder = new StringBuilder();
+    int unit = random.nextInt(SUFFIXES.length);
+    final int terms = 1 + random.nextInt(4);
+    for (int term = 0; term < terms && unit < SUFFIXES.length; ++term) {
+      appendNumber(random, builder);
+      final boolean last = term == terms - 1 || unit == SUFFIXES.length - 1;
+      if (last && random.nextInt(4) == 0) {
+        // Bare number, seconds
+        break;
+      }
+      appendSuffix(random, builder, SUFFIXES[unit][random.nextInt(SUFFIXES[unit].length)]);
+
+      final int step = random.nextInt(10);
+      if (step == 0) {
+        unit = random.nextInt(SUFFIXES.length);
+      } else if (step != 1) {
+        unit += 1 + random.nextInt(SUFFIXES.length - unit);
+      }
+    }
+    return builder.toString();
+  }
+
+  private static void appendNumber(final Random random, final StringBuilder builder) {
+    // Mostly small amounts, now and then one big enough to overflow
+    final int digits = random.nextInt(8) == 0 ? 1 + random.nextInt(20) : 1 + random.nextInt(3);
+    for (int i = 0; i < digits; ++i) {
+      builder.append((char) ('0' + random.nextInt(10)));
+    }
+    if (random.nextBoolean()) {
+      builder.append('.');
+      final int fractionDigits = random.nextInt(6) == 0 ? random.nextInt(15) : 1 + random.nextInt(3);
+      for (int i = 0; i < fractionDigits; ++i) {
+        builder.append(random.nextInt(4) == 0 ? '5' : (char) ('0' + random.nextInt(10)));
+      }
+    }
+  }
+
+  private static void appendSuffix(final Random random, final StringBuilder builder, final String suffix) {
+    final boolean anyCase = random.nextInt(4) == 0;
+    for (int i = 0; i < suffix.length(); ++i) {
+      final char character = suffix.charAt(i);
+      builder.append(anyCase && random.nextBoolean() ? Character.toUpperCase(character) : character);
+    }
+  }
+
+  private static String mutate(final Random random, final String input) {
+    final StringBuilder builder = new StringBuilder(input);
+    final int edits = 1 + random.nextInt(3);
+    for (int i = 0; i < edits; ++i) {
+      final int index = random.nextInt(builder.length() + 1);
+      final char noise = NOISE.charAt(random.nextInt(NOISE.length()));
+      switch (random.nextInt(3)) {
+        case 0:
+          builder.insert(index, noise);
+          break;
+        case 1:
+          if (index < builder.length()) {
+            builder.deleteCharAt(index);
+          }
+          break;
+        default:
+          if (index < builder.length()) {
+            builder.setCharAt(index, noise);
+          }
+          break;
+      }
+    }
+    return builder.toString();
+  }
+
+  // Spread over every magnitude, from a few seconds to centuries
+  private static long randomSeconds(final Random random) {
+    final int bits = random.nextInt(40);
+    return bits == 0 ? 0L : (random.nextLong() >>> 1) >>> (63 - bits);
+  }
+
+  private DurationCodecParity() {
+  }
+}
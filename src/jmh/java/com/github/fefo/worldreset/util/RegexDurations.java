@@ -0,0 +1,164 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.util;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// The regex parser and StringJoiner formatters DurationCodec replaced, kept as they were
+// so the benchmark has something to compare against and the parity check something to agree with
+final class RegexDurations {
+
+  // What DurationArgumentType used to match against
+  private static final Pattern DURATION_PATTERN =
+      Pattern.compile("^" +
+                      "(?:(\\d+(?:\\.\\d+)?)(y)(?:ear)?s?)?" +
+                      "(?:(\\d+(?:\\.\\d+)?)(mo)(?:nth)?s?)?" +
+                      "(?:(\\d+(?:\\.\\d+)?)(w)(?:eek)?s?)?" +
+                      "(?:(\\d+(?:\\.\\d+)?)(d)(?:ay)?s?)?" +
+                      "(?:(\\d+(?:\\.\\d+)?)(h)(?:r|our)?s?)?" +
+                      "(?:(\\d+(?:\\.\\d+)?)(m)(?:in|inute)?s?)?" +
+                      "(?:(\\d+(?:\\.\\d+)?)(?:(s)(?:ec|econd)?s?)?)?" +
+                      "$");
+  private static final String[] SCALES = { "y", "mo", "w", "d", "h", "m", "s" };
+  private static final ChronoUnit[] UNITS = {
+      ChronoUnit.YEARS, ChronoUnit.MONTHS, ChronoUnit.WEEKS, ChronoUnit.DAYS,
+      ChronoUnit.HOURS, ChronoUnit.MINUTES, ChronoUnit.SECONDS
+  };
+  private static final String[] NAMES = { "year", "month", "week", "day", "hour", "minute", "second" };
+
+  // DurationArgumentType#parse: DurationCodec.INVALID if it doesn't match.
+  // Throws ArithmeticException where Duration#plus did
+  static long parseSeconds(final String input) {
+    final Matcher matcher = DURATION_PATTERN.matcher(input.toLowerCase(Locale.ROOT));
+    if (input.isEmpty() || !matcher.find() || matcher.group().isEmpty()) {
+      return DurationCodec.INVALID;
+    }
+
+    Duration duration = Duration.ZERO;
+    for (int i = 1; i <= SCALES.length; ++i) {
+      final String current = matcher.group(i * 2 - 1);
+      if (current == null) {
+        continue;
+      }
+
+      duration = duration.plus(Math.round(Double.parseDouble(current) * unit(matcher.group(i * 2)).getDuration().getSeconds()),
+                               ChronoUnit.SECONDS);
+    }
+    return duration.getSeconds();
+  }
+
+  // Largest amount of seconds any one unit of the input adds up to, what the double math has to hold exactly
+  static double largestTerm(final String input) {
+    final Matcher matcher = DURATION_PATTERN.matcher(input.toLowerCase(Locale.ROOT));
+    double largest = 0.0;
+    if (matcher.find()) {
+      for (int i = 1; i <= SCALES.length; ++i) {
+        final String current = matcher.group(i * 2 - 1);
+        if (current != null) {
+          largest = Math.max(largest, Double.parseDouble(current) * unit(matcher.group(i * 2)).getDuration().getSeconds());
+        }
+      }
+    }
+    return largest;
+  }
+
+  // DurationArgumentType#listSuggestions: index of the first unit to suggest, -1 for no suggestions
+  static int nextUnit(final String input) {
+    final Matcher matcher = DURATION_PATTERN.matcher(input.toLowerCase(Locale.ROOT));
+    if (!matcher.find()) {
+      return -1;
+    }
+
+    int nullGroups = 0;
+    String lastScale = null;
+    for (int i = matcher.groupCount(); i > 0; --i) {
+      final String currentGroup = matcher.group(i);
+      if (currentGroup == null) {
+        ++nullGroups;
+      } else if (scaleIndex(currentGroup) >= 0 && lastScale == null) {
+        lastScale = currentGroup;
+      }
+    }
+    if (nullGroups % 2 == 0) {
+      return -1;
+    }
+    final int index = lastScale == null ? 0 : scaleIndex(lastScale) + 1;
+    return index < SCALES.length ? index : -1;
+  }
+
+  // Utils#shortDuration
+  static String shortDuration(final Duration duration) {
+    final StringJoiner joiner = new StringJoiner("");
+    long remaining = duration.getSeconds();
+    for (int i = 0; i < UNITS.length; ++i) {
+      final long unitSeconds = UNITS[i].getDuration().getSeconds();
+      final long amount = remaining / unitSeconds;
+      remaining %= unitSeconds;
+      if (amount != 0) {
+        joiner.add(amount + SCALES[i]);
+      }
+    }
+    return joiner.toString();
+  }
+
+  // Utils#longDuration
+  static String longDuration(final Duration duration) {
+    final StringJoiner joiner = new StringJoiner(", ");
+    long remaining = duration.getSeconds();
+    for (int i = 0; i < UNITS.length; ++i) {
+      final long unitSeconds = UNITS[i].getDuration().getSeconds();
+      final long amount = remaining / unitSeconds;
+      remaining %= unitSeconds;
+      if (amount != 0) {
+        joiner.add(amount + " " + NAMES[i] + (amount > 1 ? "s" : ""));
+      }
+    }
+    return joiner.toString();
+  }
+
+  // Defaults to seconds if no scale was given
+  private static ChronoUnit unit(final String scale) {
+    final int index = scale == null ? -1 : scaleIndex(scale);
+    return index < 0 ? ChronoUnit.SECONDS : UNITS[index];
+  }
+
+  private static int scaleIndex(final String scale) {
+    for (int i = 0; i < SCALES.length; ++i) {
+      if (SCALES[i].equals(scale)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private RegexDurations() {
+    throw new UnsupportedOperationException();
+  }
+}
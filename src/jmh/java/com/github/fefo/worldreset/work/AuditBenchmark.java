@@ -0,0 +1,124 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work;
+
+import com.github.fefo.worldreset.config.ConfigReader;
+import com.github.fefo.worldreset.config.ResetProfile;
+import com.github.fefo.worldreset.config.ResetProfiles;
+import com.github.fefo.worldreset.work.load.PlayerLoadHistogram;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+// One pass of WorldsDataHandler#auditResets over a big schedule, through the same ResetAudit decisions,
+// minus what it acts on (broadcasts, staging and saving the chosen times)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuditBenchmark {
+
+  @Param({ "100", "10000", "100000" })
+  public int worlds;
+
+  private final List<ScheduledReset> resets = new ArrayList<>();
+  private final PlayerLoadHistogram playerLoad = new PlayerLoadHistogram(ZoneOffset.UTC);
+  private ResetProfiles profiles;
+
+  @Setup
+  public void setup() throws IOException {
+    // Every tenth world gets its own profile and every fifth one a reset window, the rest go with the defaults
+    final StringBuilder config = new StringBuilder("profiles:\n  worlds:\n");
+    final Instant now = Instant.now();
+    for (int i = 0; i < this.worlds; ++i) {
+      final String worldName = "world_" + i;
+      final Duration window = i % 5 == 0 ? Duration.ofHours(2L) : Duration.ZERO;
+      this.resets.add(new ScheduledReset(Duration.ofHours(1L + i % 48), now.minusSeconds(i * 7L), worldName, window));
+      if (i % 10 == 0) {
+        config.append("    ").append(worldName).append(":\n      interval: 12h\n");
+      }
+    }
+
+    // A week of minute samples
+    final Random random = new Random(0L);
+    for (int minute = 0; minute < 7 * 24 * 60; ++minute) {
+      this.playerLoad.record(now.minus(Duration.ofMinutes(minute)), random.nextInt(50));
+    }
+
+    final Path configFile = Files.createTempFile("worldreset-audit", ".yml");
+    try {
+      Files.write(configFile, config.toString().getBytes(StandardCharsets.UTF_8));
+      this.profiles = ConfigReader.read(configFile, Logger.getLogger(AuditBenchmark.class.getName())).config().getProfiles();
+    } finally {
+      Files.delete(configFile);
+    }
+  }
+
+  // Broadcasts that would've been sent. Chosen times are kept like the plugin keeps them,
+  // so after the first iterations this measures the steady state
+  @Benchmark
+  public int audit() {
+    int broadcasts = 0;
+    final Instant now = Instant.now();
+    for (int i = 0; i < this.resets.size(); ++i) {
+      ScheduledReset reset = this.resets.get(i);
+      final ResetProfile profile = this.profiles.forWorld(reset.getWorldName());
+      final Instant chosen = ResetAudit.chooseReset(reset, profile, now, this.playerLoad);
+      if (chosen != null) {
+        reset = reset.withChosenReset(chosen);
+        this.resets.set(i, reset);
+      }
+
+      final ResetAudit.Decision decision = ResetAudit.decide(reset, profile, now);
+      if (decision.isDue()) {
+        continue;
+      }
+      if (decision.isFinalBroadcast()) {
+        ++broadcasts;
+      }
+      if (decision.getBroadcast() != null) {
+        ++broadcasts;
+      }
+    }
+    return broadcasts;
+  }
+}
@@ -0,0 +1,135 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work;
+
+import com.github.fefo.worldreset.config.ResetMode;
+import com.github.fefo.worldreset.config.ResetProfile;
+import com.github.fefo.worldreset.metrics.FlightEvents;
+import com.github.fefo.worldreset.work.history.ResetRecord;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+// Full resets against generated world folders (see WorldFixtures), on whatever disk the folder is on.
+// Every iteration generates a fresh world, which isn't timed, and then sweeps it like a scheduled reset would.
+// Usage: ResetThroughput <scratch folder> <region files> [iterations] [outer-regions|all-regions]
+//                        [max deletes per second] [chunks per file]
+public final class ResetThroughput {
+
+  public static void main(final String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Usage: ResetThroughput <scratch folder> <region files> [iterations] "
+                         + "[outer-regions|all-regions] [max deletes per second] [chunks per file]");
+      System.exit(1);
+    }
+
+    final Path folder = Paths.get(args[0]).resolve("world_fixture");
+    final int regionFiles = Integer.parseInt(args[1]);
+    final int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+    final ResetMode resetMode = args.length > 3 ? ResetMode.parse(args[3]) : ResetMode.OUTER_REGIONS;
+    final int maxDeletesPerSecond = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+    final int chunksPerFile = args.length > 5 ? Integer.parseInt(args[5]) : 2;
+    if (resetMode == null) {
+      System.err.println("Unknown reset mode " + args[3]);
+      System.exit(1);
+    }
+
+    final Logger logger = Logger.getLogger(ResetThroughput.class.getName());
+    final ExecutorService executor = Executors.newCachedThreadPool();
+    final RegionSweeper sweeper = new RegionSweeper(logger, FlightEvents.load(logger), executor);
+    final ResetProfile profile = ResetProfile.builder()
+                                             .interval(Duration.ofDays(1L))
+                                             .broadcastMessage("")
+                                             .resetMode(resetMode)
+                                             .maxDeletesPerSecond(maxDeletesPerSecond)
+                                             .build();
+
+    System.out.printf("%d region files, %s, max %d deletes/s, %d chunks per file%n",
+                      regionFiles, resetMode.getName(), maxDeletesPerSecond, chunksPerFile);
+    System.out.printf("%-5s %10s %10s %10s %10s %12s %10s %14s%n",
+                      "iter", "wall ms", "scan ms", "class. ms", "delete ms", "files/s", "MiB freed", "peak heap MiB");
+
+    final double[] filesPerSecond = new double[iterations];
+    for (int i = 0; i < iterations; ++i) {
+      WorldFixtures.delete(folder);
+      WorldFixtures.generate(folder, regionFiles, chunksPerFile, i);
+
+      System.gc();
+      resetPeakHeap();
+      final long start = System.nanoTime();
+      final ResetRecord record = sweeper.sweep(folder.getFileName().toString(), folder, profile);
+      final long wallNanos = System.nanoTime() - start;
+      final long peakHeap = peakHeap();
+
+      filesPerSecond[i] = record.getFilesDeleted() * 1e9 / wallNanos;
+      System.out.printf("%-5d %10.1f %10.1f %10.1f %10.1f %12.0f %10.1f %14.1f%n",
+                        i + 1, wallNanos / 1e6,
+                        record.getScanTime().toNanos() / 1e6,
+                        record.getClassifyTime().toNanos() / 1e6,
+                        record.getDeleteTime().toNanos() / 1e6,
+                        filesPerSecond[i], record.getBytesFreed() / 1048576.0, peakHeap / 1048576.0);
+      if (record.getErrors() > 0) {
+        System.out.printf("      %d errors, first one: %s%n", record.getErrors(), record.getFirstError());
+      }
+    }
+    WorldFixtures.delete(folder);
+    executor.shutdown();
+
+    Arrays.sort(filesPerSecond);
+    System.out.printf("median %.0f files/s%n", filesPerSecond[iterations / 2]);
+  }
+
+  private static void resetPeakHeap() {
+    for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  // Sum of every heap pool's peak, an upper bound since pools don't all peak at the same time
+  private static long peakHeap() {
+    long peak = 0L;
+    for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        peak += pool.getPeakUsage().getUsed();
+      }
+    }
+    return peak;
+  }
+
+  private ResetThroughput() {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -0,0 +1,185 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+
+// Generates world folders laid out like the server leaves them: region, entities and poi folders
+// for the overworld, the nether (DIM-1) and the end (DIM1), every file with a valid 8 KiB header
+// (locations + timestamps) and a few zlib chunks, the rest of the 1024 chunk slots left empty.
+// Usage: WorldFixtures <world folder> <region files> [chunks per file] [seed]
+public final class WorldFixtures {
+
+  private static final int SECTOR = 4096;
+  private static final int CHUNKS = 1024;
+  private static final int ZLIB = 2;
+
+  // Dimension folder, share of the region files
+  private static final String[] DIMENSIONS = { "", "DIM-1", "DIM1" };
+  private static final int[] DIMENSION_WEIGHTS = { 6, 2, 2 };
+  private static final String[] KINDS = { "region", "entities", "poi" };
+  private static final int[] KIND_WEIGHTS = { 2, 1, 1 };
+
+  public static void main(final String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("Usage: WorldFixtures <world folder> <region files> [chunks per file] [seed]");
+      System.exit(1);
+    }
+
+    final Path folder = Paths.get(args[0]);
+    final int regionFiles = Integer.parseInt(args[1]);
+    final int chunksPerFile = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+    final long seed = args.length > 3 ? Long.parseLong(args[3]) : 0L;
+
+    final long start = System.nanoTime();
+    final long bytes = generate(folder, regionFiles, chunksPerFile, seed);
+    final long millis = (System.nanoTime() - start) / 1_000_000L;
+    System.out.printf("Generated %d region files (%.1f MiB) in %s in %d ms%n",
+                      regionFiles, bytes / 1048576.0, folder, millis);
+  }
+
+  // Returns how many bytes were written
+  public static long generate(final Path worldFolder, final int regionFiles,
+                              final int chunksPerFile, final long seed) throws IOException {
+    final Random random = new Random(seed);
+    final byte[] payload = chunkPayload(random);
+    long bytes = 0L;
+
+    Files.createDirectories(worldFolder.resolve("data"));
+    Files.write(worldFolder.resolve("level.dat"), new byte[] { 0x1f, (byte) 0x8b, 8, 0 });
+    Files.write(worldFolder.resolve("session.lock"), new byte[] { (byte) 0xe2, (byte) 0x98, (byte) 0x83 });
+
+    final int dimensionTotal = sum(DIMENSION_WEIGHTS);
+    final int kindTotal = sum(KIND_WEIGHTS);
+    int left = regionFiles;
+    for (int d = 0; d < DIMENSIONS.length; ++d) {
+      final int dimensionFiles = d == DIMENSIONS.length - 1 ? left : regionFiles * DIMENSION_WEIGHTS[d] / dimensionTotal;
+      left -= dimensionFiles;
+
+      int dimensionLeft = dimensionFiles;
+      for (int k = 0; k < KINDS.length; ++k) {
+        final int files = k == KINDS.length - 1 ? dimensionLeft : dimensionFiles * KIND_WEIGHTS[k] / kindTotal;
+        dimensionLeft -= files;
+
+        final Path folder = DIMENSIONS[d].isEmpty()
+                            ? worldFolder.resolve(KINDS[k])
+                            : worldFolder.resolve(DIMENSIONS[d]).resolve(KINDS[k]);
+        Files.createDirectories(folder);
+        bytes += writeRegions(folder, files, chunksPerFile, payload, random);
+      }
+    }
+    return bytes;
+  }
+
+  public static void delete(final Path worldFolder) throws IOException {
+    if (Files.notExists(worldFolder)) {
+      return;
+    }
+
+    try (final Stream<Path> stream = Files.walk(worldFolder)) {
+      for (final Path path : (Iterable<Path>) stream.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  // Explored area grows outwards from spawn, so files fill a square around 0,0
+  private static long writeRegions(final Path folder, final int files, final int chunksPerFile,
+                                   final byte[] payload, final Random random) throws IOException {
+    final int side = (int) Math.ceil(Math.sqrt(files));
+    final int from = -side / 2;
+    long bytes = 0L;
+    for (int i = 0; i < files; ++i) {
+      final int x = from + i % side;
+      final int z = from + i / side;
+      final byte[] region = region(chunksPerFile, payload, random);
+      Files.write(folder.resolve("r." + x + '.' + z + ".mca"), region);
+      bytes += region.length;
+    }
+    return bytes;
+  }
+
+  private static byte[] region(final int chunks, final byte[] payload, final Random random) {
+    final int sectorsPerChunk = (payload.length + 5 + SECTOR - 1) / SECTOR;
+    final int used = Math.min(chunks, CHUNKS);
+    final ByteBuffer buffer = ByteBuffer.allocate(2 * SECTOR + used * sectorsPerChunk * SECTOR);
+    final int timestamp = (int) (System.currentTimeMillis() / 1000L);
+
+    int sector = 2;
+    for (int n = 0; n < used; ++n) {
+      // Any free slot, same as chunks generated in whatever order players walked in
+      int slot;
+      do {
+        slot = random.nextInt(CHUNKS);
+      } while (buffer.getInt(slot * 4) != 0);
+
+      buffer.putInt(slot * 4, sector << 8 | sectorsPerChunk);
+      buffer.putInt(SECTOR + slot * 4, timestamp - random.nextInt(86400));
+      buffer.position(sector * SECTOR);
+      buffer.putInt(payload.length + 1).put((byte) ZLIB).put(payload);
+      sector += sectorsPerChunk;
+    }
+    return buffer.array();
+  }
+
+  // A zlib stream that's about as compressible as chunk NBT
+  private static byte[] chunkPayload(final Random random) {
+    final byte[] raw = new byte[6 * 1024];
+    for (int i = 0; i < raw.length; ++i) {
+      raw[i] = random.nextInt(4) == 0 ? (byte) random.nextInt(256) : (byte) (i >> 6);
+    }
+
+    final Deflater deflater = new Deflater();
+    deflater.setInput(raw);
+    deflater.finish();
+    final byte[] compressed = new byte[raw.length * 2];
+    final int length = deflater.deflate(compressed);
+    deflater.end();
+
+    final byte[] payload = new byte[length];
+    System.arraycopy(compressed, 0, payload, 0, length);
+    return payload;
+  }
+
+  private static int sum(final int[] values) {
+    int sum = 0;
+    for (final int value : values) {
+      sum += value;
+    }
+    return sum;
+  }
+
+  private WorldFixtures() {
+    throw new UnsupportedOperationException();
+  }
+}
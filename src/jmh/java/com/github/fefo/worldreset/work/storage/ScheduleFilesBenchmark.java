@@ -0,0 +1,98 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work.storage;
+
+import com.github.fefo.worldreset.work.ScheduledReset;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+// Reading and writing worlds.json (empty journal) with this many scheduled worlds
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScheduleFilesBenchmark {
+
+  @Param({ "10", "1000", "100000" })
+  public int entries;
+
+  private Path folder;
+  private ScheduleFiles files;
+  private final List<ScheduledReset> resets = new ArrayList<>();
+
+  @Setup
+  public void setup() throws IOException {
+    final Instant now = Instant.now();
+    for (int i = 0; i < this.entries; ++i) {
+      this.resets.add(new ScheduledReset(Duration.ofHours(1L + i % 720), now.minusSeconds(i), "world_" + i));
+    }
+
+    this.folder = Files.createTempDirectory("worldreset-bench");
+    this.files = new ScheduleFiles(this.folder, Logger.getLogger(ScheduleFilesBenchmark.class.getName()));
+    this.files.write(this.resets);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    this.files.getJournal().close();
+    try (final Stream<Path> stream = Files.walk(this.folder)) {
+      for (final Path path : (Iterable<Path>) stream.sorted(Comparator.reverseOrder())::iterator) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  @Benchmark
+  public Map<String, ScheduledReset> read() throws IOException {
+    final Map<String, ScheduledReset> resets = new LinkedHashMap<>();
+    this.files.read(resets);
+    return resets;
+  }
+
+  @Benchmark
+  public void write() throws IOException {
+    this.files.write(this.resets);
+  }
+}
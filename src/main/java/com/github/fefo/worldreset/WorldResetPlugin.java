@@ -24,14 +24,23 @@
 
 package com.github.fefo.worldreset;
 
+import com.github.fefo.worldreset.api.WorldResetService;
 import com.github.fefo.worldreset.commands.WorldResetCommand;
 import com.github.fefo.worldreset.config.YamlConfigAdapter;
 import com.github.fefo.worldreset.messages.SubjectFactory;
+import com.github.fefo.worldreset.metrics.FlightEvents;
+import com.github.fefo.worldreset.metrics.MetricsRegistry;
+import com.github.fefo.worldreset.metrics.PrometheusExporter;
+import com.github.fefo.worldreset.work.CountdownTicker;
+import com.github.fefo.worldreset.work.ResetServiceProvider;
 import com.github.fefo.worldreset.work.WorldsDataHandler;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 
 public final class WorldResetPlugin extends JavaPlugin {
 
@@ -40,6 +49,11 @@ public final class WorldResetPlugin extends JavaPlugin {
   private WorldsDataHandler worldsDataHandler;
   private SubjectFactory subjectFactory;
   private WorldResetCommand worldResetCommand;
+  private CountdownTicker countdownTicker;
+  private MetricsRegistry metrics;
+  private FlightEvents flightEvents;
+  private PrometheusExporter metricsExporter;
+  private ResetServiceProvider resetService;
 
   public Path getPluginDataFolder() {
     return this.pluginDataFolder;
@@ -57,6 +71,14 @@ public final class WorldResetPlugin extends JavaPlugin {
     return this.worldsDataHandler;
   }
 
+  public MetricsRegistry getMetrics() {
+    return this.metrics;
+  }
+
+  public FlightEvents getFlightEvents() {
+    return this.flightEvents;
+  }
+
   @Override
   public void onLoad() {
     try {
@@ -68,6 +90,8 @@ public final class WorldResetPlugin extends JavaPlugin {
 
   @Override
   public void onEnable() {
+    this.metrics = new MetricsRegistry("com.github.fefo.worldreset", getLogger());
+    this.flightEvents = FlightEvents.load(getLogger());
     this.subjectFactory = new SubjectFactory(this);
 
     try {
@@ -78,12 +102,25 @@ public final class WorldResetPlugin extends JavaPlugin {
       throw new RuntimeException(exception);
     }
 
+    this.resetService = new ResetServiceProvider(this.worldsDataHandler, this.configAdapter);
+    Bukkit.getServicesManager().register(WorldResetService.class, this.resetService, this, ServicePriority.Normal);
+
     this.worldResetCommand = new WorldResetCommand(this);
+    this.countdownTicker = new CountdownTicker(this, this.worldsDataHandler, this.configAdapter,
+                                               this.subjectFactory.getAudienceIndex());
+    this.countdownTicker.start();
+
+    // Meant for node_exporter's textfile collector (or anything else that can read the format)
+    this.metricsExporter = new PrometheusExporter(this.metrics, this.pluginDataFolder.resolve("metrics.prom"), getLogger());
+    this.metricsExporter.start(15L, TimeUnit.SECONDS);
   }
 
   @Override
   public void onDisable() {
+    this.countdownTicker.stop();
     this.worldResetCommand.shutdown();
+    Bukkit.getServicesManager().unregister(this.resetService);
+    this.resetService.shutdown();
 
     try {
       this.worldsDataHandler.save();
@@ -92,6 +129,10 @@ public final class WorldResetPlugin extends JavaPlugin {
     } finally {
       this.worldsDataHandler.shutdown();
       this.subjectFactory.cleanup();
+      this.configAdapter.shutdown();
+      this.metricsExporter.shutdown();
+      this.metrics.shutdown();
+      this.flightEvents.shutdown();
     }
   }
 
@@ -0,0 +1,122 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+// A region file that got deleted: the folder it was in, relative to the world folder and with '/'
+// separators ("region", "DIM-1/region"...), and its region coordinates (512 blocks, 32 chunks each)
+public final class ResetRegion {
+
+  private static final String PREFIX = "r.";
+  private static final String SUFFIX = ".mca";
+
+  // Null if the file isn't named like a region file
+  public static @Nullable ResetRegion of(final @NotNull Path worldFolder, final @NotNull Path file) {
+    final String name = file.getFileName().toString();
+    if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+      return null;
+    }
+
+    final int end = name.length() - SUFFIX.length();
+    final int separator = name.indexOf('.', PREFIX.length());
+    if (separator < 0 || separator >= end) {
+      return null;
+    }
+
+    final int x;
+    final int z;
+    try {
+      x = Integer.parseInt(name.substring(PREFIX.length(), separator));
+      z = Integer.parseInt(name.substring(separator + 1, end));
+    } catch (final NumberFormatException exception) {
+      return null;
+    }
+
+    final Path parent = worldFolder.relativize(file).getParent();
+    final String folder = parent == null ? "" : parent.toString().replace(parent.getFileSystem().getSeparator(), "/");
+    return new ResetRegion(folder, x, z);
+  }
+
+  private final String folder;
+  private final int x;
+  private final int z;
+
+  public ResetRegion(final @NotNull String folder, final int x, final int z) {
+    this.folder = Objects.requireNonNull(folder, "folder");
+    this.x = x;
+    this.z = z;
+  }
+
+  public @NotNull String getFolder() {
+    return this.folder;
+  }
+
+  public int getX() {
+    return this.x;
+  }
+
+  public int getZ() {
+    return this.z;
+  }
+
+  public int getMinChunkX() {
+    return this.x << 5;
+  }
+
+  public int getMinChunkZ() {
+    return this.z << 5;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof ResetRegion)) {
+      return false;
+    }
+
+    final ResetRegion that = (ResetRegion) other;
+    return this.x == that.x && this.z == that.z && this.folder.equals(that.folder);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = this.folder.hashCode();
+    result = 31 * result + this.x;
+    result = 31 * result + this.z;
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return this.folder + "/r." + this.x + "." + this.z + ".mca";
+  }
+}
@@ -0,0 +1,75 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.api;
+
+import com.github.fefo.worldreset.work.history.ResetRecord;
+import com.google.common.collect.ImmutableSet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.Set;
+
+// What a reset did. A cancelled one (see WorldResetPrepareEvent) deleted nothing, its record only has
+// the time it took to find what it would've deleted
+public final class ResetResult {
+
+  private final String worldName;
+  private final ResetCause cause;
+  private final ResetRecord record;
+  private final Set<ResetRegion> regions;
+  private final boolean cancelled;
+
+  public ResetResult(final @NotNull String worldName, final @NotNull ResetCause cause,
+                     final @NotNull ResetRecord record, final @NotNull Set<ResetRegion> regions,
+                     final boolean cancelled) {
+    this.worldName = Objects.requireNonNull(worldName, "worldName");
+    this.cause = Objects.requireNonNull(cause, "cause");
+    this.record = Objects.requireNonNull(record, "record");
+    this.regions = ImmutableSet.copyOf(regions);
+    this.cancelled = cancelled;
+  }
+
+  public @NotNull String getWorldName() {
+    return this.worldName;
+  }
+
+  public @NotNull ResetCause getCause() {
+    return this.cause;
+  }
+
+  // Timings, files deleted, bytes freed and errors
+  public @NotNull ResetRecord getRecord() {
+    return this.record;
+  }
+
+  // Only the ones that were actually deleted, anything that failed to delete isn't here
+  public @NotNull Set<ResetRegion> getRegions() {
+    return this.regions;
+  }
+
+  public boolean isCancelled() {
+    return this.cancelled;
+  }
+}
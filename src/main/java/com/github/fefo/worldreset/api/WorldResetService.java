@@ -0,0 +1,64 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.api;
+
+import com.github.fefo.worldreset.work.ScheduledReset;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Registered with Bukkit's ServicesManager while the plugin is enabled. Everything here can be called from any thread;
+// the futures complete on one of the plugin's threads, so don't block the server thread waiting on them
+public interface WorldResetService {
+
+  // Every scheduled reset, keyed by lowercase world name. Immutable, and the same instance until
+  // something gets scheduled, unscheduled, reset or moved within its window
+  @NotNull Map<String, ScheduledReset> getSchedules();
+
+  @Nullable ScheduledReset getSchedule(@NotNull String worldName);
+
+  // With the world's profile window (if any)
+  @NotNull CompletableFuture<ScheduledReset> schedule(@NotNull String worldName, @NotNull Duration interval);
+
+  // A zero window means it resets right when it's due
+  @NotNull CompletableFuture<ScheduledReset> schedule(@NotNull String worldName, @NotNull Duration interval,
+                                                      @NotNull Duration window);
+
+  // Completes with false if it wasn't scheduled
+  @NotNull CompletableFuture<Boolean> unschedule(@NotNull String worldName);
+
+  // Resets the world folder right away with its profile, its schedule (if any) stays as it is.
+  // The world must be unloaded, and stay unloaded until this completes; otherwise it completes exceptionally
+  // with an IllegalStateException, same as when the world already has a reset running or waiting to
+  @NotNull CompletableFuture<ResetResult> resetNow(@NotNull String worldName);
+
+  // Resets applied while the plugin was enabling, before the worlds were loaded (and before most plugins
+  // got to listen for WorldResetCompleteEvent)
+  @NotNull List<ResetResult> getStartupResets();
+}
@@ -0,0 +1,87 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.api.event;
+
+import com.github.fefo.worldreset.api.ResetCause;
+import com.github.fefo.worldreset.api.ResetRegion;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Set;
+
+// Called on a reset thread once the regions to delete are known, right before deleting them.
+// Cancelling it skips this reset: nothing gets deleted, but a scheduled one still moves on to its next reset.
+// Resets applied on startup happen before most plugins are enabled, see WorldResetService#getStartupResets
+public final class WorldResetPrepareEvent extends Event implements Cancellable {
+
+  private static final HandlerList HANDLERS = new HandlerList();
+
+  public static HandlerList getHandlerList() {
+    return HANDLERS;
+  }
+
+  private final String worldName;
+  private final ResetCause cause;
+  private final Set<ResetRegion> regions;
+  private boolean cancelled = false;
+
+  public WorldResetPrepareEvent(final @NotNull String worldName, final @NotNull ResetCause cause,
+                                final @NotNull Set<ResetRegion> regions) {
+    super(true);
+    this.worldName = worldName;
+    this.cause = cause;
+    this.regions = regions;
+  }
+
+  public @NotNull String getWorldName() {
+    return this.worldName;
+  }
+
+  public @NotNull ResetCause getCause() {
+    return this.cause;
+  }
+
+  // What's about to be deleted
+  public @NotNull Set<ResetRegion> getRegions() {
+    return this.regions;
+  }
+
+  @Override
+  public boolean isCancelled() {
+    return this.cancelled;
+  }
+
+  @Override
+  public void setCancelled(final boolean cancelled) {
+    this.cancelled = cancelled;
+  }
+
+  @Override
+  public @NotNull HandlerList getHandlers() {
+    return HANDLERS;
+  }
+}
@@ -0,0 +1,236 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.cli;
+
+import com.github.fefo.worldreset.config.ConfigReader;
+import com.github.fefo.worldreset.config.PluginConfig;
+import com.github.fefo.worldreset.metrics.FlightEvents;
+import com.github.fefo.worldreset.work.RegionSweeper;
+import com.github.fefo.worldreset.work.ResetEngine;
+import com.github.fefo.worldreset.work.ResetQueue;
+import com.github.fefo.worldreset.work.ScheduledReset;
+import com.github.fefo.worldreset.work.history.ResetHistory;
+import com.github.fefo.worldreset.work.history.ResetRecord;
+import com.github.fefo.worldreset.work.plan.PlanStore;
+import com.github.fefo.worldreset.work.storage.ScheduleJournal;
+import com.github.fefo.worldreset.work.storage.ScheduleStorage;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// Applies due resets while the server is stopped (from cron, a systemd timer, a deploy script...)
+// with the same engine the plugin uses on startup. Worlds that are locked by a running server are left alone.
+// Exit code: 0 if everything went fine, 1 if some world had errors, 2 if nothing could be done
+public final class OfflineReset {
+
+  private static final String USAGE =
+      "Usage: java -jar WorldReset-cli.jar [options]\n"
+      + "  --server <folder>   server folder (default: current folder)\n"
+      + "  --worlds <folder>   folder the worlds are in, if the server uses --world-container (default: server folder)\n"
+      + "  --data <folder>     plugin data folder (default: <server>/plugins/WorldReset)\n"
+      + "  --threads <n>       worlds reset at the same time, by priority (default: available processors)\n"
+      + "  --dry-run           only list the worlds that are due";
+
+  public static void main(final String[] args) {
+    System.setProperty("java.util.logging.SimpleFormatter.format", "[%4$s] %5$s%6$s%n");
+    final Logger logger = Logger.getLogger("WorldReset");
+
+    Path server = Paths.get("");
+    Path worlds = null;
+    Path data = null;
+    int threads = Runtime.getRuntime().availableProcessors();
+    boolean dryRun = false;
+    try {
+      for (int i = 0; i < args.length; ++i) {
+        switch (args[i]) {
+          case "--server":
+            server = Paths.get(args[++i]);
+            break;
+          case "--worlds":
+            worlds = Paths.get(args[++i]);
+            break;
+          case "--data":
+            data = Paths.get(args[++i]);
+            break;
+          case "--threads":
+            threads = Integer.parseInt(args[++i]);
+            break;
+          case "--dry-run":
+            dryRun = true;
+            break;
+          default:
+            throw new IllegalArgumentException(args[i]);
+        }
+      }
+    } catch (final IllegalArgumentException | ArrayIndexOutOfBoundsException exception) {
+      System.err.println(USAGE);
+      System.exit(2);
+      return;
+    }
+
+    if (worlds == null) {
+      worlds = server;
+    }
+    if (data == null) {
+      data = server.resolve("plugins").resolve("WorldReset");
+    }
+
+    try {
+      System.exit(run(worlds, data, Math.max(1, threads), dryRun, logger));
+    } catch (final IOException | RuntimeException exception) {
+      exception.printStackTrace();
+      System.exit(2);
+    }
+  }
+
+  private static int run(final Path worldsFolder, final Path dataFolder, final int threads,
+                         final boolean dryRun, final Logger logger) throws IOException {
+    final Path configFile = dataFolder.resolve("config.yml");
+    if (Files.notExists(configFile)) {
+      logger.severe("No config.yml in " + dataFolder.toAbsolutePath() + ", use --data or --server");
+      return 2;
+    }
+
+    final PluginConfig config = ConfigReader.read(configFile, logger).config();
+    final ScheduleStorage storage =
+        ScheduleStorage.open(config.getStorageType(), config.getSharedStorageFolder(), dataFolder, logger);
+    final List<FileChannel> locks = new ArrayList<>();
+    ResetHistory history = null;
+    try {
+      final Collection<ScheduledReset> scheduled = storage.load();
+      if (dryRun) {
+        for (final ScheduledReset reset : scheduled) {
+          if (reset.auditReset()) {
+            logger.info(reset.getWorldName() + " is due since " + reset.getEffectiveReset());
+          }
+        }
+        return 0;
+      }
+
+      // Keep the worlds locked the whole time so a server can't start on top of a half reset world
+      final List<ScheduledReset> resets = new ArrayList<>(scheduled.size());
+      for (final ScheduledReset reset : scheduled) {
+        if (!lock(worldsFolder.resolve(reset.getWorldName()), locks)) {
+          logger.warning(reset.getWorldName() + " is in use by a running server, skipping it");
+          continue;
+        }
+        resets.add(reset);
+      }
+
+      history = new ResetHistory(dataFolder.resolve("reset-history.dat"), ResetHistory.DEFAULT_CAPACITY);
+      // Each reset lists and deletes its storage types at the same time, on top of the worlds run at the same time
+      final ExecutorService ioExecutor =
+          Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+              .setDaemon(true)
+              .setNameFormat("worldreset-offline-io-thread-%d")
+              .build());
+      final ResetEngine engine = new ResetEngine(worldsFolder, storage, history,
+                                                 new RegionSweeper(logger, FlightEvents.load(logger), ioExecutor),
+                                                 new PlanStore(dataFolder.resolve("plans"), logger));
+      final ExecutorService executor =
+          Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+              .setDaemon(true)
+              .setNameFormat("worldreset-offline-thread-%d")
+              .build());
+
+      final List<ResetEngine.Outcome> outcomes;
+      try {
+        outcomes = engine.applyDue(resets, config.getProfiles(), Instant.now(), new ResetQueue(executor, () -> threads), outcome -> {
+          final ResetRecord record = outcome.getRecord();
+          logger.info(String.format("%s: %d files deleted (%d bytes) in %d ms%s",
+                                    record.getWorldName(), record.getFilesDeleted(), record.getBytesFreed(),
+                                    record.getTotalTime().toMillis(),
+                                    record.getErrors() == 0 ? "" : ", " + record.getErrors() + " errors: " + record.getFirstError()));
+        });
+      } finally {
+        executor.shutdown();
+        ioExecutor.shutdown();
+      }
+
+      final List<ScheduleJournal.Entry> entries = new ArrayList<>(outcomes.size());
+      int errors = 0;
+      for (final ResetEngine.Outcome outcome : outcomes) {
+        if (outcome.getNext() != null) {
+          entries.add(ScheduleJournal.Entry.resetCompleted(outcome.getNext()));
+        }
+        errors += outcome.getRecord().getErrors();
+      }
+      if (!entries.isEmpty()) {
+        storage.append(entries);
+        storage.compact();
+      }
+
+      logger.info(outcomes.isEmpty() ? "No world was due" : "Reset " + outcomes.size() + " worlds");
+      return errors == 0 ? 0 : 1;
+    } finally {
+      for (final FileChannel lock : locks) {
+        lock.close();
+      }
+      if (history != null) {
+        history.close();
+      }
+      storage.close();
+    }
+  }
+
+  // The server holds a lock on session.lock for as long as the world is loaded, false if it's taken
+  private static boolean lock(final Path worldFolder, final List<FileChannel> locks) throws IOException {
+    if (!Files.isDirectory(worldFolder)) {
+      // Nothing to reset, nothing to lock
+      return true;
+    }
+
+    final FileChannel channel = FileChannel.open(worldFolder.resolve("session.lock"), CREATE, WRITE);
+    try {
+      if (channel.tryLock() != null) {
+        locks.add(channel);
+        return true;
+      }
+    } catch (final OverlappingFileLockException exception) {
+      // Already locked by this process
+    }
+    channel.close();
+    return false;
+  }
+
+  private OfflineReset() {
+    throw new UnsupportedOperationException();
+  }
+}
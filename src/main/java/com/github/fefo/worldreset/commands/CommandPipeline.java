@@ -0,0 +1,91 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.commands;
+
+import com.github.fefo.worldreset.messages.Message;
+import com.github.fefo.worldreset.messages.MessagingSubject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+// Commands that touch both the server and the disk run in three stages:
+// snapshot - on the server thread, look up worlds/players and copy out what's needed
+// work     - on the command pool, do the (blocking) I/O with that snapshot
+// feedback - right after, on the command pool, tell the sender how it went
+// No command thread ever waits for the server thread, so a burst of commands costs a single
+// tick hop and doesn't tie up the pool
+final class CommandPipeline {
+
+  private final Executor mainThread;
+  private final Executor async;
+  // What the command running on each thread handed off, so it can be timed until it's actually done
+  private final ThreadLocal<CompletableFuture<Void>> started = new ThreadLocal<>();
+
+  CommandPipeline(final @NotNull Executor mainThread, final @NotNull Executor async) {
+    this.mainThread = mainThread;
+    this.async = async;
+  }
+
+  <S, R> void run(final @NotNull MessagingSubject subject,
+                  final @NotNull Supplier<? extends S> snapshot,
+                  final @NotNull Work<? super S, ? extends R> work,
+                  final @NotNull BiConsumer<? super S, ? super R> feedback) {
+    this.started.set(CompletableFuture.supplyAsync(snapshot, this.mainThread).thenAcceptAsync(taken -> {
+      final R result;
+      try {
+        result = work.run(taken);
+      } catch (final IOException exception) {
+        throw new CompletionException(exception);
+      }
+      feedback.accept(taken, result);
+    }, this.async).exceptionally(throwable -> {
+      final Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+      cause.printStackTrace();
+      if (cause instanceof IOException) {
+        Message.ERROR_WHILE_SAVING.send(subject);
+      }
+      return null;
+    }));
+  }
+
+  // Completes once the stages started by this thread's command are done (or failed), null if it started none
+  @Nullable CompletableFuture<Void> takeStarted() {
+    final CompletableFuture<Void> started = this.started.get();
+    this.started.remove();
+    return started;
+  }
+
+  @FunctionalInterface
+  interface Work<S, R> {
+
+    R run(S snapshot) throws IOException;
+  }
+}
@@ -24,6 +24,7 @@
 
 package com.github.fefo.worldreset.commands;
 
+import com.github.fefo.worldreset.util.DurationCodec;
 import com.github.fefo.worldreset.util.Utils;
 import com.google.common.collect.ImmutableList;
 import com.mojang.brigadier.LiteralMessage;
@@ -37,21 +38,12 @@ import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
-import java.time.temporal.ChronoUnit;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public final class DurationArgumentType implements ArgumentType<Duration> {
 
-  private static final Map<String, ChronoUnit> SCALES;
-  private static final List<String> SCALES_SUGGESTIONS;
   private static final Dynamic2CommandExceptionType DURATION_TOO_SMALL =
       new Dynamic2CommandExceptionType((found, min) -> {
         return new LiteralMessage("Duration must not be less than " + min + ", found " + found);
@@ -61,34 +53,6 @@ public final class DurationArgumentType implements ArgumentType<Duration> {
         return new LiteralMessage("Duration must not be more than " + max + ", found " + found);
       });
   private static final Collection<String> EXAMPLES = ImmutableList.of("12d", "25mins", "8.5ys", "3mo5ws2days4.045secs");
-  private static final Pattern DURATION_PATTERN =
-      Pattern.compile("^" +
-                      "(?:(\\d+(?:\\.\\d+)?)(y)(?:ear)?s?)?" +
-                      "(?:(\\d+(?:\\.\\d+)?)(mo)(?:nth)?s?)?" +
-                      "(?:(\\d+(?:\\.\\d+)?)(w)(?:eek)?s?)?" +
-                      "(?:(\\d+(?:\\.\\d+)?)(d)(?:ay)?s?)?" +
-                      "(?:(\\d+(?:\\.\\d+)?)(h)(?:r|our)?s?)?" +
-                      "(?:(\\d+(?:\\.\\d+)?)(m)(?:in|inute)?s?)?" +
-                      "(?:(\\d+(?:\\.\\d+)?)(?:(s)(?:ec|econd)?s?)?)?" +
-                      "$");
-
-  static {
-    // Use a LinkedHashMap so they retain the order they were put into
-    // That same order will be the one in which suggestions will appear
-    // See #listSuggestions comments for a brief example
-    final Map<String, ChronoUnit> builder = new LinkedHashMap<>(7);
-    builder.put("y", ChronoUnit.YEARS);
-    builder.put("mo", ChronoUnit.MONTHS);
-    builder.put("w", ChronoUnit.WEEKS);
-    builder.put("d", ChronoUnit.DAYS);
-    builder.put("h", ChronoUnit.HOURS);
-    builder.put("m", ChronoUnit.MINUTES);
-    builder.put("s", ChronoUnit.SECONDS);
-
-    SCALES = Collections.unmodifiableMap(builder);
-    SCALES_SUGGESTIONS = ImmutableList.copyOf(SCALES.keySet());
-    // This is where and why the order has to be retained
-  }
 
   public static <S> Duration getDuration(final CommandContext<S> context, final String name) {
     return context.getArgument(name, Duration.class);
@@ -125,34 +89,14 @@ public final class DurationArgumentType implements ArgumentType<Duration> {
 
   @Override
   public Duration parse(final StringReader reader) throws CommandSyntaxException {
-    final String input = reader.readUnquotedString().toLowerCase(Locale.ROOT);
-    if (input.isEmpty()) {
-      throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownArgument()
-                                                      .createWithContext(reader);
-    }
-
-    final Matcher matcher = DURATION_PATTERN.matcher(input);
-    Duration duration = Duration.ZERO;
-
-    if (matcher.find() && !matcher.group().isEmpty()) {
-      for (int i = 1; i <= SCALES.size(); ++i) {
-        final String current = matcher.group(i * 2 - 1);
-        if (current == null) {
-          continue;
-        }
-
-        // Defaults to seconds if no scale is provided (ergo: group is null)
-        final ChronoUnit unit = SCALES.getOrDefault(matcher.group(i * 2), ChronoUnit.SECONDS);
-        final double parsedCurrent = Double.parseDouble(current) * unit.getDuration().getSeconds();
-        // Whacky workaround because you can't use ChronoUnits
-        // larger than DAYS in Duration#plus(long, TemporalUnit)
-        duration = duration.plus(Math.round(parsedCurrent), ChronoUnit.SECONDS);
-      }
-    } else {
+    final String input = reader.readUnquotedString();
+    final long seconds = DurationCodec.parseSeconds(input);
+    if (seconds == DurationCodec.INVALID) {
       throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownArgument()
                                                       .createWithContext(reader);
     }
 
+    final Duration duration = Duration.ofSeconds(seconds);
     if (this.minimum != null && duration.compareTo(this.minimum) < 0) {
       throw DURATION_TOO_SMALL.createWithContext(reader, Utils.shortDuration(duration),
                                                  Utils.shortDuration(this.minimum));
@@ -170,33 +114,17 @@ public final class DurationArgumentType implements ArgumentType<Duration> {
   public <S> CompletableFuture<Suggestions> listSuggestions(final CommandContext<S> context,
                                                             final SuggestionsBuilder builder) {
     final String current = builder.getRemaining().toLowerCase(Locale.ROOT);
-    final Matcher matcher = DURATION_PATTERN.matcher(current);
-
-    if (matcher.find()) {
-      int nullGroups = 0;
-      String lastScale = null;
-      // Reverse for loop because we'll take the last non-digit non-null group as base index
-      // for taking the suggestions
-      for (int i = matcher.groupCount(); i > 0; --i) {
-        final String currentGroup = matcher.group(i);
-        if (currentGroup == null) {
-          ++nullGroups;
-        } else if (SCALES.containsKey(currentGroup) && lastScale == null) {
-          lastScale = currentGroup;
-        }
-      }
 
-      // 123 -> [y, mo, w, d, h, m, s]
-      // 123ws4 -> [d, h, m, s]
-      // 123ws4h56 -> [m, s]
-      // 123mo -> [] (can't suggest random numbers, only suggest time scales)
-      if (nullGroups % 2 == 1) {
-        final int index = SCALES_SUGGESTIONS.indexOf(lastScale) + 1;
-        for (int i = index; i < SCALES_SUGGESTIONS.size(); ++i) {
-          builder.suggest(current + SCALES_SUGGESTIONS.get(i));
-        }
-        return builder.buildFuture();
+    // 123 -> [y, mo, w, d, h, m, s]
+    // 123ws4 -> [d, h, m, s]
+    // 123ws4h56 -> [m, s]
+    // 123mo -> [] (can't suggest random numbers, only suggest time scales)
+    final int nextUnit = DurationCodec.nextUnitAfterTrailingNumber(current);
+    if (nextUnit >= 0) {
+      for (int unit = nextUnit; unit < DurationCodec.UNITS; ++unit) {
+        builder.suggest(current + DurationCodec.shortSuffix(unit));
       }
+      return builder.buildFuture();
     }
 
     return Suggestions.empty();
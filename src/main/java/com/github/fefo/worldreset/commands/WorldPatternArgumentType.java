@@ -0,0 +1,89 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.commands;
+
+import com.github.fefo.worldreset.work.WorldPattern;
+import com.google.common.collect.ImmutableList;
+import com.mojang.brigadier.LiteralMessage;
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.mojang.brigadier.exceptions.DynamicCommandExceptionType;
+
+import java.util.Collection;
+import java.util.regex.PatternSyntaxException;
+
+// Everything up to the next space (or a quoted string), so globs don't need quoting
+public final class WorldPatternArgumentType implements ArgumentType<WorldPattern> {
+
+  private static final DynamicCommandExceptionType INVALID_PATTERN =
+      new DynamicCommandExceptionType(error -> {
+        return new LiteralMessage("Invalid world pattern: " + error);
+      });
+  private static final Collection<String> EXAMPLES = ImmutableList.of("arena_*", "lobby_?", "regex:arena_\\d+");
+
+  public static <S> WorldPattern getWorldPattern(final CommandContext<S> context, final String name) {
+    return context.getArgument(name, WorldPattern.class);
+  }
+
+  public static WorldPatternArgumentType worldPattern() {
+    return new WorldPatternArgumentType();
+  }
+
+  private WorldPatternArgumentType() {
+  }
+
+  @Override
+  public WorldPattern parse(final StringReader reader) throws CommandSyntaxException {
+    final int start = reader.getCursor();
+    final String input;
+    if (reader.canRead() && StringReader.isQuotedStringStart(reader.peek())) {
+      input = reader.readQuotedString();
+    } else {
+      while (reader.canRead() && reader.peek() != ' ') {
+        reader.skip();
+      }
+      input = reader.getString().substring(start, reader.getCursor());
+    }
+
+    if (input.isEmpty()) {
+      throw CommandSyntaxException.BUILT_IN_EXCEPTIONS.dispatcherUnknownArgument()
+                                                      .createWithContext(reader);
+    }
+
+    try {
+      return WorldPattern.compile(input);
+    } catch (final PatternSyntaxException exception) {
+      reader.setCursor(start);
+      throw INVALID_PATTERN.createWithContext(reader, exception.getDescription());
+    }
+  }
+
+  @Override
+  public Collection<String> getExamples() {
+    return EXAMPLES;
+  }
+}
@@ -26,28 +26,37 @@ package com.github.fefo.worldreset.commands;
 
 import com.destroystokyo.paper.event.server.AsyncTabCompleteEvent;
 import com.github.fefo.worldreset.WorldResetPlugin;
-import com.github.fefo.worldreset.config.ConfigKeys;
+import com.github.fefo.worldreset.config.ResetProfile;
 import com.github.fefo.worldreset.config.YamlConfigAdapter;
 import com.github.fefo.worldreset.messages.Message;
 import com.github.fefo.worldreset.messages.MessagingSubject;
 import com.github.fefo.worldreset.messages.SubjectFactory;
+import com.github.fefo.worldreset.metrics.Histogram;
+import com.github.fefo.worldreset.metrics.MetricsRegistry;
 import com.github.fefo.worldreset.util.CommandMapHelper;
+import com.github.fefo.worldreset.util.MainThreadExecutor;
+import com.github.fefo.worldreset.work.ResetJob;
 import com.github.fefo.worldreset.work.ScheduledReset;
+import com.github.fefo.worldreset.work.WorldPattern;
 import com.github.fefo.worldreset.work.WorldsDataHandler;
+import com.github.fefo.worldreset.work.history.ResetRecord;
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.ParseResults;
 import com.mojang.brigadier.arguments.ArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.builder.RequiredArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.context.ParsedCommandNode;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.suggestion.Suggestion;
 import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import com.mojang.brigadier.tree.CommandNode;
+import com.mojang.brigadier.tree.LiteralCommandNode;
 import com.mojang.brigadier.tree.RootCommandNode;
 import org.bukkit.Bukkit;
 import org.bukkit.World;
@@ -56,40 +65,53 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import static com.github.fefo.worldreset.commands.DurationArgumentType.duration;
+import static com.github.fefo.worldreset.commands.WorldPatternArgumentType.worldPattern;
+import static com.mojang.brigadier.arguments.IntegerArgumentType.integer;
 import static com.mojang.brigadier.arguments.StringArgumentType.string;
 
 public final class WorldResetCommand extends Command implements Listener {
 
   private static final Pattern COMMAND_PATTERN = Pattern.compile("^/?(?:worldreset:)?worldreset ");
+  private static final String ALL_WORLDS = "*";
+  private static final int HISTORY_PAGE_SIZE = 10;
+  private static final String NO_SUBCOMMAND = "none";
 
   private final WorldResetPlugin plugin;
   private final WorldsDataHandler worldsDataHandler;
   private final YamlConfigAdapter configAdapter;
   private final SubjectFactory subjectFactory;
 
-  private final ExecutorService asyncExecutor =
-      Executors.newFixedThreadPool(5, new ThreadFactoryBuilder()
+  // Same as Executors.newFixedThreadPool, but typed so the metrics can look at its queue
+  private final ThreadPoolExecutor asyncExecutor =
+      new ThreadPoolExecutor(5, 5, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), new ThreadFactoryBuilder()
           .setPriority(Thread.NORM_PRIORITY)
           .setDaemon(false)
           .setNameFormat("worldreset-command-pool-thread-%d")
           .build());
 
+  private final CommandPipeline pipeline;
+  // By subcommand, NO_SUBCOMMAND for input that doesn't get as far as one
+  private final Map<String, Histogram> commandLatency = new HashMap<>();
+
   private final CommandDispatcher<MessagingSubject> dispatcher = new CommandDispatcher<>();
   private final RootCommandNode<MessagingSubject> rootNode = this.dispatcher.getRoot();
 
@@ -99,6 +121,13 @@ public final class WorldResetCommand extends Command implements Listener {
     this.configAdapter = plugin.getConfigAdapter();
     this.subjectFactory = plugin.getSubjectFactory();
     this.worldsDataHandler = plugin.getWorldsDataHandler();
+    this.pipeline = new CommandPipeline(new MainThreadExecutor(plugin), this.asyncExecutor);
+
+    final MetricsRegistry metrics = plugin.getMetrics();
+    metrics.gauge("worldreset_command_queue_depth", "Commands waiting for a command pool thread",
+                  () -> this.asyncExecutor.getQueue().size());
+    metrics.gauge("worldreset_command_active_threads", "Command pool threads running a command",
+                  this.asyncExecutor::getActiveCount);
 
     setPermission("worldreset.command");
     setPermissionMessage(Message.NO_PERMISSION.legacy());
@@ -116,22 +145,49 @@ public final class WorldResetCommand extends Command implements Listener {
         .requires(subject -> subject.hasPermission(getPermission()))
         .then(literal("schedule")
                   .executes(this::scheduleDefault)
+                  .then(literal("--match")
+                            .then(argument("pattern", worldPattern())
+                                      .then(argument("interval", duration(Duration.ofSeconds(10L)))
+                                                .executes(this::scheduleMatching))))
                   .then(argument("world", string())
                             .suggests(this::suggestWorlds)
                             .executes(this::scheduleWorld)
                             .then(argument("interval", duration(Duration.ofSeconds(10L)))
-                                      .executes(this::scheduleWorldWithInterval))))
+                                      .executes(this::scheduleWorldWithInterval)
+                                      .then(argument("window", duration(Duration.ZERO))
+                                                .executes(this::scheduleWorldWithWindow)))))
         .then(literal("unschedule")
                   .executes(this::unscheduleCurrent)
+                  .then(literal("--match")
+                            .then(argument("pattern", worldPattern())
+                                      .executes(this::unscheduleMatching)))
                   .then(argument("world", string())
                             .suggests(this::suggestScheduledWorlds)
                             .executes(this::unscheduleWorld)))
         .then(literal("list")
                   .executes(this::list))
+        .then(literal("history")
+                  .executes(this::history)
+                  .then(argument("world", string())
+                            .suggests(this::suggestHistoryWorlds)
+                            .executes(this::historyWorld)
+                            .then(argument("page", integer(1))
+                                      .executes(this::historyWorldPage))))
+        .then(literal("jobs")
+                  .executes(this::jobs)
+                  .then(literal("cancel")
+                            .then(argument("world", string())
+                                      .suggests(this::suggestPendingJobs)
+                                      .executes(this::cancelJob))))
         .then(literal("help")
                   .executes(this::help));
 
-    this.rootNode.addChild(builder.build());
+    final LiteralCommandNode<MessagingSubject> command = builder.build();
+    this.rootNode.addChild(command);
+    for (final CommandNode<MessagingSubject> subcommand : command.getChildren()) {
+      this.commandLatency.put(subcommand.getName(), commandLatency(metrics, subcommand.getName()));
+    }
+    this.commandLatency.put(NO_SUBCOMMAND, commandLatency(metrics, NO_SUBCOMMAND));
   }
 
   public void shutdown() {
@@ -157,90 +213,167 @@ public final class WorldResetCommand extends Command implements Listener {
     do {
       final ScheduledReset scheduledReset = iterator.next();
       Message.LIST_SCHEDULED_RESETS_ELEMENT.send(subject, scheduledReset.getWorldName(),
-                                                 Duration.between(now, scheduledReset.getNextReset()),
+                                                 Duration.between(now, scheduledReset.getEffectiveReset()),
                                                  scheduledReset.getInterval());
     } while (iterator.hasNext());
     return 1;
   }
 
-  private void schedule(final String worldName, final Duration interval, final MessagingSubject subject) {
-    if (Bukkit.getWorld(worldName) == null) {
-      Message.UNKNOWN_WORLD.send(subject, worldName);
+  private void history(final String worldName, final int page, final MessagingSubject subject) {
+    final List<ResetRecord> records;
+    try {
+      records = this.worldsDataHandler.getResetHistory().page(worldName, page, HISTORY_PAGE_SIZE);
+    } catch (final IOException exception) {
+      exception.printStackTrace();
+      Message.HISTORY_READ_ERROR.send(subject);
       return;
     }
 
-    try {
-      switch (this.worldsDataHandler.schedule(worldName, interval)) {
+    Message.HISTORY_TITLE.send(subject, worldName, page);
+    if (records.isEmpty()) {
+      Message.HISTORY_NO_ELEMENT.send(subject);
+      return;
+    }
+
+    for (final ResetRecord record : records) {
+      Message.HISTORY_ELEMENT.send(subject, record);
+    }
+  }
+
+  private int history(final CommandContext<MessagingSubject> context) {
+    history(null, 1, context.getSource());
+    return 1;
+  }
+
+  private int historyWorld(final CommandContext<MessagingSubject> context) {
+    final String worldName = StringArgumentType.getString(context, "world");
+    history(ALL_WORLDS.equals(worldName) ? null : worldName, 1, context.getSource());
+    return 1;
+  }
+
+  private int historyWorldPage(final CommandContext<MessagingSubject> context) {
+    final String worldName = StringArgumentType.getString(context, "world");
+    final int page = IntegerArgumentType.getInteger(context, "page");
+    history(ALL_WORLDS.equals(worldName) ? null : worldName, page, context.getSource());
+    return 1;
+  }
+
+  private int jobs(final CommandContext<MessagingSubject> context) {
+    final MessagingSubject subject = context.getSource();
+    Message.JOBS_TITLE.send(subject);
+
+    final List<ResetJob> jobs = this.worldsDataHandler.getResetQueue().jobs();
+    if (jobs.isEmpty()) {
+      Message.JOBS_NO_ELEMENT.send(subject);
+      return 1;
+    }
+
+    for (final ResetJob job : jobs) {
+      Message.JOBS_ELEMENT.send(subject, job);
+    }
+    return 1;
+  }
+
+  private int cancelJob(final CommandContext<MessagingSubject> context) {
+    final MessagingSubject subject = context.getSource();
+    final String worldName = StringArgumentType.getString(context, "world");
+    if (this.worldsDataHandler.getResetQueue().cancel(worldName)) {
+      Message.JOB_CANCELLED.send(subject, worldName);
+      return 1;
+    }
+
+    Message.JOB_NOT_PENDING.send(subject, worldName);
+    return 0;
+  }
+
+  // The world is looked up on the server thread; a null interval or window means the world's profile default
+  private void schedule(final MessagingSubject subject, final String input, final Supplier<? extends World> world,
+                        final @Nullable Duration interval, final @Nullable Duration window) {
+    this.pipeline.run(subject, () -> {
+      final World found = world.get();
+      if (found == null) {
+        return null;
+      }
+
+      final String worldName = found.getName();
+      final ResetProfile profile = this.configAdapter.config().getProfiles().forWorld(worldName);
+      return new ScheduleTarget(worldName,
+                                interval != null ? interval : profile.getInterval(),
+                                window != null ? window : profile.getResetWindow());
+    }, target -> {
+      return target == null ? null : this.worldsDataHandler.schedule(
+          new ScheduledReset(target.interval, Instant.now(), target.worldName, target.window));
+    }, (target, result) -> {
+      if (target == null) {
+        Message.UNKNOWN_WORLD.send(subject, input);
+        return;
+      }
+
+      switch (result) {
         case SUCCESS_OTHER:
-          Message.SCHEDULED_SUCCESSFULLY.send(subject, worldName, interval);
+          Message.SCHEDULED_SUCCESSFULLY.send(subject, target.worldName, target.interval);
           break;
 
         case SUCCESS_RESCHEDULED:
-          Message.RESCHEDULED_SUCCESSFULLY.send(subject, worldName, interval);
+          Message.RESCHEDULED_SUCCESSFULLY.send(subject, target.worldName, target.interval);
           break;
       }
-
-      this.worldsDataHandler.save();
-    } catch (final IOException exception) {
-      exception.printStackTrace();
-      Message.ERROR_WHILE_SAVING.send(subject);
-    }
+      if (!target.window.isZero()) {
+        Message.RESET_WINDOW.send(subject, target.window);
+      }
+    });
   }
 
-  private void unschedule(final String worldName, final MessagingSubject subject) {
-    if (Bukkit.getWorld(worldName) == null) {
-      Message.UNKNOWN_WORLD.send(subject, worldName);
-      return;
-    }
-
-    if (this.worldsDataHandler.unschedule(worldName)) {
-      Message.UNSCHEDULED_SUCCESSFULLY.send(subject, worldName);
-      try {
-        this.worldsDataHandler.save();
-      } catch (final IOException exception) {
-        exception.printStackTrace();
-        Message.ERROR_WHILE_SAVING.send(subject);
+  private void unschedule(final MessagingSubject subject, final String input, final Supplier<? extends World> world) {
+    this.pipeline.run(subject, () -> {
+      final World found = world.get();
+      return found == null ? null : found.getName();
+    }, worldName -> {
+      return worldName != null && this.worldsDataHandler.unschedule(worldName);
+    }, (worldName, unscheduled) -> {
+      if (worldName == null) {
+        Message.UNKNOWN_WORLD.send(subject, input);
+      } else if (unscheduled) {
+        Message.UNSCHEDULED_SUCCESSFULLY.send(subject, worldName);
+      } else {
+        Message.WASNT_SCHEDULED.send(subject, worldName);
       }
-    } else {
-      Message.WASNT_SCHEDULED.send(subject, worldName);
-    }
+    });
   }
 
   private int unscheduleCurrent(final CommandContext<MessagingSubject> context) {
     final MessagingSubject subject = context.getSource();
     if (subject.existsInWorld()) {
-      unschedule(subject.getWorld().getName(), subject);
+      unschedule(subject, subject.getName(), subject::getWorld);
       return 1;
     }
 
-    Message.CONSOLE_INCOMPLETE_COMMAND.send(subject, "provide a world");
+    Message.CONSOLE_INCOMPLETE_COMMAND.send(subject);
     return 0;
   }
 
   private int unscheduleWorld(final CommandContext<MessagingSubject> context) {
     final MessagingSubject subject = context.getSource();
     final String worldName = StringArgumentType.getString(context, "world");
-    unschedule(worldName, subject);
+    unschedule(subject, worldName, () -> Bukkit.getWorld(worldName));
     return 1;
   }
 
   private int scheduleDefault(final CommandContext<MessagingSubject> context) {
     final MessagingSubject subject = context.getSource();
     if (subject.existsInWorld()) {
-      final Duration interval = this.configAdapter.get(ConfigKeys.DEFAULT_RESET_INTERVAL);
-      schedule(subject.getWorld().getName(), interval, subject);
+      schedule(subject, subject.getName(), subject::getWorld, null, null);
       return 1;
     }
 
-    Message.CONSOLE_INCOMPLETE_COMMAND.send(subject, "provide a world");
+    Message.CONSOLE_INCOMPLETE_COMMAND.send(subject);
     return 0;
   }
 
   private int scheduleWorld(final CommandContext<MessagingSubject> context) {
     final MessagingSubject subject = context.getSource();
     final String worldName = StringArgumentType.getString(context, "world");
-    final Duration interval = this.configAdapter.get(ConfigKeys.DEFAULT_RESET_INTERVAL);
-    schedule(worldName, interval, subject);
+    schedule(subject, worldName, () -> Bukkit.getWorld(worldName), null, null);
     return 1;
   }
 
@@ -248,7 +381,56 @@ public final class WorldResetCommand extends Command implements Listener {
     final MessagingSubject subject = context.getSource();
     final String worldName = StringArgumentType.getString(context, "world");
     final Duration interval = DurationArgumentType.getDuration(context, "interval");
-    schedule(worldName, interval, subject);
+    schedule(subject, worldName, () -> Bukkit.getWorld(worldName), interval, null);
+    return 1;
+  }
+
+  private int scheduleWorldWithWindow(final CommandContext<MessagingSubject> context) {
+    final MessagingSubject subject = context.getSource();
+    final String worldName = StringArgumentType.getString(context, "world");
+    final Duration interval = DurationArgumentType.getDuration(context, "interval");
+    final Duration window = DurationArgumentType.getDuration(context, "window");
+    schedule(subject, worldName, () -> Bukkit.getWorld(worldName), interval, window);
+    return 1;
+  }
+
+  // Loaded worlds and world folders, all of them scheduled and persisted in a single write
+  private int scheduleMatching(final CommandContext<MessagingSubject> context) {
+    final MessagingSubject subject = context.getSource();
+    final WorldPattern pattern = WorldPatternArgumentType.getWorldPattern(context, "pattern");
+    final Duration interval = DurationArgumentType.getDuration(context, "interval");
+    final List<String> worldNames = this.worldsDataHandler.getWorldNames().matching(pattern);
+    if (worldNames.isEmpty()) {
+      Message.NO_WORLDS_MATCHED.send(subject, pattern.toString());
+      return 0;
+    }
+
+    try {
+      final int rescheduled = this.worldsDataHandler.scheduleAll(worldNames, interval);
+      Message.BATCH_SCHEDULED.send(subject, pattern.toString(), worldNames, rescheduled, interval);
+    } catch (final IOException exception) {
+      exception.printStackTrace();
+      Message.ERROR_WHILE_SAVING.send(subject);
+    }
+    return 1;
+  }
+
+  private int unscheduleMatching(final CommandContext<MessagingSubject> context) {
+    final MessagingSubject subject = context.getSource();
+    final WorldPattern pattern = WorldPatternArgumentType.getWorldPattern(context, "pattern");
+    final List<String> worldNames = this.worldsDataHandler.getWorldNames().scheduledMatching(pattern);
+    if (worldNames.isEmpty()) {
+      Message.NO_WORLDS_MATCHED.send(subject, pattern.toString());
+      return 0;
+    }
+
+    try {
+      this.worldsDataHandler.unscheduleAll(worldNames);
+      Message.BATCH_UNSCHEDULED.send(subject, pattern.toString(), worldNames);
+    } catch (final IOException exception) {
+      exception.printStackTrace();
+      Message.ERROR_WHILE_SAVING.send(subject);
+    }
     return 1;
   }
 
@@ -260,19 +442,30 @@ public final class WorldResetCommand extends Command implements Listener {
   }
 
   private CompletableFuture<Suggestions> suggestScheduledWorlds(final CommandContext<MessagingSubject> context, final SuggestionsBuilder builder) {
-    final String current = builder.getRemaining().toLowerCase(Locale.ROOT);
-    this.worldsDataHandler.getScheduledResets().stream()
-                          .map(ScheduledReset::getWorldName).filter(world -> {
-      return world.toLowerCase(Locale.ROOT).startsWith(current);
-    }).forEach(builder::suggest);
+    this.worldsDataHandler.getWorldNames().scheduled(builder.getRemaining(), builder::suggest);
+    return builder.buildFuture();
+  }
+
+  private CompletableFuture<Suggestions> suggestHistoryWorlds(final CommandContext<MessagingSubject> context, final SuggestionsBuilder builder) {
+    if (ALL_WORLDS.startsWith(builder.getRemaining())) {
+      builder.suggest(ALL_WORLDS);
+    }
+    this.worldsDataHandler.getWorldNames().known(builder.getRemaining(), builder::suggest);
+    return builder.buildFuture();
+  }
+
+  private CompletableFuture<Suggestions> suggestPendingJobs(final CommandContext<MessagingSubject> context, final SuggestionsBuilder builder) {
+    final String remaining = builder.getRemaining().toLowerCase(Locale.ROOT);
+    for (final ResetJob job : this.worldsDataHandler.getResetQueue().jobs()) {
+      if (job.getState() == ResetJob.State.PENDING && job.getWorldName().toLowerCase(Locale.ROOT).startsWith(remaining)) {
+        builder.suggest(job.getWorldName());
+      }
+    }
     return builder.buildFuture();
   }
 
   private CompletableFuture<Suggestions> suggestWorlds(final CommandContext<MessagingSubject> context, final SuggestionsBuilder builder) {
-    final String current = builder.getRemaining().toLowerCase(Locale.ROOT);
-    Bukkit.getWorlds().stream().map(World::getName).filter(world -> {
-      return world.toLowerCase(Locale.ROOT).startsWith(current);
-    }).forEach(builder::suggest);
+    this.worldsDataHandler.getWorldNames().loaded(builder.getRemaining(), builder::suggest);
     return builder.buildFuture();
   }
 
@@ -288,38 +481,74 @@ public final class WorldResetCommand extends Command implements Listener {
                          final @NotNull String alias,
                          final @NotNull String @NotNull [] args) {
     this.asyncExecutor.execute(() -> {
-      final String input = getName() + ' ' + String.join(" ", args);
-      final MessagingSubject subject = this.subjectFactory.from(sender);
-      final ParseResults<MessagingSubject> results = this.dispatcher.parse(input.trim(), subject);
-
-      if (results.getContext().getNodes().isEmpty()) {
-        Message.NO_PERMISSION.send(subject);
-        return;
-      }
-
-      final Map<CommandNode<MessagingSubject>, CommandSyntaxException> map = results.getExceptions();
-      if (!map.isEmpty()) {
-        map.values().forEach(exception -> {
-          Message.COMMAND_ERROR.send(subject, exception.getMessage());
-        });
-        return;
-      }
-
+      final long start = System.nanoTime();
+      String subcommand = NO_SUBCOMMAND;
       try {
-        this.dispatcher.execute(results);
-      } catch (final CommandSyntaxException exception) {
-        usages(subject);
+        subcommand = run(sender, args);
+      } finally {
+        // Commands that go through the pipeline are done once their feedback is sent
+        final Histogram latency = this.commandLatency.getOrDefault(subcommand, this.commandLatency.get(NO_SUBCOMMAND));
+        final CompletableFuture<Void> stages = this.pipeline.takeStarted();
+        if (stages == null) {
+          latency.recordSince(start);
+        } else {
+          stages.whenComplete((result, throwable) -> latency.recordSince(start));
+        }
       }
     });
 
     return true;
   }
 
+  // Returns the subcommand that was run (or tried to), for timing it
+  private String run(final CommandSender sender, final String[] args) {
+    final String input = getName() + ' ' + String.join(" ", args);
+    final MessagingSubject subject = this.subjectFactory.from(sender);
+    final ParseResults<MessagingSubject> results = this.dispatcher.parse(input.trim(), subject);
+
+    final List<ParsedCommandNode<MessagingSubject>> nodes = results.getContext().getNodes();
+    if (nodes.isEmpty()) {
+      Message.NO_PERMISSION.send(subject);
+      return NO_SUBCOMMAND;
+    }
+    final String subcommand = nodes.size() > 1 ? nodes.get(1).getNode().getName() : NO_SUBCOMMAND;
+
+    final Map<CommandNode<MessagingSubject>, CommandSyntaxException> map = results.getExceptions();
+    if (!map.isEmpty()) {
+      map.values().forEach(exception -> {
+        Message.COMMAND_ERROR.send(subject, exception.getMessage());
+      });
+      return subcommand;
+    }
+
+    try {
+      this.dispatcher.execute(results);
+    } catch (final CommandSyntaxException exception) {
+      usages(subject);
+    }
+    return subcommand;
+  }
+
+  private static Histogram commandLatency(final MetricsRegistry metrics, final String subcommand) {
+    return metrics.latency("worldreset_command_seconds",
+                           "Time taken to run a command, from parsing it until its feedback is sent",
+                           "command", subcommand);
+  }
+
+  // Every suggestion provider completes right away (they only read the world name index),
+  // but never wait on one that doesn't, this runs on the main thread on non-Paper servers
   private List<String> tabComplete(final String input, final MessagingSubject subject) {
-    return this.dispatcher.getCompletionSuggestions(this.dispatcher.parse(input, subject)).join()
-                          .getList().stream()
-                          .map(Suggestion::getText)
-                          .collect(Collectors.toList());
+    final Suggestions suggestions =
+        this.dispatcher.getCompletionSuggestions(this.dispatcher.parse(input, subject)).getNow(null);
+    if (suggestions == null) {
+      return ImmutableList.of();
+    }
+
+    final List<String> completions = new ArrayList<>(suggestions.getList().size());
+    for (final Suggestion suggestion : suggestions.getList()) {
+      completions.add(suggestion.getText());
+    }
+    return completions;
   }
 
   @Override
@@ -356,4 +585,17 @@ public final class WorldResetCommand extends Command implements Listener {
   private <T> RequiredArgumentBuilder<MessagingSubject, T> argument(final String name, final ArgumentType<T> type) {
     return RequiredArgumentBuilder.argument(name, type);
   }
+
+  private static final class ScheduleTarget {
+
+    private final String worldName;
+    private final Duration interval;
+    private final Duration window;
+
+    private ScheduleTarget(final String worldName, final Duration interval, final Duration window) {
+      this.worldName = worldName;
+      this.interval = interval;
+      this.window = window;
+    }
+  }
 }
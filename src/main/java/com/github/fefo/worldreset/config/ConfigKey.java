@@ -27,13 +27,30 @@ package com.github.fefo.worldreset.config;
 import org.apache.commons.lang.Validate;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 
 public abstract class ConfigKey<T> {
 
-  private static final Pattern VALID_KEY = Pattern.compile("^[a-zA-Z-]{4,32}$");
+  private static final Pattern VALID_KEY = Pattern.compile("^[a-zA-Z-]{2,32}(\\.[a-zA-Z-]{2,32})*$");
+  private static final char SEPARATOR = '.';
+
+  // "a.b.c" -> ["a", "b", "c"], no regex involved
+  static String[] compilePath(final String key) {
+    final List<String> components = new ArrayList<>(4);
+    int start = 0;
+    int index;
+    while ((index = key.indexOf(SEPARATOR, start)) >= 0) {
+      components.add(key.substring(start, index));
+      start = index + 1;
+    }
+    components.add(key.substring(start));
+    return components.toArray(new String[0]);
+  }
 
   protected final String key;
+  final String[] path;
   protected final T fallback;
   protected final boolean reloadable;
   protected final int bakedHashCode;
@@ -44,12 +61,13 @@ public abstract class ConfigKey<T> {
     Validate.notNull(fallback);
 
     this.key = key;
+    this.path = compilePath(key);
     this.fallback = fallback;
     this.reloadable = reloadable;
     this.bakedHashCode = hashCodeBakery();
   }
 
-  public abstract @NotNull T get(final @NotNull YamlConfigAdapter configAdapter);
+  public abstract @NotNull T get(final @NotNull ConfigSnapshot config);
 
   public @NotNull String getKey() {
     return this.key;
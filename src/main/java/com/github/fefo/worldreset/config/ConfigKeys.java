@@ -25,13 +25,17 @@
 package com.github.fefo.worldreset.config;
 
 import com.github.fefo.worldreset.config.type.DurationConfigKey;
+import com.github.fefo.worldreset.config.type.IntegerConfigKey;
 import com.github.fefo.worldreset.config.type.ListConfigKey;
+import com.github.fefo.worldreset.config.type.SectionConfigKey;
 import com.github.fefo.worldreset.config.type.StringConfigKey;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 
 public final class ConfigKeys {
 
@@ -44,5 +48,17 @@ public final class ConfigKeys {
   public static final ConfigKey<List<String>> BROADCAST_PRIOR_RESET =
       new ListConfigKey<>("broadcast-prior-reset",
                           ImmutableList.of("24hs", "12hs", "6hs", "3hs", "2hs", "1hs", "30min", "15min", "10min", "5min", "1min", "30s"),
-                          false);
+                          true);
+
+  public static final ConfigKey<Map<?, ?>> PROFILES =
+      new SectionConfigKey("profiles", ImmutableMap.of(), true);
+
+  public static final ConfigKey<Integer> MAX_CONCURRENT_RESETS =
+      new IntegerConfigKey("max-concurrent-resets", 2, true);
+
+  public static final ConfigKey<String> STORAGE_TYPE =
+      new StringConfigKey("storage-type", "local", false);
+
+  public static final ConfigKey<String> SHARED_STORAGE_FOLDER =
+      new StringConfigKey("shared-storage-folder", "", false);
 }
@@ -0,0 +1,80 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.config;
+
+import com.google.common.collect.ImmutableSet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.logging.Logger;
+
+// Reads config.yml into a snapshot, without anything from the server so the offline tool can use it too
+public final class ConfigReader {
+
+  private static final Yaml YAML;
+  // Keep in sync with PluginConfig
+  static final Set<ConfigKey<?>> CONFIG_KEYS =
+      ImmutableSet.of(ConfigKeys.DEFAULT_RESET_INTERVAL,
+                      ConfigKeys.BROADCAST_MESSAGE,
+                      ConfigKeys.BROADCAST_PRIOR_RESET,
+                      ConfigKeys.PROFILES,
+                      ConfigKeys.MAX_CONCURRENT_RESETS,
+                      ConfigKeys.STORAGE_TYPE,
+                      ConfigKeys.SHARED_STORAGE_FOLDER);
+
+  static {
+    final LoaderOptions loaderOptions = new LoaderOptions();
+    loaderOptions.setAllowRecursiveKeys(false);
+    loaderOptions.setAllowDuplicateKeys(false);
+    YAML = new Yaml(loaderOptions);
+  }
+
+  public static @NotNull ConfigSnapshot read(final @NotNull Path configFile, final @NotNull Logger logger) throws IOException {
+    return read(configFile, null, logger);
+  }
+
+  static @NotNull ConfigSnapshot read(final @NotNull Path configFile, final @Nullable ConfigSnapshot previous,
+                                      final @NotNull Logger logger) throws IOException {
+    final Object read;
+    try (final Reader reader = Files.newBufferedReader(configFile)) {
+      read = YAML.load(reader);
+    } catch (final YAMLException exception) {
+      throw new IOException(configFile.getFileName() + " is not valid YAML", exception);
+    }
+    return new ConfigSnapshot(read, CONFIG_KEYS, previous, logger);
+  }
+
+  private ConfigReader() {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -0,0 +1,184 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.config;
+
+import org.apache.commons.lang.Validate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+// Fully parsed and validated view of config.yml. Never mutated after construction,
+// so it can be handed to any thread and swapped in one go
+public final class ConfigSnapshot {
+
+  private static String unexpectedKeyType(final String key, final Class<?> expected,
+                                          final Class<?> actual) {
+    return "Config key \"" + key + "\" expected to be of type " + expected.getSimpleName() +
+           " but got " + actual.getSimpleName() + " instead";
+  }
+
+  private static String noValueForKey(final String key, final Class<?> expected) {
+    return "No value for config key \"" + key + "\"" +
+           " (expected to be of type " + expected.getSimpleName() + ")";
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Object immutableCopy(final Object value) {
+    if (value instanceof Map) {
+      final Map<String, Object> copy = new LinkedHashMap<>();
+      ((Map<?, ?>) value).forEach((key, nested) -> copy.put(String.valueOf(key), immutableCopy(nested)));
+      return Collections.unmodifiableMap(copy);
+    }
+
+    if (value instanceof List) {
+      final List<Object> copy = new ArrayList<>(((List<?>) value).size());
+      ((List<?>) value).forEach(nested -> copy.add(immutableCopy(nested)));
+      return Collections.unmodifiableList(copy);
+    }
+
+    return value;
+  }
+
+  private final Map<String, Object> root;
+  private final Map<ConfigKey<?>, Object> values;
+  private final Logger logger;
+  private final PluginConfig config;
+
+  // Keys that aren't reloadable keep whatever value they had in previous (if there's one),
+  // and so do the profiles that didn't change
+  @SuppressWarnings("unchecked")
+  ConfigSnapshot(final @Nullable Object read, final @NotNull Set<ConfigKey<?>> configKeys,
+                 final @Nullable ConfigSnapshot previous, final @NotNull Logger logger) {
+    this.root = read instanceof Map ? (Map<String, Object>) immutableCopy(read) : Collections.emptyMap();
+    this.logger = logger;
+
+    final Map<ConfigKey<?>, Object> values = new IdentityHashMap<>(configKeys.size());
+    for (final ConfigKey<?> configKey : configKeys) {
+      if (previous != null && !configKey.isReloadable()) {
+        values.put(configKey, previous.get(configKey));
+      } else {
+        values.put(configKey, configKey.get(this));
+      }
+    }
+    this.values = Collections.unmodifiableMap(values);
+    this.config = new PluginConfig(this, previous == null ? null : previous.config, logger);
+  }
+
+  // Typed view over the plugin's own keys, resolved once per snapshot
+  public @NotNull PluginConfig config() {
+    return this.config;
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> @NotNull T get(final @NotNull ConfigKey<T> configKey) {
+    Validate.notNull(configKey);
+    final Object value = this.values.get(configKey);
+    return value == null ? configKey.get(this) : (T) value;
+  }
+
+  public boolean getBoolean(final @NotNull ConfigKey<Boolean> configKey) {
+    return get(configKey);
+  }
+
+  public int getInt(final @NotNull ConfigKey<Integer> configKey) {
+    return get(configKey);
+  }
+
+  public double getDouble(final @NotNull ConfigKey<Double> configKey) {
+    return get(configKey);
+  }
+
+  // Raw lookup for ConfigKey implementations, walks the precompiled path of the key
+  public <V> @Nullable V resolve(final @NotNull ConfigKey<?> configKey, final @NotNull Class<V> type) {
+    Validate.notNull(configKey);
+    Validate.notNull(type);
+    return validate(configKey.key, resolve(configKey.path), type);
+  }
+
+  public @Nullable Boolean getBoolean(final @NotNull String key) {
+    Validate.notNull(key);
+    return validate(key, resolve(ConfigKey.compilePath(key)), Boolean.class);
+  }
+
+  public @Nullable Integer getInt(final @NotNull String key) {
+    Validate.notNull(key);
+    return validate(key, resolve(ConfigKey.compilePath(key)), Integer.class);
+  }
+
+  public @Nullable Double getDouble(final @NotNull String key) {
+    Validate.notNull(key);
+    return validate(key, resolve(ConfigKey.compilePath(key)), Double.class);
+  }
+
+  public @Nullable String getString(final @NotNull String key) {
+    Validate.notNull(key);
+    return validate(key, resolve(ConfigKey.compilePath(key)), String.class);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> @Nullable List<T> getList(final @NotNull String key) {
+    Validate.notNull(key);
+    return validate(key, resolve(ConfigKey.compilePath(key)), List.class);
+  }
+
+  @SuppressWarnings("unchecked")
+  public @Nullable Map<? super String, ?> getSection(final @NotNull String key) {
+    Validate.notNull(key);
+    return validate(key, resolve(ConfigKey.compilePath(key)), Map.class);
+  }
+
+  private Object resolve(final String[] path) {
+    Map<?, ?> node = this.root;
+    for (int i = 0; i < path.length - 1; ++i) {
+      node = validate(path[i], node.get(path[i]), Map.class);
+      if (node == null) {
+        return null;
+      }
+    }
+    return node.get(path[path.length - 1]);
+  }
+
+  private <T> T validate(final String key, final Object value, final Class<T> type) {
+    if (value == null) {
+      this.logger.warning(noValueForKey(key, type));
+      return null;
+    }
+
+    if (!type.isInstance(value)) {
+      this.logger.warning(unexpectedKeyType(key, type, value.getClass()));
+      return null;
+    }
+
+    return type.cast(value);
+  }
+}
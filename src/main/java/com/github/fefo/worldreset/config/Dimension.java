@@ -0,0 +1,63 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// Where each dimension keeps its data inside a world folder. Bukkit gives every dimension a world folder
+// of its own, so usually only one of these exists per world (world, world_nether/DIM-1, world_the_end/DIM1)
+public enum Dimension {
+
+  OVERWORLD("overworld", ""),
+  NETHER("nether", "DIM-1"),
+  END("end", "DIM1");
+
+  public static @Nullable Dimension parse(final @NotNull String name) {
+    for (final Dimension dimension : values()) {
+      if (dimension.name.equalsIgnoreCase(name)) {
+        return dimension;
+      }
+    }
+    return null;
+  }
+
+  private final String name;
+  private final String folder;
+
+  Dimension(final String name, final String folder) {
+    this.name = name;
+    this.folder = folder;
+  }
+
+  public @NotNull String getName() {
+    return this.name;
+  }
+
+  // Relative to the world folder, empty for the world folder itself
+  public @NotNull String getFolder() {
+    return this.folder;
+  }
+}
@@ -0,0 +1,86 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.logging.Logger;
+
+// One final field per key in ConfigKeys, so hot paths don't go through a map lookup.
+// A new instance comes with every ConfigSnapshot, keep it in sync with ConfigReader#CONFIG_KEYS
+public final class PluginConfig {
+
+  private final Duration defaultResetInterval;
+  private final String broadcastMessage;
+  private final List<String> broadcastPriorReset;
+  private final ResetProfiles profiles;
+  private final int maxConcurrentResets;
+  private final String storageType;
+  private final String sharedStorageFolder;
+
+  PluginConfig(final @NotNull ConfigSnapshot snapshot, final @Nullable PluginConfig previous,
+               final @NotNull Logger logger) {
+    this.defaultResetInterval = snapshot.get(ConfigKeys.DEFAULT_RESET_INTERVAL);
+    this.broadcastMessage = snapshot.get(ConfigKeys.BROADCAST_MESSAGE);
+    this.broadcastPriorReset = snapshot.get(ConfigKeys.BROADCAST_PRIOR_RESET);
+    this.profiles = new ResetProfiles(this, snapshot.get(ConfigKeys.PROFILES),
+                                      previous == null ? null : previous.profiles, logger);
+    this.maxConcurrentResets = Math.max(1, snapshot.get(ConfigKeys.MAX_CONCURRENT_RESETS));
+    this.storageType = snapshot.get(ConfigKeys.STORAGE_TYPE);
+    this.sharedStorageFolder = snapshot.get(ConfigKeys.SHARED_STORAGE_FOLDER);
+  }
+
+  public @NotNull Duration getDefaultResetInterval() {
+    return this.defaultResetInterval;
+  }
+
+  public @NotNull String getBroadcastMessage() {
+    return this.broadcastMessage;
+  }
+
+  public @NotNull List<String> getBroadcastPriorReset() {
+    return this.broadcastPriorReset;
+  }
+
+  public @NotNull ResetProfiles getProfiles() {
+    return this.profiles;
+  }
+
+  // At least 1
+  public int getMaxConcurrentResets() {
+    return this.maxConcurrentResets;
+  }
+
+  public @NotNull String getStorageType() {
+    return this.storageType;
+  }
+
+  public @NotNull String getSharedStorageFolder() {
+    return this.sharedStorageFolder;
+  }
+}
@@ -0,0 +1,59 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// The region file folders of a dimension, all of them named r.<x>.<z>.mca
+public enum RegionStorage {
+
+  // Blocks (and everything but entities, before 1.17)
+  REGION("region"),
+  // Entities, since 1.17
+  ENTITIES("entities"),
+  // Points of interest (beds, job sites, portals...)
+  POI("poi");
+
+  public static @Nullable RegionStorage parse(final @NotNull String name) {
+    for (final RegionStorage storage : values()) {
+      if (storage.name.equalsIgnoreCase(name)) {
+        return storage;
+      }
+    }
+    return null;
+  }
+
+  private final String name;
+
+  RegionStorage(final String name) {
+    this.name = name;
+  }
+
+  // Also the folder's name
+  public @NotNull String getName() {
+    return this.name;
+  }
+}
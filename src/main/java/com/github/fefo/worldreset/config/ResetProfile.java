@@ -0,0 +1,339 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.config;
+
+import com.github.fefo.worldreset.messages.BroadcastTemplate;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+// Everything a world's reset depends on, already merged with the default profile
+public final class ResetProfile {
+
+  private static final String REGION_PREFIX = "r.";
+  private static final String REGION_SUFFIX = ".mca";
+
+  public static @NotNull Builder builder() {
+    return new Builder();
+  }
+
+  private final Duration interval;
+  private final String broadcastMessage;
+  private final BroadcastTemplate broadcastTemplate;
+  private final Set<Duration> broadcastMoments;
+  private final BroadcastTarget broadcastTarget;
+  private final Duration visitorWindow;
+  private final CountdownDisplay countdownDisplay;
+  private final Duration countdownFrom;
+  private final int protectedRadius;
+  private final ResetMode resetMode;
+  private final int maxFilesPerReset;
+  private final int maxDeletesPerSecond;
+  private final int priority;
+  private final Duration resetWindow;
+  private final Set<Dimension> dimensions;
+  private final Set<RegionStorage> storage;
+
+  private ResetProfile(final Builder builder) {
+    this.interval = Objects.requireNonNull(builder.interval, "interval");
+    this.broadcastMessage = Objects.requireNonNull(builder.broadcastMessage, "broadcastMessage");
+    this.broadcastTemplate = BroadcastTemplate.compile(this.broadcastMessage);
+    this.broadcastMoments = ImmutableSet.copyOf(builder.broadcastMoments);
+    this.broadcastTarget = Objects.requireNonNull(builder.broadcastTarget, "broadcastTarget");
+    this.visitorWindow = Objects.requireNonNull(builder.visitorWindow, "visitorWindow");
+    this.countdownDisplay = Objects.requireNonNull(builder.countdownDisplay, "countdownDisplay");
+    this.countdownFrom = Objects.requireNonNull(builder.countdownFrom, "countdownFrom");
+    this.protectedRadius = builder.protectedRadius;
+    this.resetMode = Objects.requireNonNull(builder.resetMode, "resetMode");
+    this.maxFilesPerReset = builder.maxFilesPerReset;
+    this.maxDeletesPerSecond = builder.maxDeletesPerSecond;
+    this.priority = builder.priority;
+    this.resetWindow = Objects.requireNonNull(builder.resetWindow, "resetWindow");
+    this.dimensions = Sets.immutableEnumSet(builder.dimensions);
+    this.storage = Sets.immutableEnumSet(builder.storage);
+  }
+
+  public @NotNull Duration getInterval() {
+    return this.interval;
+  }
+
+  public @NotNull String getBroadcastMessage() {
+    return this.broadcastMessage;
+  }
+
+  public @NotNull BroadcastTemplate getBroadcastTemplate() {
+    return this.broadcastTemplate;
+  }
+
+  public @NotNull Set<Duration> getBroadcastMoments() {
+    return this.broadcastMoments;
+  }
+
+  // The broadcast moment this close (within the audit's slack) to the given time left, if any
+  public @Nullable Duration dueBroadcast(final long secondsLeft) {
+    for (final Duration moment : this.broadcastMoments) {
+      if (Math.abs(secondsLeft - moment.getSeconds()) < 3L) {
+        return moment;
+      }
+    }
+    return null;
+  }
+
+  // From the first broadcast (or the countdown, if it shows up earlier) to the reset
+  public @NotNull Duration getBroadcastWindow() {
+    Duration window = this.countdownDisplay == CountdownDisplay.NONE ? Duration.ZERO : this.countdownFrom;
+    for (final Duration moment : this.broadcastMoments) {
+      if (moment.compareTo(window) > 0) {
+        window = moment;
+      }
+    }
+    return window;
+  }
+
+  public @NotNull BroadcastTarget getBroadcastTarget() {
+    return this.broadcastTarget;
+  }
+
+  // Only used with BroadcastTarget#VISITORS
+  public @NotNull Duration getVisitorWindow() {
+    return this.visitorWindow;
+  }
+
+  public @NotNull CountdownDisplay getCountdownDisplay() {
+    return this.countdownDisplay;
+  }
+
+  // How long before the reset the live countdown shows up
+  public @NotNull Duration getCountdownFrom() {
+    return this.countdownFrom;
+  }
+
+  // In regions (512 blocks) per direction around 0,0
+  public int getProtectedRadius() {
+    return this.protectedRadius;
+  }
+
+  public @NotNull ResetMode getResetMode() {
+    return this.resetMode;
+  }
+
+  // 0 means no limit
+  public int getMaxFilesPerReset() {
+    return this.maxFilesPerReset;
+  }
+
+  // 0 means no limit
+  public int getMaxDeletesPerSecond() {
+    return this.maxDeletesPerSecond;
+  }
+
+  // Higher goes first when several resets are queued at once
+  public int getPriority() {
+    return this.priority;
+  }
+
+  // Window new schedules get by default, zero for none (see ScheduledReset#getWindow)
+  public @NotNull Duration getResetWindow() {
+    return this.resetWindow;
+  }
+
+  public @NotNull Set<Dimension> getDimensions() {
+    return this.dimensions;
+  }
+
+  // Which of each dimension's region file folders get reset
+  public @NotNull Set<RegionStorage> getStorage() {
+    return this.storage;
+  }
+
+  // Changes whenever a setting that decides which files get deleted does (but max-files-per-reset)
+  public int getSelectionHash() {
+    int hash = Objects.hash(this.resetMode.getName(), this.protectedRadius);
+    // By name, enum hash codes change from one run to the next
+    for (final Dimension dimension : this.dimensions) {
+      hash = 31 * hash + dimension.getName().hashCode();
+    }
+    for (final RegionStorage storage : this.storage) {
+      hash = 31 * hash + storage.getName().hashCode();
+    }
+    return hash;
+  }
+
+  // Whether the given file, from one of the folders this profile resets, is a region file (r.<x>.<z>.mca) that goes
+  public boolean shouldDelete(final @NotNull Path file) {
+    final String name = file.getFileName().toString();
+    if (!name.startsWith(REGION_PREFIX) || !name.endsWith(REGION_SUFFIX)) {
+      return false;
+    }
+
+    final int end = name.length() - REGION_SUFFIX.length();
+    final int separator = name.indexOf('.', REGION_PREFIX.length());
+    if (separator < 0 || separator >= end) {
+      return false;
+    }
+
+    final int x;
+    final int z;
+    try {
+      x = Integer.parseInt(name.substring(REGION_PREFIX.length(), separator));
+      z = Integer.parseInt(name.substring(separator + 1, end));
+    } catch (final NumberFormatException exception) {
+      return false;
+    }
+
+    if (this.resetMode == ResetMode.ALL_REGIONS) {
+      return true;
+    }
+
+    final int radius = this.protectedRadius;
+    return x >= radius || x < -radius || z >= radius || z < -radius;
+  }
+
+  public @NotNull Builder toBuilder() {
+    return new Builder().interval(this.interval)
+                        .broadcastMessage(this.broadcastMessage)
+                        .broadcastMoments(this.broadcastMoments)
+                        .broadcastTarget(this.broadcastTarget)
+                        .visitorWindow(this.visitorWindow)
+                        .countdownDisplay(this.countdownDisplay)
+                        .countdownFrom(this.countdownFrom)
+                        .protectedRadius(this.protectedRadius)
+                        .resetMode(this.resetMode)
+                        .maxFilesPerReset(this.maxFilesPerReset)
+                        .maxDeletesPerSecond(this.maxDeletesPerSecond)
+                        .priority(this.priority)
+                        .resetWindow(this.resetWindow)
+                        .dimensions(this.dimensions)
+                        .storage(this.storage);
+  }
+
+  public static final class Builder {
+
+    private Duration interval;
+    private String broadcastMessage;
+    private Set<Duration> broadcastMoments = ImmutableSet.of();
+    private BroadcastTarget broadcastTarget = BroadcastTarget.EVERYONE;
+    private Duration visitorWindow = Duration.ofDays(1L);
+    private CountdownDisplay countdownDisplay = CountdownDisplay.NONE;
+    private Duration countdownFrom = Duration.ofMinutes(5L);
+    private int protectedRadius = 1;
+    private ResetMode resetMode = ResetMode.OUTER_REGIONS;
+    private int maxFilesPerReset = 0;
+    private int maxDeletesPerSecond = 0;
+    private int priority = 0;
+    private Duration resetWindow = Duration.ZERO;
+    private Set<Dimension> dimensions = EnumSet.allOf(Dimension.class);
+    private Set<RegionStorage> storage = EnumSet.allOf(RegionStorage.class);
+
+    private Builder() {
+    }
+
+    public Builder interval(final @NotNull Duration interval) {
+      this.interval = interval;
+      return this;
+    }
+
+    public Builder broadcastMessage(final @NotNull String broadcastMessage) {
+      this.broadcastMessage = broadcastMessage;
+      return this;
+    }
+
+    public Builder broadcastMoments(final @NotNull Set<Duration> broadcastMoments) {
+      this.broadcastMoments = broadcastMoments;
+      return this;
+    }
+
+    public Builder broadcastTarget(final @NotNull BroadcastTarget broadcastTarget) {
+      this.broadcastTarget = broadcastTarget;
+      return this;
+    }
+
+    public Builder visitorWindow(final @NotNull Duration visitorWindow) {
+      this.visitorWindow = visitorWindow;
+      return this;
+    }
+
+    public Builder countdownDisplay(final @NotNull CountdownDisplay countdownDisplay) {
+      this.countdownDisplay = countdownDisplay;
+      return this;
+    }
+
+    public Builder countdownFrom(final @NotNull Duration countdownFrom) {
+      this.countdownFrom = countdownFrom;
+      return this;
+    }
+
+    public Builder protectedRadius(final int protectedRadius) {
+      this.protectedRadius = protectedRadius;
+      return this;
+    }
+
+    public Builder resetMode(final @NotNull ResetMode resetMode) {
+      this.resetMode = resetMode;
+      return this;
+    }
+
+    public Builder maxFilesPerReset(final int maxFilesPerReset) {
+      this.maxFilesPerReset = maxFilesPerReset;
+      return this;
+    }
+
+    public Builder maxDeletesPerSecond(final int maxDeletesPerSecond) {
+      this.maxDeletesPerSecond = maxDeletesPerSecond;
+      return this;
+    }
+
+    public Builder priority(final int priority) {
+      this.priority = priority;
+      return this;
+    }
+
+    public Builder resetWindow(final @NotNull Duration resetWindow) {
+      this.resetWindow = resetWindow;
+      return this;
+    }
+
+    public Builder dimensions(final @NotNull Set<Dimension> dimensions) {
+      this.dimensions = dimensions;
+      return this;
+    }
+
+    public Builder storage(final @NotNull Set<RegionStorage> storage) {
+      this.storage = storage;
+      return this;
+    }
+
+    public ResetProfile build() {
+      return new ResetProfile(this);
+    }
+  }
+}
@@ -0,0 +1,298 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.config;
+
+import com.github.fefo.worldreset.util.Utils;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+// Per world profiles, merged with the default profile once per config snapshot.
+// Profiles whose settings didn't change since the previous snapshot are carried over as they were
+public final class ResetProfiles {
+
+  private static final String DEFAULT_PROFILE = "default";
+  private static final String WORLDS = "worlds";
+
+  private final ResetProfile defaultProfile;
+  private final Map<String, ResetProfile> profiles;
+  // What each profile was built from, to tell on the next reload whether it can be reused
+  private final List<Object> defaultSource;
+  private final Map<String, Map<?, ?>> sources;
+
+  ResetProfiles(final @NotNull PluginConfig config, final @NotNull Map<?, ?> section,
+                final @Nullable ResetProfiles previous, final @NotNull Logger logger) {
+    final Map<?, ?> defaultSection = section(section, DEFAULT_PROFILE, "profiles", logger);
+    this.defaultSource = ImmutableList.of(config.getDefaultResetInterval(), config.getBroadcastMessage(),
+                                          config.getBroadcastPriorReset(), defaultSection);
+    final boolean defaultUnchanged = previous != null && previous.defaultSource.equals(this.defaultSource);
+    if (defaultUnchanged) {
+      this.defaultProfile = previous.defaultProfile;
+    } else {
+      final ResetProfile.Builder defaults =
+          ResetProfile.builder()
+                      .interval(config.getDefaultResetInterval())
+                      .broadcastMessage(config.getBroadcastMessage())
+                      .broadcastMoments(parseMoments(config.getBroadcastPriorReset(), "broadcast-prior-reset", logger));
+      this.defaultProfile = apply(defaults, defaultSection, "profiles.default", logger).build();
+    }
+
+    final ImmutableMap.Builder<String, ResetProfile> profiles = ImmutableMap.builder();
+    final ImmutableMap.Builder<String, Map<?, ?>> sources = ImmutableMap.builder();
+    final Map<?, ?> worlds = section(section, WORLDS, "profiles", logger);
+    for (final Map.Entry<?, ?> entry : worlds.entrySet()) {
+      final String worldName = String.valueOf(entry.getKey());
+      final String where = "profiles.worlds." + worldName;
+      if (!(entry.getValue() instanceof Map)) {
+        logger.warning("Profile \"" + where + "\" should be a section, ignoring it");
+        continue;
+      }
+
+      final String key = key(worldName);
+      final Map<?, ?> worldSection = (Map<?, ?>) entry.getValue();
+      final ResetProfile profile;
+      if (defaultUnchanged && worldSection.equals(previous.sources.get(key))) {
+        profile = previous.profiles.get(key);
+      } else {
+        profile = apply(this.defaultProfile.toBuilder(), worldSection, where, logger).build();
+      }
+      profiles.put(key, profile);
+      sources.put(key, worldSection);
+    }
+    this.profiles = profiles.build();
+    this.sources = sources.build();
+  }
+
+  public @NotNull ResetProfile getDefault() {
+    return this.defaultProfile;
+  }
+
+  public @NotNull ResetProfile forWorld(final @NotNull String worldName) {
+    return this.profiles.getOrDefault(key(worldName), this.defaultProfile);
+  }
+
+  private static String key(final String worldName) {
+    return worldName.toLowerCase(Locale.ROOT);
+  }
+
+  private static ResetProfile.Builder apply(final ResetProfile.Builder builder, final Map<?, ?> section,
+                                            final String where, final Logger logger) {
+    for (final Map.Entry<?, ?> entry : section.entrySet()) {
+      final String key = String.valueOf(entry.getKey());
+      final Object value = entry.getValue();
+      final String path = where + "." + key;
+
+      switch (key) {
+        case "interval": {
+          final Duration interval = positiveDuration(value, path, logger);
+          if (interval != null) {
+            builder.interval(interval);
+          }
+          break;
+        }
+
+        case "broadcast-message":
+          if (value instanceof String) {
+            builder.broadcastMessage((String) value);
+          } else {
+            logger.warning("\"" + path + "\" should be a string");
+          }
+          break;
+
+        case "broadcast-prior-reset":
+          if (value instanceof List) {
+            builder.broadcastMoments(parseMoments((List<?>) value, path, logger));
+          } else {
+            logger.warning("\"" + path + "\" should be a list");
+          }
+          break;
+
+        case "broadcast-audience": {
+          final BroadcastTarget target = value instanceof String ? BroadcastTarget.parse((String) value) : null;
+          if (target == null) {
+            logger.warning("Unknown broadcast audience for \"" + path + "\": " + value);
+          } else {
+            builder.broadcastTarget(target);
+          }
+          break;
+        }
+
+        case "visitor-window": {
+          final Duration window = positiveDuration(value, path, logger);
+          if (window != null) {
+            builder.visitorWindow(window);
+          }
+          break;
+        }
+
+        case "countdown": {
+          final CountdownDisplay display = value instanceof String ? CountdownDisplay.parse((String) value) : null;
+          if (display == null) {
+            logger.warning("Unknown countdown display for \"" + path + "\": " + value);
+          } else {
+            builder.countdownDisplay(display);
+          }
+          break;
+        }
+
+        case "countdown-from": {
+          final Duration from = positiveDuration(value, path, logger);
+          if (from != null) {
+            builder.countdownFrom(from);
+          }
+          break;
+        }
+
+        case "protected-radius":
+          builder.protectedRadius(nonNegative(value, path, logger, 1));
+          break;
+
+        case "reset-mode": {
+          final ResetMode mode = value instanceof String ? ResetMode.parse((String) value) : null;
+          if (mode == null) {
+            logger.warning("Unknown reset mode for \"" + path + "\": " + value);
+          } else {
+            builder.resetMode(mode);
+          }
+          break;
+        }
+
+        case "max-files-per-reset":
+          builder.maxFilesPerReset(nonNegative(value, path, logger, 0));
+          break;
+
+        case "max-deletes-per-second":
+          builder.maxDeletesPerSecond(nonNegative(value, path, logger, 0));
+          break;
+
+        case "priority":
+          builder.priority(nonNegative(value, path, logger, 0));
+          break;
+
+        case "dimensions":
+          if (value instanceof List) {
+            builder.dimensions(parseEnums((List<?>) value, Dimension.class, Dimension::parse, path, logger));
+          } else {
+            logger.warning("\"" + path + "\" should be a list");
+          }
+          break;
+
+        case "storage":
+          if (value instanceof List) {
+            builder.storage(parseEnums((List<?>) value, RegionStorage.class, RegionStorage::parse, path, logger));
+          } else {
+            logger.warning("\"" + path + "\" should be a list");
+          }
+          break;
+
+        case "reset-window": {
+          // 0 turns it off
+          final Duration window = value instanceof Number && ((Number) value).longValue() == 0L
+                                  ? Duration.ZERO
+                                  : positiveDuration(value, path, logger);
+          if (window != null) {
+            builder.resetWindow(window);
+          }
+          break;
+        }
+
+        default:
+          logger.warning("Unknown profile setting \"" + path + "\"");
+          break;
+      }
+    }
+    return builder;
+  }
+
+  private static ImmutableSet<Duration> parseMoments(final List<?> moments, final String path,
+                                                     final Logger logger) {
+    final ImmutableSet.Builder<Duration> builder = ImmutableSet.builder();
+    for (final Object moment : moments) {
+      final Duration duration = Utils.parseDuration(String.valueOf(moment));
+      if (duration.isZero() || duration.isNegative()) {
+        logger.warning("Invalid duration in \"" + path + "\": " + moment);
+        continue;
+      }
+      builder.add(duration);
+    }
+    return builder.build();
+  }
+
+  private static <E extends Enum<E>> EnumSet<E> parseEnums(final List<?> names, final Class<E> type,
+                                                          final Function<String, E> parser, final String path,
+                                                          final Logger logger) {
+    final EnumSet<E> values = EnumSet.noneOf(type);
+    for (final Object name : names) {
+      final E value = parser.apply(String.valueOf(name));
+      if (value == null) {
+        logger.warning("Unknown value in \"" + path + "\": " + name);
+        continue;
+      }
+      values.add(value);
+    }
+    return values;
+  }
+
+  private static Duration positiveDuration(final Object value, final String path, final Logger logger) {
+    final Duration duration = value instanceof String ? Utils.parseDuration((String) value) : Duration.ZERO;
+    if (duration.isZero() || duration.isNegative()) {
+      logger.warning("Invalid duration for \"" + path + "\": " + value);
+      return null;
+    }
+    return duration;
+  }
+
+  private static int nonNegative(final Object value, final String path, final Logger logger,
+                                 final int fallback) {
+    if (!(value instanceof Number) || ((Number) value).intValue() < 0) {
+      logger.warning("\"" + path + "\" should be a positive whole number (or 0)");
+      return fallback;
+    }
+    return ((Number) value).intValue();
+  }
+
+  private static Map<?, ?> section(final Map<?, ?> parent, final String key, final String where,
+                                   final Logger logger) {
+    final Object value = parent.get(key);
+    if (value == null) {
+      return ImmutableMap.of();
+    }
+    if (!(value instanceof Map)) {
+      logger.warning("\"" + where + "." + key + "\" should be a section, ignoring it");
+      return ImmutableMap.of();
+    }
+    return (Map<?, ?>) value;
+  }
+}
@@ -24,60 +24,38 @@
 
 package com.github.fefo.worldreset.config;
 
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableSet;
-import org.apache.commons.lang.Validate;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import org.yaml.snakeyaml.LoaderOptions;
-import org.yaml.snakeyaml.Yaml;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.Reader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.LinkedHashMap;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.StringJoiner;
-import java.util.regex.Pattern;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 
-public final class YamlConfigAdapter {
-
-  private static final Yaml YAML;
-  private static final Set<ConfigKey<?>> CONFIG_KEYS =
-      ImmutableSet.of(ConfigKeys.DEFAULT_RESET_INTERVAL,
-                      ConfigKeys.BROADCAST_MESSAGE,
-                      ConfigKeys.BROADCAST_PRIOR_RESET);
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
 
-  static {
-    final LoaderOptions loaderOptions = new LoaderOptions();
-    loaderOptions.setAllowRecursiveKeys(false);
-    loaderOptions.setAllowDuplicateKeys(false);
-    YAML = new Yaml(loaderOptions);
-  }
+public final class YamlConfigAdapter {
 
-  private static String unexpectedKeyType(final String key, final Class<?> expected,
-                                          final Class<?> actual) {
-    return "Config key \"" + key + "\" expected to be of type " + expected.getSimpleName() +
-           " but got " + actual.getSimpleName() + " instead";
-  }
-
-  private static String noValueForKey(final String key, final Class<?> expected) {
-    return "No value for config key \"" + key + "\"" +
-           " (expected to be of type " + expected.getSimpleName() + ")";
-  }
+  // Editors tend to write a file in several steps, wait for them to settle
+  private static final long DEBOUNCE_MILLIS = 250L;
 
   private final Plugin plugin;
   private final Path dataFolder;
   private final Path configFile;
-  private final String separator = ".";
-  private final Pattern separatorPattern = Pattern.compile(this.separator, Pattern.LITERAL);
-  private final Map<String, Object> rootRaw = new LinkedHashMap<>();
-  private final Map<String, Object> unwind = new LinkedHashMap<>(CONFIG_KEYS.size());
+  private volatile ConfigSnapshot snapshot;
+  private WatchService watchService;
+  private Thread watcherThread;
 
   public YamlConfigAdapter(final Plugin plugin) {
     this.plugin = plugin;
@@ -97,98 +75,116 @@ public final class YamlConfigAdapter {
     }
 
     reload(true);
+    startWatching();
   }
 
   public void reload() throws IOException {
     reload(false);
   }
 
-  private void reload(final boolean force) throws IOException {
-    try (final Reader reader = Files.newBufferedReader(this.configFile)) {
-      final Object read = YAML.load(reader);
-      this.rootRaw.putAll(read instanceof Map ? (Map<String, ?>) read : ImmutableMap.of());
-      CONFIG_KEYS.forEach(configKey -> {
-        if (configKey.isReloadable() || force) {
-          this.unwind.put(configKey.getKey(), configKey.get(this));
-        }
-      });
+  public void shutdown() {
+    if (this.watchService != null) {
+      try {
+        this.watchService.close();
+        this.watcherThread.join(TimeUnit.SECONDS.toMillis(5L));
+      } catch (final IOException | InterruptedException exception) {
+        exception.printStackTrace();
+      }
     }
   }
 
-  public @Nullable Boolean getBoolean(final @NotNull String key) {
-    Validate.notNull(key);
-    return validate(key, get(key), Boolean.class);
+  public @NotNull ConfigSnapshot snapshot() {
+    return this.snapshot;
   }
 
-  public @Nullable Integer getInt(final @NotNull String key) {
-    Validate.notNull(key);
-    return validate(key, get(key), Integer.class);
+  public @NotNull PluginConfig config() {
+    return this.snapshot.config();
   }
 
-  public @Nullable Double getDouble(final @NotNull String key) {
-    Validate.notNull(key);
-    return validate(key, get(key), Double.class);
+  private synchronized void reload(final boolean force) throws IOException {
+    try {
+      this.snapshot = ConfigReader.read(this.configFile, force ? null : this.snapshot, this.plugin.getLogger());
+    } catch (final IOException exception) {
+      throw new IOException("Could not read config.yml, keeping the previous configuration", exception);
+    }
   }
 
-  public @Nullable String getString(final @NotNull String key) {
-    Validate.notNull(key);
-    return validate(key, get(key), String.class);
-  }
+  private void startWatching() throws IOException {
+    if (this.watchService != null) {
+      return;
+    }
 
-  @SuppressWarnings("unchecked")
-  public <T> @Nullable List<T> getList(final @NotNull String key) {
-    Validate.notNull(key);
-    return validate(key, get(key), List.class);
+    this.watchService = FileSystems.getDefault().newWatchService();
+    this.dataFolder.register(this.watchService, ENTRY_CREATE, ENTRY_MODIFY);
+    this.watcherThread = new Thread(this::watch, "worldreset-config-watcher");
+    this.watcherThread.setDaemon(true);
+    this.watcherThread.start();
   }
 
-  @SuppressWarnings("unchecked")
-  public @Nullable Map<? super String, ?> getSection(final @NotNull String key) {
-    Validate.notNull(key);
-    return validate(key, get(key), Map.class);
-  }
+  private void watch() {
+    try {
+      while (true) {
+        final WatchKey key = this.watchService.take();
+        boolean configChanged = touchesConfig(key);
+        key.reset();
 
-  @SuppressWarnings("unchecked")
-  public <T> @NotNull T get(final @NotNull ConfigKey<T> configKey) {
-    Validate.notNull(configKey);
-    T value = (T) this.unwind.get(configKey.getKey());
-    if (value == null) {
-      value = configKey.get(this);
-      this.unwind.put(configKey.getKey(), value);
+        if (!configChanged) {
+          continue;
+        }
+
+        WatchKey next;
+        while ((next = this.watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+          configChanged |= touchesConfig(next);
+          next.reset();
+        }
+
+        try {
+          reload();
+          this.plugin.getLogger().info("Reloaded config.yml");
+        } catch (final IOException exception) {
+          this.plugin.getLogger().log(Level.WARNING, "Could not reload config.yml", exception);
+        }
+      }
+    } catch (final ClosedWatchServiceException | InterruptedException exception) {
+      // shutting down
     }
-    return value;
   }
 
-  private Object get(final String path) {
-    return get(path, this.rootRaw);
+  private boolean touchesConfig(final WatchKey key) {
+    for (final WatchEvent<?> event : key.pollEvents()) {
+      final Object context = event.context();
+      if (context instanceof Path && ((Path) context).getFileName().equals(this.configFile.getFileName())) {
+        return true;
+      }
+    }
+    return false;
   }
 
-  private Object get(final String path, final Map<? super String, ?> map) {
-    final String[] pathComponents = this.separatorPattern.split(path);
+  public @Nullable Boolean getBoolean(final @NotNull String key) {
+    return this.snapshot.getBoolean(key);
+  }
 
-    if (pathComponents.length == 1) {
-      return map.get(path);
-    }
+  public @Nullable Integer getInt(final @NotNull String key) {
+    return this.snapshot.getInt(key);
+  }
 
-    final StringJoiner joiner = new StringJoiner(this.separator);
-    for (int i = 1; i < pathComponents.length; ++i) {
-      joiner.add(pathComponents[i]);
-    }
+  public @Nullable Double getDouble(final @NotNull String key) {
+    return this.snapshot.getDouble(key);
+  }
 
-    final String nested = pathComponents[0];
-    return get(joiner.toString(), validate(nested, map.get(nested), Map.class));
+  public @Nullable String getString(final @NotNull String key) {
+    return this.snapshot.getString(key);
   }
 
-  private <T> T validate(final String key, final Object value, final Class<T> type) {
-    if (value == null) {
-      this.plugin.getLogger().warning(noValueForKey(key, type));
-      return null;
-    }
+  public <T> @Nullable List<T> getList(final @NotNull String key) {
+    return this.snapshot.getList(key);
+  }
 
-    if (!type.isInstance(value)) {
-      this.plugin.getLogger().warning(unexpectedKeyType(key, type, value.getClass()));
-      return null;
-    }
+  public @Nullable Map<? super String, ?> getSection(final @NotNull String key) {
+    return this.snapshot.getSection(key);
+  }
 
-    return type.cast(value);
+  public <T> @NotNull T get(final @NotNull ConfigKey<T> configKey) {
+    return this.snapshot.get(configKey);
   }
 }
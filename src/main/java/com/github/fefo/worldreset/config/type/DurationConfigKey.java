@@ -26,7 +26,7 @@ package com.github.fefo.worldreset.config.type;
 
 import com.github.fefo.worldreset.commands.DurationArgumentType;
 import com.github.fefo.worldreset.config.ConfigKey;
-import com.github.fefo.worldreset.config.YamlConfigAdapter;
+import com.github.fefo.worldreset.config.ConfigSnapshot;
 import com.mojang.brigadier.StringReader;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import org.jetbrains.annotations.NotNull;
@@ -43,8 +43,8 @@ public class DurationConfigKey extends ConfigKey<Duration> {
   }
 
   @Override
-  public @NotNull Duration get(final @NotNull YamlConfigAdapter configAdapter) {
-    final String raw = configAdapter.getString(this.key);
+  public @NotNull Duration get(final @NotNull ConfigSnapshot config) {
+    final String raw = config.resolve(this, String.class);
     try {
       return raw == null ? this.fallback : DURATION_PARSER.parse(new StringReader(raw));
     } catch (final CommandSyntaxException exception) {
@@ -25,7 +25,7 @@
 package com.github.fefo.worldreset.config.type;
 
 import com.github.fefo.worldreset.config.ConfigKey;
-import com.github.fefo.worldreset.config.YamlConfigAdapter;
+import com.github.fefo.worldreset.config.ConfigSnapshot;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
@@ -38,8 +38,9 @@ public class ListConfigKey<T> extends ConfigKey<List<T>> {
   }
 
   @Override
-  public @NotNull List<T> get(final @NotNull YamlConfigAdapter configAdapter) {
-    final List<T> list = configAdapter.getList(this.key);
+  public @NotNull List<T> get(final @NotNull ConfigSnapshot config) {
+    @SuppressWarnings("unchecked")
+    final List<T> list = config.resolve(this, List.class);
     return list == null ? this.fallback : list;
   }
 }
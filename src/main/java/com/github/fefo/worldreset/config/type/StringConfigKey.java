@@ -25,20 +25,19 @@
 package com.github.fefo.worldreset.config.type;
 
 import com.github.fefo.worldreset.config.ConfigKey;
-import com.github.fefo.worldreset.config.YamlConfigAdapter;
+import com.github.fefo.worldreset.config.ConfigSnapshot;
 import org.jetbrains.annotations.NotNull;
 
 public class StringConfigKey extends ConfigKey<String> {
 
-
   public StringConfigKey(final @NotNull String key, final @NotNull String fallback,
                          final boolean reloadable) {
     super(key, fallback, reloadable);
   }
 
   @Override
-  public @NotNull String get(final @NotNull YamlConfigAdapter configAdapter) {
-    final String value = configAdapter.getString(this.key);
+  public @NotNull String get(final @NotNull ConfigSnapshot config) {
+    final String value = config.resolve(this, String.class);
     return value == null ? this.fallback : value;
   }
 }
@@ -0,0 +1,284 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.messages;
+
+import com.github.fefo.worldreset.config.BroadcastTarget;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.platform.bukkit.BukkitAudiences;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Who should get broadcasts and where they are, kept up to date from player events so a
+// broadcast never has to go through every online player checking permissions.
+// Events come in on the main thread, lookups happen on the worker thread
+public final class AudienceIndex implements Listener {
+
+  private final BukkitAudiences audiences;
+  private final String permission;
+  private final Map<UUID, Viewer> viewers = new ConcurrentHashMap<>();
+  // Only viewers that have the permission
+  private final Map<String, Set<Viewer>> present = new ConcurrentHashMap<>();
+  // world -> player -> last time they were in it (epoch millis)
+  private final Map<String, Map<UUID, Long>> visits = new ConcurrentHashMap<>();
+
+  public AudienceIndex(final @NotNull Plugin plugin, final @NotNull BukkitAudiences audiences,
+                       final @NotNull String permission) {
+    this.audiences = audiences;
+    this.permission = permission;
+
+    Bukkit.getPluginManager().registerEvents(this, plugin);
+    // Plugin reloads, players might already be online
+    for (final Player player : Bukkit.getOnlinePlayers()) {
+      add(player);
+    }
+  }
+
+  public @NotNull Audience everyone() {
+    return withConsole(collectEveryone(new ArrayList<>(this.viewers.size())));
+  }
+
+  public @NotNull Audience inWorld(final @NotNull String worldName) {
+    return withConsole(collectInWorld(worldName, new ArrayList<>()));
+  }
+
+  // Players in the world right now plus whoever left it less than window ago
+  public @NotNull Audience visitors(final @NotNull String worldName, final @NotNull Duration window) {
+    return withConsole(collectVisitors(worldName, window, new ArrayList<>()));
+  }
+
+  // Adds the players (not the console) a target covers, so callers can reuse the collection
+  public <C extends Collection<? super Audience>> @NotNull C collect(final @NotNull BroadcastTarget target,
+                                                                    final @NotNull String worldName,
+                                                                    final @NotNull Duration window,
+                                                                    final @NotNull C into) {
+    switch (target) {
+      case WORLD:
+        return collectInWorld(worldName, into);
+      case VISITORS:
+        return collectVisitors(worldName, window, into);
+      default:
+        return collectEveryone(into);
+    }
+  }
+
+  private <C extends Collection<? super Audience>> C collectEveryone(final C into) {
+    for (final Viewer viewer : this.viewers.values()) {
+      if (viewer.permitted) {
+        into.add(viewer.audience);
+      }
+    }
+    return into;
+  }
+
+  private <C extends Collection<? super Audience>> C collectInWorld(final String worldName, final C into) {
+    final Collection<Viewer> inWorld = this.present.get(key(worldName));
+    if (inWorld != null) {
+      for (final Viewer viewer : inWorld) {
+        into.add(viewer.audience);
+      }
+    }
+    return into;
+  }
+
+  private <C extends Collection<? super Audience>> C collectVisitors(final String worldName, final Duration window,
+                                                                    final C into) {
+    final String key = key(worldName);
+    collectInWorld(worldName, into);
+
+    final Map<UUID, Long> visited = this.visits.get(key);
+    if (visited == null) {
+      return into;
+    }
+
+    final long since = System.currentTimeMillis() - window.toMillis();
+    final Iterator<Map.Entry<UUID, Long>> iterator = visited.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final Map.Entry<UUID, Long> entry = iterator.next();
+      if (entry.getValue() < since) {
+        iterator.remove();
+        continue;
+      }
+
+      final Viewer viewer = this.viewers.get(entry.getKey());
+      if (viewer != null && viewer.permitted && !viewer.world.equals(key)) {
+        into.add(viewer.audience);
+      }
+    }
+    return into;
+  }
+
+  // Forgets visits older than each world's window, broadcasts only prune the worlds they go to
+  public void pruneVisits(final @NotNull Function<? super String, Duration> windows) {
+    final long now = System.currentTimeMillis();
+    for (final String world : this.visits.keySet()) {
+      final long since = now - windows.apply(world).toMillis();
+      // Atomic with leave, so a visit can't land in a map that's being dropped
+      this.visits.computeIfPresent(world, (key, visited) -> {
+        visited.values().removeIf(visitedAt -> visitedAt < since);
+        return visited.isEmpty() ? null : visited;
+      });
+    }
+  }
+
+  private Audience withConsole(final Collection<Audience> recipients) {
+    final List<Audience> audiences = new ArrayList<>(recipients.size() + 1);
+    audiences.add(this.audiences.console());
+    audiences.addAll(recipients);
+    return Audience.audience(audiences);
+  }
+
+  public void shutdown() {
+    HandlerList.unregisterAll(this);
+    this.viewers.clear();
+    this.present.clear();
+    this.visits.clear();
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerJoin(final PlayerJoinEvent event) {
+    add(event.getPlayer());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerQuit(final PlayerQuitEvent event) {
+    final Viewer viewer = this.viewers.remove(event.getPlayer().getUniqueId());
+    if (viewer != null) {
+      leave(viewer);
+    }
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerChangedWorld(final PlayerChangedWorldEvent event) {
+    final Viewer viewer = this.viewers.get(event.getPlayer().getUniqueId());
+    if (viewer == null) {
+      return;
+    }
+
+    leave(viewer);
+    viewer.world = key(event.getPlayer().getWorld());
+    if (viewer.permitted) {
+      this.present.computeIfAbsent(viewer.world, world -> ConcurrentHashMap.newKeySet()).add(viewer);
+    }
+  }
+
+  // Sent every time the server recalculates a player's commands, which is what permission
+  // plugins trigger after changing their permissions
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerCommandSend(final PlayerCommandSendEvent event) {
+    final Player player = event.getPlayer();
+    final Viewer viewer = this.viewers.get(player.getUniqueId());
+    if (viewer == null) {
+      return;
+    }
+
+    final boolean permitted = player.hasPermission(this.permission);
+    if (permitted == viewer.permitted) {
+      return;
+    }
+
+    viewer.permitted = permitted;
+    if (permitted) {
+      this.present.computeIfAbsent(viewer.world, world -> ConcurrentHashMap.newKeySet()).add(viewer);
+    } else {
+      removePresent(viewer);
+    }
+  }
+
+  private void add(final Player player) {
+    final Viewer viewer = new Viewer(player.getUniqueId(), this.audiences.player(player.getUniqueId()),
+                                     key(player.getWorld()), player.hasPermission(this.permission));
+    final Viewer previous = this.viewers.put(viewer.uuid, viewer);
+    if (previous != null) {
+      removePresent(previous);
+    }
+
+    if (viewer.permitted) {
+      this.present.computeIfAbsent(viewer.world, world -> ConcurrentHashMap.newKeySet()).add(viewer);
+    }
+  }
+
+  private void leave(final Viewer viewer) {
+    removePresent(viewer);
+    final long now = System.currentTimeMillis();
+    this.visits.compute(viewer.world, (world, visited) -> {
+      final Map<UUID, Long> inWorld = visited == null ? new ConcurrentHashMap<>() : visited;
+      inWorld.put(viewer.uuid, now);
+      return inWorld;
+    });
+  }
+
+  private void removePresent(final Viewer viewer) {
+    final Set<Viewer> inWorld = this.present.get(viewer.world);
+    if (inWorld != null) {
+      inWorld.remove(viewer);
+    }
+  }
+
+  private static String key(final World world) {
+    return key(world.getName());
+  }
+
+  private static String key(final String worldName) {
+    return worldName.toLowerCase(Locale.ROOT);
+  }
+
+  private static final class Viewer {
+
+    private final UUID uuid;
+    private final Audience audience;
+    private volatile String world;
+    private volatile boolean permitted;
+
+    private Viewer(final UUID uuid, final Audience audience, final String world, final boolean permitted) {
+      this.uuid = uuid;
+      this.audience = audience;
+      this.world = world;
+      this.permitted = permitted;
+    }
+  }
+}
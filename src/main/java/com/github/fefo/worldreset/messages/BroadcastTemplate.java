@@ -0,0 +1,166 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.messages;
+
+import com.github.fefo.worldreset.util.Utils;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// The broadcast message parsed once: the legacy text is deserialized with the placeholders
+// swapped for private use characters, then flattened into static components and slots
+public final class BroadcastTemplate {
+
+  private static final String NEXT_RESTART = "the next restart";
+
+  public static @NotNull BroadcastTemplate compile(final @NotNull String message) {
+    String substituted = message;
+    for (final Placeholder placeholder : Placeholder.VALUES) {
+      substituted = placeholder.pattern.matcher(substituted).replaceAll(String.valueOf(placeholder.sentinel));
+    }
+
+    final List<Segment> segments = new ArrayList<>();
+    flatten(Utils.fromLegacy(substituted), Style.empty(), segments);
+    return new BroadcastTemplate(segments.toArray(new Segment[0]));
+  }
+
+  private static void flatten(final Component component, final Style parent, final List<Segment> segments) {
+    final Style style = parent.merge(component.style());
+    if (component instanceof TextComponent) {
+      final String content = ((TextComponent) component).content();
+      int start = 0;
+      for (int i = 0; i < content.length(); ++i) {
+        final Placeholder placeholder = Placeholder.bySentinel(content.charAt(i));
+        if (placeholder == null) {
+          continue;
+        }
+
+        if (i > start) {
+          segments.add(new Segment(Component.text(content.substring(start, i), style), null, style));
+        }
+        segments.add(new Segment(null, placeholder, style));
+        start = i + 1;
+      }
+
+      if (start < content.length()) {
+        segments.add(new Segment(Component.text(content.substring(start), style), null, style));
+      }
+    } else {
+      segments.add(new Segment(component.style(style).children(new ArrayList<>()), null, style));
+    }
+
+    for (final Component child : component.children()) {
+      flatten(child, style, segments);
+    }
+  }
+
+  private final Segment[] segments;
+  private final Map<String, Map<Duration, Component>> rendered = new ConcurrentHashMap<>();
+
+  private BroadcastTemplate(final Segment[] segments) {
+    this.segments = segments;
+  }
+
+  // A zero (or negative) time left renders as "the next restart"
+  public @NotNull Component render(final @NotNull String worldName, final @NotNull Duration timeLeft) {
+    final boolean imminent = timeLeft.isZero() || timeLeft.isNegative();
+    final String timeLeftShort = imminent ? NEXT_RESTART : Utils.shortDuration(timeLeft);
+    final String timeLeftLong = imminent ? NEXT_RESTART : Utils.longDuration(timeLeft);
+
+    final TextComponent.Builder builder = Component.text();
+    for (final Segment segment : this.segments) {
+      if (segment.component != null) {
+        builder.append(segment.component);
+        continue;
+      }
+
+      switch (segment.placeholder) {
+        case TIME_LEFT:
+          builder.append(Component.text(timeLeftShort, segment.style));
+          break;
+        case TIME_LEFT_LONG:
+          builder.append(Component.text(timeLeftLong, segment.style));
+          break;
+        case WORLD:
+          builder.append(Component.text(worldName, segment.style));
+          break;
+      }
+    }
+    return builder.build();
+  }
+
+  // Broadcasts only ever happen at the configured moments, so there's a handful of these per world
+  public @NotNull Component cached(final @NotNull String worldName, final @NotNull Duration moment) {
+    return this.rendered.computeIfAbsent(worldName, key -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(moment, key -> render(worldName, key));
+  }
+
+  private enum Placeholder {
+
+    TIME_LEFT(Utils.TIME_LEFT_PATTERN, '\uE000'),
+    TIME_LEFT_LONG(Utils.TIME_LEFT_LONG_PATTERN, '\uE001'),
+    WORLD(Utils.WORLD_NAME_PATTERN, '\uE002');
+
+    private static final Placeholder[] VALUES = values();
+
+    private static Placeholder bySentinel(final char character) {
+      for (final Placeholder placeholder : VALUES) {
+        if (placeholder.sentinel == character) {
+          return placeholder;
+        }
+      }
+      return null;
+    }
+
+    private final Pattern pattern;
+    private final char sentinel;
+
+    Placeholder(final Pattern pattern, final char sentinel) {
+      this.pattern = pattern;
+      this.sentinel = sentinel;
+    }
+  }
+
+  private static final class Segment {
+
+    private final Component component;
+    private final Placeholder placeholder;
+    private final Style style;
+
+    private Segment(final Component component, final Placeholder placeholder, final Style style) {
+      this.component = component;
+      this.placeholder = placeholder;
+      this.style = style;
+    }
+  }
+}
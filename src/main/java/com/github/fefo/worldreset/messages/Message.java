@@ -24,6 +24,8 @@
 
 package com.github.fefo.worldreset.messages;
 
+import com.github.fefo.worldreset.work.ResetJob;
+import com.github.fefo.worldreset.work.history.ResetRecord;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.ComponentLike;
@@ -31,11 +33,17 @@ import net.kyori.adventure.text.TextComponent;
 import org.bukkit.plugin.Plugin;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
+import static com.github.fefo.worldreset.util.Utils.bytes;
 import static com.github.fefo.worldreset.util.Utils.longDuration;
 import static com.github.fefo.worldreset.util.Utils.shortDuration;
+import static com.github.fefo.worldreset.util.Utils.timestamp;
 import static net.kyori.adventure.text.Component.join;
+import static net.kyori.adventure.text.Component.newline;
 import static net.kyori.adventure.text.Component.space;
 import static net.kyori.adventure.text.Component.text;
 import static net.kyori.adventure.text.event.ClickEvent.suggestCommand;
@@ -60,12 +68,12 @@ public interface Message {
                   text(']'))
           .build();
 
-  Args1<Plugin> PLUGIN_INFO = plugin ->
+  Args1<Plugin> PLUGIN_INFO = (catalog, plugin) ->
       text()
           .color(YELLOW)
           .append(text("WorldReset", GOLD),
                   space(),
-                  text("by"),
+                  catalog.text("plugin-info.by"),
                   space(),
                   text()
                       .append(join(text(", "),
@@ -75,129 +83,260 @@ public interface Message {
                   text('v'),
                   text(plugin.getDescription().getVersion()));
 
-  Args0 NO_PERMISSION = () ->
+  Args0 NO_PERMISSION = catalog ->
       prefixed()
-          .append(text("You are not allowed to run this command", RED));
+          .append(catalog.text("no-permission").color(RED));
 
-  Args1<String> CONSOLE_INCOMPLETE_COMMAND = what ->
+  Args0 CONSOLE_INCOMPLETE_COMMAND = catalog ->
       prefixed()
-          .color(RED)
-          .append(join(space(),
-                       text("Please"),
-                       text(what),
-                       text("when running this command from console")));
+          .append(catalog.text("console-incomplete-command").color(RED));
 
-  Args2<String, Duration> SCHEDULED_SUCCESSFULLY = (world, interval) ->
+  Args2<String, Duration> SCHEDULED_SUCCESSFULLY = (catalog, world, interval) ->
       prefixed()
           .color(GRAY)
-          .append(join(space(),
-                       text("World reset scheduled successfully."),
-                       text("World"),
-                       text(world, AQUA),
-                       text("will reset every"),
-                       text(shortDuration(interval), GREEN)
-                           .hoverEvent(showText(text(longDuration(interval))))));
+          .append(catalog.format("scheduled-successfully",
+                                 text(world, AQUA),
+                                 text(shortDuration(interval), GREEN)
+                                     .hoverEvent(showText(text(longDuration(interval, catalog.getLocale()))))));
 
-  Args2<String, Duration> RESCHEDULED_SUCCESSFULLY = (world, interval) ->
+  Args2<String, Duration> RESCHEDULED_SUCCESSFULLY = (catalog, world, interval) ->
       prefixed()
           .color(GRAY)
-          .append(join(space(),
-                       text("World reset rescheduled successfully."),
-                       text("World"),
-                       text(world, AQUA),
-                       text("will reset every"),
-                       text(shortDuration(interval), GREEN)
-                           .hoverEvent(showText(text(longDuration(interval))))));
+          .append(catalog.format("rescheduled-successfully",
+                                 text(world, AQUA),
+                                 text(shortDuration(interval), GREEN)
+                                     .hoverEvent(showText(text(longDuration(interval, catalog.getLocale()))))));
 
-  Args1<String> UNSCHEDULED_SUCCESSFULLY = world ->
+  Args1<Duration> RESET_WINDOW = (catalog, window) ->
       prefixed()
           .color(GRAY)
-          .append(join(space(),
-                       text("World"),
-                       text(world, AQUA),
-                       text("has been unscheduled for reset")));
+          .append(catalog.format("reset-window",
+                                 text(shortDuration(window), GREEN)
+                                     .hoverEvent(showText(text(longDuration(window, catalog.getLocale()))))));
 
-  Args1<String> WASNT_SCHEDULED = world ->
+  Args1<String> UNSCHEDULED_SUCCESSFULLY = (catalog, world) ->
       prefixed()
           .color(GRAY)
-          .append(join(space(),
-                       text("World"),
-                       text(world, AQUA),
-                       text("was not scheduled for reset")));
+          .append(catalog.format("unscheduled-successfully", text(world, AQUA)));
 
-  Args0 LIST_SCHEDULED_RESETS_TITLE = () ->
+  Args1<String> WASNT_SCHEDULED = (catalog, world) ->
+      prefixed()
+          .color(GRAY)
+          .append(catalog.format("wasnt-scheduled", text(world, AQUA)));
+
+  Args4<String, List<String>, Integer, Duration> BATCH_SCHEDULED = (catalog, pattern, worlds, rescheduled, interval) ->
+      prefixed()
+          .color(GRAY)
+          .append(catalog.format("batch.scheduled",
+                                 worldCount(worlds),
+                                 text(pattern, AQUA),
+                                 text(shortDuration(interval), GREEN)
+                                     .hoverEvent(showText(text(longDuration(interval, catalog.getLocale()))))),
+                  text().apply(builder -> {
+                    if (rescheduled > 0) {
+                      builder.append(space(), catalog.format("batch.already-scheduled", text(rescheduled)));
+                    }
+                  }));
+
+  Args2<String, List<String>> BATCH_UNSCHEDULED = (catalog, pattern, worlds) ->
+      prefixed()
+          .color(GRAY)
+          .append(catalog.format("batch.unscheduled", worldCount(worlds), text(pattern, AQUA)));
+
+  Args1<String> NO_WORLDS_MATCHED = (catalog, pattern) ->
+      prefixed()
+          .color(RED)
+          .append(catalog.format("batch.no-match", text(pattern, AQUA)));
+
+  Args0 LIST_SCHEDULED_RESETS_TITLE = catalog ->
       prefixed()
           .color(WHITE)
-          .append(text("Worlds scheduled to reset"),
+          .append(catalog.text("list.title"),
                   space(),
                   text()
                       .color(GRAY)
                       .append(text('('),
                               join(text(" - "),
-                                   text("world"),
-                                   text("next reset"),
-                                   text("interval")),
+                                   catalog.text("list.column.world"),
+                                   catalog.text("list.column.next-reset"),
+                                   catalog.text("list.column.interval")),
                               text(')')),
                   text(':'));
 
-  Args3<String, Duration, Duration> LIST_SCHEDULED_RESETS_ELEMENT = (world, until, interval) ->
+  Args3<String, Duration, Duration> LIST_SCHEDULED_RESETS_ELEMENT = (catalog, world, until, interval) ->
       prefixed()
           .append(join(text(" - ", GRAY),
                        text(world, AQUA)
-                           .hoverEvent(showText(text()
-                                                    .append(text("Click to unschedule", WHITE),
-                                                            space(),
-                                                            text(world, AQUA)))),
+                           .hoverEvent(showText(catalog.format("list.click-to-unschedule", text(world, AQUA))
+                                                       .color(WHITE))),
                        text().apply(builder -> {
                          if (until.isNegative()) {
                            builder
-                               .append(text("Next server restart", GREEN));
+                               .append(catalog.text("list.next-restart").color(GREEN));
                          } else {
                            builder
                                .append(text(shortDuration(until), GREEN)
-                                           .hoverEvent(showText(text(longDuration(until), WHITE))));
+                                           .hoverEvent(showText(text(longDuration(until, catalog.getLocale()), WHITE))));
                          }
                        }),
                        text(shortDuration(interval), GREEN)
-                           .hoverEvent(showText(text(longDuration(interval), WHITE))))
+                           .hoverEvent(showText(text(longDuration(interval, catalog.getLocale()), WHITE))))
                       .clickEvent(suggestCommand("/worldreset unschedule " + world)));
 
-  Args0 LIST_SCHEDULED_RESETS_NO_ELEMENT = () ->
+  Args0 LIST_SCHEDULED_RESETS_NO_ELEMENT = catalog ->
       prefixed()
-          .append(text("There are no scheduled resets", GRAY));
+          .append(catalog.text("list.empty").color(GRAY));
 
-  Args0 ERROR_WHILE_SAVING = () ->
+  Args0 ERROR_WHILE_SAVING = catalog ->
       prefixed()
-          .color(RED)
-          .append(text("There was an error while saving scheduled data."),
-                  space(),
-                  text("Please check console for any errors"));
+          .append(catalog.text("error-while-saving").color(RED));
 
-  Args0 USAGE_TITLE = () ->
+  Args0 USAGE_TITLE = catalog ->
       prefixed()
-          .append(text("Usage(s):", WHITE));
+          .append(catalog.text("usage.title").color(WHITE));
 
-  Args1<String> USAGES_COMMAND = usage ->
+  Args1<String> USAGES_COMMAND = (catalog, usage) ->
       text()
           .color(RED)
           .append(text('/'),
                   text(usage))
-          .hoverEvent(showText(text()
-                                   .append(text("Click to run:", WHITE),
-                                           space(),
-                                           text('/', GRAY),
-                                           text(usage, GRAY))))
+          .hoverEvent(showText(catalog.format("usage.click-to-run",
+                                              text()
+                                                  .color(GRAY)
+                                                  .append(text('/'),
+                                                          text(usage)))
+                                      .color(WHITE)))
           .clickEvent(suggestCommand('/' + usage));
 
-  Args1<String> UNKNOWN_WORLD = unknownWorld ->
+  Args1<String> UNKNOWN_WORLD = (catalog, unknownWorld) ->
       prefixed()
           .color(RED)
-          .append(join(space(),
-                       text("No world for name"),
-                       text(unknownWorld, AQUA),
-                       text("was found")));
+          .append(catalog.format("unknown-world", text(unknownWorld, AQUA)));
+
+  Args2<String, Integer> HISTORY_TITLE = (catalog, world, page) ->
+      prefixed()
+          .color(WHITE)
+          .append(world == null
+                  ? catalog.text("history.title")
+                  : catalog.format("history.title-for", text(world, AQUA)),
+                  space(),
+                  text()
+                      .color(GRAY)
+                      .append(text('('),
+                              catalog.format("history.page", text(page)),
+                              text(')')),
+                  text(':'));
+
+  Args1<ResetRecord> HISTORY_ELEMENT = (catalog, record) ->
+      prefixed()
+          .append(join(text(" - ", GRAY),
+                       text(record.getWorldName(), AQUA)
+                           .hoverEvent(showText(text(timestamp(record.getStartedAt()), WHITE))),
+                       catalog.format("history.files", text(record.getFilesDeleted())).color(GREEN),
+                       text(bytes(record.getBytesFreed()), GREEN),
+                       text(record.getTotalTime().toMillis() + "ms", GREEN)
+                           .hoverEvent(showText(text()
+                                                    .color(WHITE)
+                                                    .append(join(newline(),
+                                                                 catalog.format("history.scan", text(record.getScanTime().toMillis())),
+                                                                 catalog.format("history.classify", text(record.getClassifyTime().toMillis())),
+                                                                 catalog.format("history.delete", text(record.getDeleteTime().toMillis())))))),
+                       text().apply(builder -> {
+                         if (record.getErrors() == 0) {
+                           builder.append(catalog.text("history.no-errors").color(GRAY));
+                         } else {
+                           builder.append(catalog.format("history.errors", text(record.getErrors())).color(RED)
+                                              .hoverEvent(showText(text(String.valueOf(record.getFirstError()), WHITE))));
+                         }
+                       })));
 
-  Args1<String> COMMAND_ERROR = error ->
+  Args0 HISTORY_NO_ELEMENT = catalog ->
+      prefixed()
+          .append(catalog.text("history.empty").color(GRAY));
+
+  Args0 HISTORY_READ_ERROR = catalog ->
+      prefixed()
+          .append(catalog.text("history.read-error").color(RED));
+
+  Args0 JOBS_TITLE = catalog ->
+      prefixed()
+          .color(WHITE)
+          .append(catalog.text("jobs.title"),
+                  space(),
+                  text()
+                      .color(GRAY)
+                      .append(text('('),
+                              join(text(" - "),
+                                   catalog.text("jobs.column.world"),
+                                   catalog.text("jobs.column.state"),
+                                   catalog.text("jobs.column.progress")),
+                              text(')')),
+                  text(':'));
+
+  Args1<ResetJob> JOBS_ELEMENT = (catalog, job) ->
+      prefixed()
+          .append(join(text(" - ", GRAY),
+                       text(job.getWorldName(), AQUA)
+                           .hoverEvent(showText(text()
+                                                    .color(WHITE)
+                                                    .append(join(newline(),
+                                                                 catalog.format("jobs.id", text(job.getId())),
+                                                                 catalog.format("jobs.priority", text(job.getPriority())),
+                                                                 catalog.format("jobs.submitted", text(timestamp(job.getSubmittedAt()))))))),
+                       catalog.text("jobs.state." + job.getState().name().toLowerCase(Locale.ROOT))
+                              .color(job.getState() == ResetJob.State.FAILED ? RED : job.getState().isFinished() ? GRAY : GREEN),
+                       text().apply(builder -> {
+                         final Instant now = Instant.now();
+                         switch (job.getState()) {
+                           case PENDING:
+                             builder.append(catalog.format("jobs.waiting", text(elapsed(job.getSubmittedAt(), now))).color(GRAY));
+                             break;
+                           case PLANNING:
+                             builder.append(catalog.format("jobs.planning", text(elapsed(job.getStartedAt(), now))).color(GREEN));
+                             break;
+                           case RUNNING:
+                             builder.append(catalog.format("jobs.deleting", text(job.getPlannedFiles()), text(elapsed(job.getStartedAt(), now)))
+                                                   .color(GREEN));
+                             break;
+                           case DONE: {
+                             final ResetRecord record = job.getRecord();
+                             builder.append(catalog.format("jobs.done", text(record.getFilesDeleted()), text(elapsed(job.getStartedAt(), job.getFinishedAt())))
+                                                   .color(GREEN));
+                             if (record.getErrors() > 0) {
+                               builder.append(text(" ("),
+                                              catalog.format("history.errors", text(record.getErrors())).color(RED)
+                                                     .hoverEvent(showText(text(String.valueOf(record.getFirstError()), WHITE))),
+                                              text(')'));
+                             }
+                             break;
+                           }
+                           case FAILED:
+                             builder.append(catalog.text("jobs.failed").color(RED)
+                                                   .hoverEvent(showText(text(String.valueOf(job.getFailure()), WHITE))));
+                             break;
+                           default:
+                             builder.append(catalog.format("jobs.ago", text(elapsed(job.getFinishedAt(), now))).color(GRAY));
+                             break;
+                         }
+                       }))
+                      .clickEvent(suggestCommand("/worldreset jobs cancel " + job.getWorldName())));
+
+  Args0 JOBS_NO_ELEMENT = catalog ->
+      prefixed()
+          .append(catalog.text("jobs.empty").color(GRAY));
+
+  Args1<String> JOB_CANCELLED = (catalog, world) ->
+      prefixed()
+          .color(WHITE)
+          .append(catalog.format("jobs.cancelled", text(world, AQUA)));
+
+  Args1<String> JOB_NOT_PENDING = (catalog, world) ->
+      prefixed()
+          .color(RED)
+          .append(catalog.format("jobs.not-pending", text(world, AQUA)));
+
+  // Errors coming from the command parser, these are only available in English
+  Args1<String> COMMAND_ERROR = (catalog, error) ->
       prefixed()
           .append(text(error, RED));
 
@@ -205,87 +344,102 @@ public interface Message {
     return TextComponent.ofChildren(PREFIX, space()).toBuilder().resetStyle();
   }
 
+  // "12", hovering over it shows which ones
+  static Component worldCount(final List<String> worlds) {
+    final int shown = Math.min(worlds.size(), 20);
+    final String names = String.join(", ", worlds.subList(0, shown));
+    return text(worlds.size(), AQUA)
+        .hoverEvent(showText(text(shown < worlds.size() ? names + ", ..." : names, WHITE)));
+  }
+
+  // "350ms" under a second, "1m5s" from there on
+  static String elapsed(final Instant from, final Instant to) {
+    final Duration elapsed = Duration.between(from, to);
+    return elapsed.getSeconds() == 0L ? elapsed.toMillis() + "ms" : shortDuration(elapsed);
+  }
+
+  // Built once per catalog, every send after the first one reuses the same component
   @FunctionalInterface
   interface Args0 {
 
     default void send(final Audience audience) {
-      audience.sendMessage(build());
+      audience.sendMessage(MessageCatalog.of(audience).constant(this));
     }
 
     default String legacy() {
-      return legacySection().serialize(build().asComponent());
+      return MessageCatalog.defaultCatalog().legacyConstant(this);
     }
 
-    ComponentLike build();
+    ComponentLike build(MessageCatalog catalog);
   }
 
   @FunctionalInterface
   interface Args1<T> {
 
     default void send(final Audience audience, final T t) {
-      audience.sendMessage(build(t));
+      audience.sendMessage(build(MessageCatalog.of(audience), t));
     }
 
     default String legacy(final T t) {
-      return legacySection().serialize(build(t).asComponent());
+      return legacySection().serialize(build(MessageCatalog.defaultCatalog(), t).asComponent());
     }
 
-    ComponentLike build(T t);
+    ComponentLike build(MessageCatalog catalog, T t);
   }
 
   @FunctionalInterface
   interface Args2<T, S> {
 
     default void send(final Audience audience, final T t, final S s) {
-      audience.sendMessage(build(t, s));
+      audience.sendMessage(build(MessageCatalog.of(audience), t, s));
     }
 
     default String legacy(final T t, final S s) {
-      return legacySection().serialize(build(t, s).asComponent());
+      return legacySection().serialize(build(MessageCatalog.defaultCatalog(), t, s).asComponent());
     }
 
-    ComponentLike build(T t, S s);
+    ComponentLike build(MessageCatalog catalog, T t, S s);
   }
 
   @FunctionalInterface
   interface Args3<T, S, R> {
 
     default void send(final Audience audience, final T t, final S s, final R r) {
-      audience.sendMessage(build(t, s, r));
+      audience.sendMessage(build(MessageCatalog.of(audience), t, s, r));
     }
 
     default String legacy(final T t, final S s, final R r) {
-      return legacySection().serialize(build(t, s, r).asComponent());
+      return legacySection().serialize(build(MessageCatalog.defaultCatalog(), t, s, r).asComponent());
     }
 
-    ComponentLike build(T t, S s, R r);
+    ComponentLike build(MessageCatalog catalog, T t, S s, R r);
   }
 
   @FunctionalInterface
   interface Args4<T, S, R, Q> {
 
     default void send(final Audience audience, final T t, final S s, final R r, final Q q) {
-      audience.sendMessage(build(t, s, r, q));
+      audience.sendMessage(build(MessageCatalog.of(audience), t, s, r, q));
     }
 
     default String legacy(final T t, final S s, final R r, final Q q) {
-      return legacySection().serialize(build(t, s, r, q).asComponent());
+      return legacySection().serialize(build(MessageCatalog.defaultCatalog(), t, s, r, q).asComponent());
     }
 
-    ComponentLike build(T t, S s, R r, Q q);
+    ComponentLike build(MessageCatalog catalog, T t, S s, R r, Q q);
   }
 
   @FunctionalInterface
   interface Args5<T, S, R, Q, P> {
 
     default void send(final Audience audience, final T t, final S s, final R r, final Q q, final P p) {
-      audience.sendMessage(build(t, s, r, q, p));
+      audience.sendMessage(build(MessageCatalog.of(audience), t, s, r, q, p));
     }
 
     default String legacy(final T t, final S s, final R r, final Q q, final P p) {
-      return legacySection().serialize(build(t, s, r, q, p).asComponent());
+      return legacySection().serialize(build(MessageCatalog.defaultCatalog(), t, s, r, q, p).asComponent());
     }
 
-    ComponentLike build(T t, S s, R r, Q q, P p);
+    ComponentLike build(MessageCatalog catalog, T t, S s, R r, Q q, P p);
   }
 }
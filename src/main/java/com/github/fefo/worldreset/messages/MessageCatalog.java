@@ -0,0 +1,224 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.messages;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.TextComponent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PropertyResourceBundle;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer.legacySection;
+
+// Texts for one locale, read from lang/messages*.properties (UTF-8).
+// Plain texts are turned into components once, texts with {0}-style slots are split into
+// static parts and slots once, and parameterless messages are built once per catalog
+public final class MessageCatalog {
+
+  private static final String BUNDLE = "lang.messages";
+  private static final ResourceBundle.Control CONTROL = new Utf8Control();
+  private static final Map<String, MessageCatalog> BY_TAG = new ConcurrentHashMap<>();
+  private static final Map<Locale, MessageCatalog> BY_LOCALE = new ConcurrentHashMap<>();
+  private static final MessageCatalog DEFAULT = forLocale(Locale.ROOT);
+
+  public static @NotNull MessageCatalog defaultCatalog() {
+    return DEFAULT;
+  }
+
+  // Catalog for whoever is going to receive a message, players get the one for their client's language
+  public static @NotNull MessageCatalog of(final @NotNull Audience audience) {
+    if (audience instanceof MessagingSubject) {
+      return ((MessagingSubject) audience).getCatalog();
+    }
+    return DEFAULT;
+  }
+
+  // Client locales look like "en_us" or "es_ar"
+  public static @NotNull MessageCatalog forTag(final @Nullable String tag) {
+    if (tag == null || tag.isEmpty()) {
+      return DEFAULT;
+    }
+    return BY_TAG.computeIfAbsent(tag, key -> forLocale(parseTag(key)));
+  }
+
+  // Locales that end up with the same bundle share the same catalog (and its cache)
+  public static @NotNull MessageCatalog forLocale(final @NotNull Locale locale) {
+    final ResourceBundle bundle = ResourceBundle.getBundle(BUNDLE, locale, MessageCatalog.class.getClassLoader(), CONTROL);
+    return BY_LOCALE.computeIfAbsent(bundle.getLocale(), key -> new MessageCatalog(key, bundle));
+  }
+
+  private static Locale parseTag(final String tag) {
+    final int separator = tag.indexOf('_') >= 0 ? tag.indexOf('_') : tag.indexOf('-');
+    if (separator < 0) {
+      return new Locale(tag.toLowerCase(Locale.ROOT));
+    }
+    return new Locale(tag.substring(0, separator).toLowerCase(Locale.ROOT),
+                      tag.substring(separator + 1).toUpperCase(Locale.ROOT));
+  }
+
+  private final Locale locale;
+  private final ResourceBundle bundle;
+  private final Map<String, Component> texts = new ConcurrentHashMap<>();
+  private final Map<String, Template> templates = new ConcurrentHashMap<>();
+  private final Map<Message.Args0, Component> constants = new ConcurrentHashMap<>();
+  private final Map<Message.Args0, String> legacyConstants = new ConcurrentHashMap<>();
+
+  private MessageCatalog(final Locale locale, final ResourceBundle bundle) {
+    this.locale = locale;
+    this.bundle = bundle;
+  }
+
+  public @NotNull Locale getLocale() {
+    return this.locale;
+  }
+
+  public @NotNull String raw(final @NotNull String key) {
+    return this.bundle.getString(key);
+  }
+
+  public @NotNull Component text(final @NotNull String key) {
+    return this.texts.computeIfAbsent(key, k -> Component.text(raw(k)));
+  }
+
+  public @NotNull Component format(final @NotNull String key, final @NotNull ComponentLike... arguments) {
+    return this.templates.computeIfAbsent(key, k -> Template.compile(raw(k))).render(arguments);
+  }
+
+  @NotNull Component constant(final @NotNull Message.Args0 message) {
+    return this.constants.computeIfAbsent(message, m -> m.build(this).asComponent());
+  }
+
+  @NotNull String legacyConstant(final @NotNull Message.Args0 message) {
+    return this.legacyConstants.computeIfAbsent(message, m -> legacySection().serialize(constant(m)));
+  }
+
+  // "World {0} will reset every {1}" -> ["World ", 0, " will reset every ", 1]
+  private static final class Template {
+
+    private static Template compile(final String text) {
+      final List<Object> parts = new ArrayList<>();
+      int start = 0;
+      int index = 0;
+      while (index < text.length()) {
+        final int open = text.indexOf('{', index);
+        if (open < 0) {
+          break;
+        }
+
+        int close = open + 1;
+        int slot = 0;
+        while (close < text.length() && text.charAt(close) >= '0' && text.charAt(close) <= '9') {
+          slot = slot * 10 + (text.charAt(close++) - '0');
+        }
+        if (close == open + 1 || close == text.length() || text.charAt(close) != '}') {
+          // Not a slot, leave it as text
+          index = open + 1;
+          continue;
+        }
+
+        if (open > start) {
+          parts.add(Component.text(text.substring(start, open)));
+        }
+        parts.add(slot);
+        start = index = close + 1;
+      }
+
+      if (start < text.length()) {
+        parts.add(Component.text(text.substring(start)));
+      }
+      return new Template(parts.toArray());
+    }
+
+    // Either static components or Integer slot indexes
+    private final Object[] parts;
+
+    private Template(final Object[] parts) {
+      this.parts = parts;
+    }
+
+    private Component render(final ComponentLike[] arguments) {
+      final TextComponent.Builder builder = Component.text();
+      for (final Object part : this.parts) {
+        if (part instanceof Component) {
+          builder.append((Component) part);
+        } else {
+          final int slot = (Integer) part;
+          if (slot < arguments.length) {
+            builder.append(arguments[slot]);
+          }
+        }
+      }
+      return builder.build();
+    }
+  }
+
+  // Properties files are read as ISO-8859-1 before Java 9, and the fallback
+  // to the server's default locale would hand English players another language
+  private static final class Utf8Control extends ResourceBundle.Control {
+
+    @Override
+    public List<String> getFormats(final String baseName) {
+      return FORMAT_PROPERTIES;
+    }
+
+    @Override
+    public Locale getFallbackLocale(final String baseName, final Locale locale) {
+      return null;
+    }
+
+    @Override
+    public ResourceBundle newBundle(final String baseName, final Locale locale, final String format,
+                                    final ClassLoader loader, final boolean reload) throws IOException {
+      final String resource = toResourceName(toBundleName(baseName, locale), "properties");
+      final URL url = loader.getResource(resource);
+      if (url == null) {
+        return null;
+      }
+
+      final URLConnection connection = url.openConnection();
+      connection.setUseCaches(false);
+      try (final InputStream stream = connection.getInputStream();
+           final Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+        return new PropertyResourceBundle(reader);
+      }
+    }
+  }
+}
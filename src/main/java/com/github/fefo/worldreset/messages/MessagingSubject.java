@@ -41,17 +41,20 @@ public final class MessagingSubject implements ForwardingAudience.Single {
   private final String name;
   private final Predicate<? super String> hasPermission;
   private final Supplier<? extends World> worldSupplier;
+  private final Supplier<String> localeSupplier;
 
   MessagingSubject(
       final @NotNull UUID uuid, final @NotNull Audience audience,
       final @NotNull String name,
       final @NotNull Predicate<? super String> hasPermission,
-      final @Nullable Supplier<? extends World> worldSupplier) {
+      final @Nullable Supplier<? extends World> worldSupplier,
+      final @Nullable Supplier<String> localeSupplier) {
     this.uuid = uuid;
     this.audience = audience;
     this.name = name;
     this.hasPermission = hasPermission;
     this.worldSupplier = worldSupplier;
+    this.localeSupplier = localeSupplier;
   }
 
   @Override
@@ -67,6 +70,14 @@ public final class MessagingSubject implements ForwardingAudience.Single {
     return this.hasPermission.test(permission);
   }
 
+  // Players can change their language at any time, so it's looked up on every message
+  public @NotNull MessageCatalog getCatalog() {
+    if (this.localeSupplier == null) {
+      return MessageCatalog.defaultCatalog();
+    }
+    return MessageCatalog.forTag(this.localeSupplier.get());
+  }
+
   public boolean existsInWorld() {
     return this.worldSupplier != null;
   }
@@ -50,16 +50,19 @@ public final class SubjectFactory {
                   .build(CacheLoader.from(sender -> {
                     return new MessagingSubject(uuidFrom(sender), audienceFrom(sender),
                                                 nameFrom(sender), sender::hasPermission,
-                                                worldSupplierFrom(sender));
+                                                worldSupplierFrom(sender), localeSupplierFrom(sender));
                   }));
   private final BukkitAudiences audiences;
+  private final AudienceIndex audienceIndex;
 
   public SubjectFactory(final Plugin plugin) {
     this.audiences = BukkitAudiences.create(plugin);
+    this.audienceIndex = new AudienceIndex(plugin, this.audiences, "worldreset.receivebroadcast");
   }
 
   public void cleanup() {
     this.subjectsCache.invalidateAll();
+    this.audienceIndex.shutdown();
   }
 
   public MessagingSubject from(final CommandSender sender) {
@@ -70,6 +73,10 @@ public final class SubjectFactory {
     return this.audiences.permission(permission);
   }
 
+  public AudienceIndex getAudienceIndex() {
+    return this.audienceIndex;
+  }
+
   private Audience audienceFrom(final CommandSender sender) {
     if (sender == null) {
       return this.audiences.console();
@@ -97,4 +104,11 @@ public final class SubjectFactory {
     }
     return ((Player) sender)::getWorld;
   }
+
+  private Supplier<String> localeSupplierFrom(final CommandSender sender) {
+    if (!(sender instanceof Player)) {
+      return null;
+    }
+    return ((Player) sender)::getLocale;
+  }
 }
@@ -0,0 +1,82 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Java Flight Recorder events for what the plugin does, so a recording shows resets, audits,
+// broadcasts and saves on the same timeline as GC and file I/O.
+// The events themselves live in the jfr source set (compiled for Java 11); on a JVM without JFR
+// they're never loaded and every span is a no-op
+public interface FlightEvents {
+
+  String IMPLEMENTATION = "com.github.fefo.worldreset.metrics.jfr.JfrFlightEvents";
+
+  static @NotNull FlightEvents load(final @NotNull Logger logger) {
+    try {
+      final FlightEvents events = (FlightEvents) Class.forName(IMPLEMENTATION).getMethod("create").invoke(null);
+      if (events != null) {
+        return events;
+      }
+    } catch (final ClassNotFoundException | LinkageError exception) {
+      // Java 8, or a JVM built without JFR
+    } catch (final ReflectiveOperationException exception) {
+      logger.log(Level.WARNING, "Could not register flight recorder events", exception);
+    }
+    return NoFlightEvents.INSTANCE;
+  }
+
+  // phase is one of scan, classify or delete for a reset, or stage for the background task
+  // that stages a plan ahead of one (while the world is still loaded)
+  @NotNull Span resetPhase(@NotNull String worldName, @NotNull String phase);
+
+  // One world's pass in an audit
+  @NotNull Span audit(@NotNull String worldName);
+
+  @NotNull Span broadcast(@NotNull String worldName, @NotNull String target, long secondsLeft);
+
+  // operation is what the storage got asked to do (compact, append...)
+  @NotNull Span save(@NotNull String operation);
+
+  void shutdown();
+
+  // Starts when created, committed by finish() if the recording wants it
+  interface Span {
+
+    // Files for reset phases, journal entries for saves
+    default @NotNull Span count(final int count) {
+      return this;
+    }
+
+    default @NotNull Span bytes(final long bytes) {
+      return this;
+    }
+
+    void finish();
+  }
+}
@@ -0,0 +1,156 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Log-linear buckets in the spirit of HdrHistogram: every power of two is split into
+// 32 equal sub-buckets, so any recorded value is off by at most ~3% and recording is a
+// couple of bit operations plus one atomic increment. Covers every non negative long
+public final class Histogram extends Metric implements HistogramMBean {
+
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  static int bucketOf(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) Math.max(value, 0L);
+    }
+
+    final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  // Largest value that lands in the bucket
+  static long upperBoundOf(final int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+
+    final int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    final long subBucket = bucket % SUB_BUCKETS;
+    final long lower = (1L << exponent) | (subBucket << (exponent - SUB_BUCKET_BITS));
+    return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1L;
+  }
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+  private final double scale;
+
+  // scale converts recorded values into the exported unit (1e-9 for nanoseconds -> seconds)
+  Histogram(final String name, final String help, final String labelName, final String labelValue,
+            final double scale) {
+    super(name, help, labelName, labelValue);
+    this.scale = scale;
+  }
+
+  public void record(final long value) {
+    final long clamped = Math.max(value, 0L);
+    this.buckets.incrementAndGet(bucketOf(clamped));
+    this.count.increment();
+    this.sum.add(clamped);
+    this.max.accumulateAndGet(clamped, Math::max);
+  }
+
+  public void recordSince(final long startNanos) {
+    record(System.nanoTime() - startNanos);
+  }
+
+  // Upper bound of the bucket holding the quantile, 0 if nothing was recorded
+  public long quantile(final double quantile) {
+    long total = 0L;
+    final long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; ++i) {
+      counts[i] = this.buckets.get(i);
+      total += counts[i];
+    }
+    if (total == 0L) {
+      return 0L;
+    }
+
+    final long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+    long seen = 0L;
+    for (int i = 0; i < BUCKETS; ++i) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(upperBoundOf(i), this.max.get());
+      }
+    }
+    return this.max.get();
+  }
+
+  public double getScale() {
+    return this.scale;
+  }
+
+  @Override
+  public long getCount() {
+    return this.count.sum();
+  }
+
+  @Override
+  public long getSum() {
+    return this.sum.sum();
+  }
+
+  @Override
+  public long getMax() {
+    return this.max.get();
+  }
+
+  @Override
+  public double getMean() {
+    final long count = getCount();
+    return count == 0L ? 0.0 : (double) getSum() / count;
+  }
+
+  @Override
+  public long get50thPercentile() {
+    return quantile(0.5);
+  }
+
+  @Override
+  public long get90thPercentile() {
+    return quantile(0.9);
+  }
+
+  @Override
+  public long get99thPercentile() {
+    return quantile(0.99);
+  }
+
+  @Override
+  @NotNull String type() {
+    return "summary";
+  }
+}
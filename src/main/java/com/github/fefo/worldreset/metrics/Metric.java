@@ -0,0 +1,63 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// Name, help and (at most one) label shared by every kind of metric
+public abstract class Metric {
+
+  private final String name;
+  private final String help;
+  private final String labelName;
+  private final String labelValue;
+
+  Metric(final String name, final String help, final String labelName, final String labelValue) {
+    this.name = name;
+    this.help = help;
+    this.labelName = labelName;
+    this.labelValue = labelValue;
+  }
+
+  public @NotNull String getName() {
+    return this.name;
+  }
+
+  public @NotNull String getHelp() {
+    return this.help;
+  }
+
+  public @Nullable String getLabelName() {
+    return this.labelName;
+  }
+
+  public @Nullable String getLabelValue() {
+    return this.labelValue;
+  }
+
+  // Prometheus TYPE
+  abstract @NotNull String type();
+}
@@ -0,0 +1,133 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Every metric the plugin keeps, each one also registered as an MBean under
+// <domain>:type=<counter|gauge|summary>,name=<name>[,<label>=<value>].
+// Sorted by name so metrics with the same name (but different labels) come out together
+public final class MetricsRegistry {
+
+  private static final double NANOS_TO_SECONDS = 1e-9;
+
+  private final String domain;
+  private final Logger logger;
+  private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+  private final Map<String, Metric> metrics = new ConcurrentSkipListMap<>();
+
+  public MetricsRegistry(final @NotNull String domain, final @NotNull Logger logger) {
+    this.domain = domain;
+    this.logger = logger;
+  }
+
+  public @NotNull Counter counter(final @NotNull String name, final @NotNull String help) {
+    return counter(name, help, null, null);
+  }
+
+  public @NotNull Counter counter(final @NotNull String name, final @NotNull String help,
+                                  final @Nullable String labelName, final @Nullable String labelValue) {
+    return register(name, labelName, labelValue, Counter.class, CounterMBean.class,
+                    key -> new Counter(name, help, labelName, labelValue));
+  }
+
+  public @NotNull Gauge gauge(final @NotNull String name, final @NotNull String help,
+                              final @NotNull LongSupplier supplier) {
+    return register(name, null, null, Gauge.class, GaugeMBean.class,
+                    key -> new Gauge(name, help, null, null, supplier));
+  }
+
+  // Recorded in nanoseconds, exported in seconds
+  public @NotNull Histogram latency(final @NotNull String name, final @NotNull String help) {
+    return latency(name, help, null, null);
+  }
+
+  public @NotNull Histogram latency(final @NotNull String name, final @NotNull String help,
+                                    final @Nullable String labelName, final @Nullable String labelValue) {
+    return register(name, labelName, labelValue, Histogram.class, HistogramMBean.class,
+                    key -> new Histogram(name, help, labelName, labelValue, NANOS_TO_SECONDS));
+  }
+
+  public @NotNull Collection<Metric> getMetrics() {
+    return this.metrics.values();
+  }
+
+  public void shutdown() {
+    for (final Metric metric : this.metrics.values()) {
+      try {
+        this.server.unregisterMBean(objectName(metric));
+      } catch (final JMException exception) {
+        // Never got registered
+      }
+    }
+    this.metrics.clear();
+  }
+
+  private <M extends Metric, I> M register(final String name, final String labelName, final String labelValue,
+                                           final Class<M> type, final Class<I> mbeanInterface,
+                                           final Function<String, M> factory) {
+    // A space sorts before anything a metric name can have, "a{x}" never ends up between "a" and "a_b"
+    final String key = labelName == null ? name : name + ' ' + labelName + '=' + labelValue;
+    final Metric metric = this.metrics.computeIfAbsent(key, k -> {
+      final M created = factory.apply(k);
+      try {
+        this.server.registerMBean(new StandardMBean(mbeanInterface.cast(created), mbeanInterface),
+                                  objectName(created));
+      } catch (final JMException exception) {
+        this.logger.log(Level.WARNING, "Could not register MBean for " + k, exception);
+      }
+      return created;
+    });
+
+    if (!type.isInstance(metric)) {
+      throw new IllegalArgumentException(key + " is already registered as a " + metric.type());
+    }
+    return type.cast(metric);
+  }
+
+  private ObjectName objectName(final Metric metric) throws JMException {
+    final StringBuilder name = new StringBuilder(this.domain)
+        .append(":type=").append(metric.type())
+        .append(",name=").append(metric.getName());
+    if (metric.getLabelName() != null) {
+      name.append(',').append(metric.getLabelName()).append('=').append(ObjectName.quote(metric.getLabelValue()));
+    }
+    return new ObjectName(name.toString());
+  }
+}
@@ -0,0 +1,63 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+final class NoFlightEvents implements FlightEvents, FlightEvents.Span {
+
+  static final NoFlightEvents INSTANCE = new NoFlightEvents();
+
+  private NoFlightEvents() {
+  }
+
+  @Override
+  public @NotNull Span resetPhase(final @NotNull String worldName, final @NotNull String phase) {
+    return this;
+  }
+
+  @Override
+  public @NotNull Span audit(final @NotNull String worldName) {
+    return this;
+  }
+
+  @Override
+  public @NotNull Span broadcast(final @NotNull String worldName, final @NotNull String target, final long secondsLeft) {
+    return this;
+  }
+
+  @Override
+  public @NotNull Span save(final @NotNull String operation) {
+    return this;
+  }
+
+  @Override
+  public void shutdown() {
+  }
+
+  @Override
+  public void finish() {
+  }
+}
@@ -0,0 +1,161 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.metrics;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+// Periodically dumps the registry in the Prometheus text format (the same one node_exporter's
+// textfile collector reads). Written to a temporary file and moved over the old one, so a
+// scrape never sees half a file
+public final class PrometheusExporter {
+
+  private static final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+
+  private final MetricsRegistry registry;
+  private final Path file;
+  private final Logger logger;
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                                                     .setDaemon(true)
+                                                     .setNameFormat("worldreset-metrics-thread-%d")
+                                                     .build());
+
+  public PrometheusExporter(final @NotNull MetricsRegistry registry, final @NotNull Path file,
+                            final @NotNull Logger logger) {
+    this.registry = registry;
+    this.file = file;
+    this.logger = logger;
+  }
+
+  public void start(final long period, final @NotNull TimeUnit unit) {
+    this.scheduler.scheduleWithFixedDelay(this::export, period, period, unit);
+  }
+
+  // Writes one last time so the file doesn't go stale until the next start
+  public void shutdown() {
+    this.scheduler.shutdownNow();
+    export();
+  }
+
+  public void export() {
+    final StringBuilder builder = new StringBuilder(4096);
+    String lastName = null;
+    for (final Metric metric : this.registry.getMetrics()) {
+      if (!metric.getName().equals(lastName)) {
+        lastName = metric.getName();
+        builder.append("# HELP ").append(metric.getName()).append(' ').append(metric.getHelp()).append('\n');
+        builder.append("# TYPE ").append(metric.getName()).append(' ').append(metric.type()).append('\n');
+      }
+      write(builder, metric);
+    }
+
+    final Path temporary = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+    try {
+      try (final Writer writer = Files.newBufferedWriter(temporary, UTF_8)) {
+        writer.append(builder);
+      }
+      try {
+        Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (final AtomicMoveNotSupportedException exception) {
+        Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (final IOException exception) {
+      this.logger.log(Level.WARNING, "Could not write metrics to " + this.file, exception);
+    }
+  }
+
+  private static void write(final StringBuilder builder, final Metric metric) {
+    if (metric instanceof Counter) {
+      sample(builder, metric.getName(), metric, null, ((Counter) metric).getCount());
+    } else if (metric instanceof Gauge) {
+      sample(builder, metric.getName(), metric, null, ((Gauge) metric).getValue());
+    } else if (metric instanceof Histogram) {
+      final Histogram histogram = (Histogram) metric;
+      final double scale = histogram.getScale();
+      for (final double quantile : QUANTILES) {
+        sample(builder, metric.getName(), metric, quantile, histogram.quantile(quantile) * scale);
+      }
+      sample(builder, metric.getName() + "_sum", metric, null, histogram.getSum() * scale);
+      sample(builder, metric.getName() + "_count", metric, null, histogram.getCount());
+    }
+  }
+
+  private static void sample(final StringBuilder builder, final String name, final Metric metric,
+                             final Double quantile, final double value) {
+    builder.append(name);
+    if (metric.getLabelName() != null || quantile != null) {
+      builder.append('{');
+      if (metric.getLabelName() != null) {
+        builder.append(metric.getLabelName()).append("=\"");
+        escape(builder, metric.getLabelValue());
+        builder.append('"');
+        if (quantile != null) {
+          builder.append(',');
+        }
+      }
+      if (quantile != null) {
+        builder.append("quantile=\"").append(quantile).append('"');
+      }
+      builder.append('}');
+    }
+
+    builder.append(' ');
+    if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      builder.append((long) value);
+    } else {
+      builder.append(String.format(Locale.ROOT, "%.9g", value));
+    }
+    builder.append('\n');
+  }
+
+  private static void escape(final StringBuilder builder, final String value) {
+    for (int i = 0; i < value.length(); ++i) {
+      final char character = value.charAt(i);
+      if (character == '\\' || character == '"') {
+        builder.append('\\').append(character);
+      } else if (character == '\n') {
+        builder.append("\\n");
+      } else {
+        builder.append(character);
+      }
+    }
+  }
+}
@@ -0,0 +1,317 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Locale;
+
+// Hand-written parser and formatter for durations like "3mo5ws2days4.045secs".
+// Grammar (case insensitive, same as the old regex): every unit at most once, in decreasing order,
+// each one a number (digits with an optional fraction) followed by one of the unit's suffixes.
+// The last number may go without a suffix, in which case it's seconds.
+public final class DurationCodec {
+
+  public static final int YEARS = 0;
+  public static final int MONTHS = 1;
+  public static final int WEEKS = 2;
+  public static final int DAYS = 3;
+  public static final int HOURS = 4;
+  public static final int MINUTES = 5;
+  public static final int SECONDS = 6;
+  public static final int UNITS = 7;
+
+  // Returned by parseSeconds when the input doesn't match the grammar
+  public static final long INVALID = Long.MIN_VALUE;
+
+  // Same lengths ChronoUnit uses: a year is 365.2425 days and a month a twelfth of it
+  private static final long[] UNIT_SECONDS = { 31556952L, 2629746L, 604800L, 86400L, 3600L, 60L, 1L };
+  private static final String[] SHORT_SUFFIXES = { "y", "mo", "w", "d", "h", "m", "s" };
+  // Longest first, so the first one that matches is the one the regex would've picked
+  private static final String[][] SUFFIXES = {
+      { "years", "year", "ys", "y" },
+      { "months", "month", "mos", "mo" },
+      { "weeks", "week", "ws", "w" },
+      { "days", "day", "ds", "d" },
+      { "hours", "hour", "hrs", "hr", "hs", "h" },
+      { "minutes", "minute", "mins", "min", "ms", "m" },
+      { "seconds", "second", "secs", "sec", "ss", "s" }
+  };
+  // A fraction is read into the double Double#parseDouble would give without going through a string as long as
+  // its digits (as a whole number) fit in a double's mantissa and the power of ten is an exact double too
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+  private static final int MAX_FRACTION_DIGITS = 22;
+  private static final double[] POWERS_OF_TEN = new double[MAX_FRACTION_DIGITS + 1];
+  private static final double LONG_LIMIT = 0x1p63;
+
+  private static final String[][] ENGLISH = {
+      { "year", "years" }, { "month", "months" }, { "week", "weeks" }, { "day", "days" },
+      { "hour", "hours" }, { "minute", "minutes" }, { "second", "seconds" }
+  };
+  private static final String[][] SPANISH = {
+      { "año", "años" }, { "mes", "meses" }, { "semana", "semanas" }, { "día", "días" },
+      { "hora", "horas" }, { "minuto", "minutos" }, { "segundo", "segundos" }
+  };
+
+  private static final ThreadLocal<StringBuilder> BUILDER = ThreadLocal.withInitial(() -> new StringBuilder(64));
+
+  static {
+    POWERS_OF_TEN[0] = 1.0;
+    for (int i = 1; i < POWERS_OF_TEN.length; ++i) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+    }
+  }
+
+  public static long unitSeconds(final int unit) {
+    return UNIT_SECONDS[unit];
+  }
+
+  public static @NotNull String shortSuffix(final int unit) {
+    return SHORT_SUFFIXES[unit];
+  }
+
+  public static long parseSeconds(final @NotNull CharSequence input) {
+    return parseSeconds(input, 0, input.length());
+  }
+
+  // Whole amounts are exact. Fractional ones go through the same double math the regex parser used
+  // (Math.round of the amount times the unit's seconds), so they round exactly like they always did:
+  // 8.325mins is 499.49999999999994 seconds as a double, 499 and not 500
+  public static long parseSeconds(final @NotNull CharSequence input, final int start, final int end) {
+    if (start >= end) {
+      return INVALID;
+    }
+
+    long total = 0L;
+    int nextUnit = YEARS;
+    int index = start;
+    while (index < end) {
+      // Whole part
+      long whole = 0L;
+      final int wholeStart = index;
+      while (index < end && isDigit(input.charAt(index))) {
+        if (whole > (Long.MAX_VALUE - 9L) / 10L) {
+          return INVALID;
+        }
+        whole = whole * 10L + (input.charAt(index++) - '0');
+      }
+      if (index == wholeStart) {
+        return INVALID;
+      }
+
+      // Fraction, if any, as mantissa / 10^fractionDigits while that's still exact
+      boolean fractional = false;
+      boolean exact = whole < MAX_EXACT_MANTISSA;
+      long mantissa = whole;
+      int fractionDigits = 0;
+      if (index < end && input.charAt(index) == '.') {
+        fractional = true;
+        final int fractionStart = ++index;
+        while (index < end && isDigit(input.charAt(index))) {
+          if (exact && mantissa < (MAX_EXACT_MANTISSA - 9L) / 10L && fractionDigits < MAX_FRACTION_DIGITS) {
+            mantissa = mantissa * 10L + (input.charAt(index) - '0');
+            ++fractionDigits;
+          } else {
+            exact = false;
+          }
+          ++index;
+        }
+        if (index == fractionStart) {
+          return INVALID;
+        }
+      }
+      final int numberEnd = index;
+
+      final int unit;
+      if (index == end) {
+        // Bare number, only allowed as seconds
+        unit = SECONDS;
+      } else {
+        final int match = matchSuffix(input, index, end, nextUnit);
+        if (match < 0) {
+          return INVALID;
+        }
+        unit = match >>> 16;
+        index += match & 0xFFFF;
+      }
+      if (unit < nextUnit) {
+        return INVALID;
+      }
+      nextUnit = unit + 1;
+
+      final long unitSeconds = UNIT_SECONDS[unit];
+      try {
+        final long seconds;
+        if (!fractional) {
+          seconds = Math.multiplyExact(whole, unitSeconds);
+        } else {
+          // Both operands exact, so the division is rounded once, like parsing the decimal string would
+          final double amount = exact
+                                ? mantissa / POWERS_OF_TEN[fractionDigits]
+                                : Double.parseDouble(input.subSequence(wholeStart, numberEnd).toString());
+          final double product = amount * unitSeconds;
+          if (product >= LONG_LIMIT) {
+            return INVALID;
+          }
+          seconds = Math.round(product);
+        }
+        total = Math.addExact(total, seconds);
+      } catch (final ArithmeticException exception) {
+        return INVALID;
+      }
+
+      // Something after a unit has to be the next number
+      if (index < end && !isDigit(input.charAt(index))) {
+        return INVALID;
+      }
+    }
+
+    return total;
+  }
+
+  // Index of the first unit that may come next if input is a valid prefix ending in a number
+  // without suffix ("123ws4" -> DAYS), -1 otherwise
+  public static int nextUnitAfterTrailingNumber(final @NotNull CharSequence input) {
+    final int end = input.length();
+    int index = 0;
+    int nextUnit = YEARS;
+    while (index < end) {
+      final int numberStart = index;
+      while (index < end && isDigit(input.charAt(index))) {
+        ++index;
+      }
+      if (index == numberStart) {
+        return -1;
+      }
+      if (index < end && input.charAt(index) == '.') {
+        final int fractionStart = ++index;
+        while (index < end && isDigit(input.charAt(index))) {
+          ++index;
+        }
+        if (index == fractionStart) {
+          return -1;
+        }
+      }
+
+      if (index == end) {
+        return nextUnit <= SECONDS ? nextUnit : -1;
+      }
+
+      final int match = matchSuffix(input, index, end, nextUnit);
+      if (match < 0) {
+        return -1;
+      }
+      index += match & 0xFFFF;
+      nextUnit = (match >>> 16) + 1;
+    }
+    return -1;
+  }
+
+  public static @NotNull String formatShort(final @NotNull Duration duration) {
+    final StringBuilder builder = BUILDER.get();
+    builder.setLength(0);
+    return appendShort(builder, duration).toString();
+  }
+
+  public static @NotNull String formatLong(final @NotNull Duration duration, final @NotNull Locale locale) {
+    final StringBuilder builder = BUILDER.get();
+    builder.setLength(0);
+    return appendLong(builder, duration, locale).toString();
+  }
+
+  // "1y2mo3d"
+  public static @NotNull StringBuilder appendShort(final @NotNull StringBuilder builder,
+                                                   final @NotNull Duration duration) {
+    long remaining = duration.getSeconds();
+    for (int unit = YEARS; unit < UNITS; ++unit) {
+      final long amount = remaining / UNIT_SECONDS[unit];
+      remaining %= UNIT_SECONDS[unit];
+      if (amount != 0L) {
+        builder.append(amount).append(SHORT_SUFFIXES[unit]);
+      }
+    }
+    return builder;
+  }
+
+  // "1 year, 2 months, 3 days"
+  public static @NotNull StringBuilder appendLong(final @NotNull StringBuilder builder,
+                                                  final @NotNull Duration duration,
+                                                  final @NotNull Locale locale) {
+    final String[][] names = names(locale);
+    final int start = builder.length();
+    long remaining = duration.getSeconds();
+    for (int unit = YEARS; unit < UNITS; ++unit) {
+      final long amount = remaining / UNIT_SECONDS[unit];
+      remaining %= UNIT_SECONDS[unit];
+      if (amount == 0L) {
+        continue;
+      }
+
+      if (builder.length() != start) {
+        builder.append(", ");
+      }
+      builder.append(amount).append(' ').append(names[unit][amount > 1L ? 1 : 0]);
+    }
+    return builder;
+  }
+
+  private static String[][] names(final Locale locale) {
+    return "es".equals(locale.getLanguage()) ? SPANISH : ENGLISH;
+  }
+
+  // Unit in the upper half, suffix length in the lower half; -1 if nothing matches
+  private static int matchSuffix(final CharSequence input, final int index, final int end, final int fromUnit) {
+    for (int unit = fromUnit; unit < UNITS; ++unit) {
+      for (final String suffix : SUFFIXES[unit]) {
+        if (regionMatches(input, index, end, suffix)) {
+          return unit << 16 | suffix.length();
+        }
+      }
+    }
+    return -1;
+  }
+
+  private static boolean regionMatches(final CharSequence input, final int index, final int end, final String suffix) {
+    final int length = suffix.length();
+    if (end - index < length) {
+      return false;
+    }
+    for (int i = 0; i < length; ++i) {
+      if (Character.toLowerCase(input.charAt(index + i)) != suffix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isDigit(final char character) {
+    return character >= '0' && character <= '9';
+  }
+
+  private DurationCodec() {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -0,0 +1,82 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Runs tasks on the server thread. Whatever piles up between two ticks runs in a single
+// scheduler task instead of one task per submission; tasks submitted from the server thread
+// itself run right away
+public final class MainThreadExecutor implements Executor {
+
+  private final Plugin plugin;
+  private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean hopScheduled = new AtomicBoolean(false);
+
+  public MainThreadExecutor(final @NotNull Plugin plugin) {
+    this.plugin = plugin;
+  }
+
+  @Override
+  public void execute(final @NotNull Runnable task) {
+    if (Bukkit.isPrimaryThread()) {
+      task.run();
+      return;
+    }
+
+    this.pending.add(task);
+    if (this.hopScheduled.compareAndSet(false, true)) {
+      try {
+        Bukkit.getScheduler().runTask(this.plugin, this::drain);
+      } catch (final RuntimeException exception) {
+        // Plugin got disabled, nothing is going to run these
+        this.hopScheduled.set(false);
+        this.pending.clear();
+        throw exception;
+      }
+    }
+  }
+
+  private void drain() {
+    // Cleared first, anything submitted from now on either gets picked up below or schedules another hop
+    this.hopScheduled.set(false);
+
+    Runnable task;
+    while ((task = this.pending.poll()) != null) {
+      try {
+        task.run();
+      } catch (final RuntimeException exception) {
+        exception.printStackTrace();
+      }
+    }
+  }
+}
@@ -24,17 +24,17 @@
 
 package com.github.fefo.worldreset.util;
 
-import com.github.fefo.worldreset.commands.DurationArgumentType;
-import com.mojang.brigadier.StringReader;
-import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.apache.commons.lang.Validate;
 import org.jetbrains.annotations.NotNull;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
-import java.util.StringJoiner;
+import java.util.Locale;
 import java.util.function.Function;
 import java.util.regex.MatchResult;
 import java.util.regex.Matcher;
@@ -45,11 +45,12 @@ public final class Utils {
   public static final Pattern TIME_LEFT_PATTERN = Pattern.compile("\\{time-left}");
   public static final Pattern TIME_LEFT_LONG_PATTERN = Pattern.compile("\\{time-left-long}");
   public static final Pattern WORLD_NAME_PATTERN = Pattern.compile("\\{world}");
-  private static final DurationArgumentType DURATION_PARSER = DurationArgumentType.duration();
   private static final LegacyComponentSerializer LEGACY_AMPERSAND =
       LegacyComponentSerializer.legacyAmpersand();
   private static final LegacyComponentSerializer LEGACY_SECTION =
       LegacyComponentSerializer.legacySection();
+  private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+      DateTimeFormatter.ISO_LOCAL_DATE_TIME.withZone(ZoneId.systemDefault());
 
   public static @NotNull String toLegacy(final @NotNull Component component) {
     return LEGACY_SECTION.serialize(component);
@@ -76,105 +77,36 @@ public final class Utils {
   }
 
   public static @NotNull Duration parseDuration(final @NotNull String input) {
-    try {
-      return DURATION_PARSER.parse(new StringReader(input));
-    } catch (final CommandSyntaxException exception) {
-      return Duration.ZERO;
-    }
+    final long seconds = DurationCodec.parseSeconds(input);
+    return seconds == DurationCodec.INVALID ? Duration.ZERO : Duration.ofSeconds(seconds);
   }
 
   public static @NotNull String shortDuration(final @NotNull Duration duration) {
     Validate.notNull(duration);
-
-    final StringJoiner joiner = new StringJoiner("");
-
-    long years = duration.getSeconds();
-    long months = years % seconds(ChronoUnit.YEARS);
-    long weeks = months % seconds(ChronoUnit.MONTHS);
-    long days = weeks % seconds(ChronoUnit.WEEKS);
-    long hours = days % seconds(ChronoUnit.DAYS);
-    long minutes = hours % seconds(ChronoUnit.HOURS);
-    final long seconds = minutes % seconds(ChronoUnit.MINUTES);
-
-    years /= seconds(ChronoUnit.YEARS);
-    months /= seconds(ChronoUnit.MONTHS);
-    weeks /= seconds(ChronoUnit.WEEKS);
-    days /= seconds(ChronoUnit.DAYS);
-    hours /= seconds(ChronoUnit.HOURS);
-    minutes /= seconds(ChronoUnit.MINUTES);
-
-    if (years != 0) {
-      joiner.add(years + "y");
-    }
-    if (months != 0) {
-      joiner.add(months + "mo");
-    }
-    if (weeks != 0) {
-      joiner.add(weeks + "w");
-    }
-    if (days != 0) {
-      joiner.add(days + "d");
-    }
-    if (hours != 0) {
-      joiner.add(hours + "h");
-    }
-    if (minutes != 0) {
-      joiner.add(minutes + "m");
-    }
-    if (seconds != 0) {
-      joiner.add(seconds + "s");
-    }
-
-    return joiner.toString();
+    return DurationCodec.formatShort(duration);
   }
 
   public static @NotNull String longDuration(final @NotNull Duration duration) {
+    return longDuration(duration, Locale.ENGLISH);
+  }
+
+  public static @NotNull String longDuration(final @NotNull Duration duration, final @NotNull Locale locale) {
     Validate.notNull(duration);
+    Validate.notNull(locale);
+    return DurationCodec.formatLong(duration, locale);
+  }
 
-    final StringJoiner joiner = new StringJoiner(", ");
-
-    long years = duration.getSeconds();
-    long months = years % seconds(ChronoUnit.YEARS);
-    long weeks = months % seconds(ChronoUnit.MONTHS);
-    long days = weeks % seconds(ChronoUnit.WEEKS);
-    long hours = days % seconds(ChronoUnit.DAYS);
-    long minutes = hours % seconds(ChronoUnit.HOURS);
-    final long seconds = minutes % seconds(ChronoUnit.MINUTES);
-
-    years /= seconds(ChronoUnit.YEARS);
-    months /= seconds(ChronoUnit.MONTHS);
-    weeks /= seconds(ChronoUnit.WEEKS);
-    days /= seconds(ChronoUnit.DAYS);
-    hours /= seconds(ChronoUnit.HOURS);
-    minutes /= seconds(ChronoUnit.MINUTES);
-
-    if (years != 0) {
-      joiner.add(years + " year" + (years > 1 ? "s" : ""));
-    }
-    if (months != 0) {
-      joiner.add(months + " month" + (months > 1 ? "s" : ""));
-    }
-    if (weeks != 0) {
-      joiner.add(weeks + " week" + (weeks > 1 ? "s" : ""));
-    }
-    if (days != 0) {
-      joiner.add(days + " day" + (days > 1 ? "s" : ""));
-    }
-    if (hours != 0) {
-      joiner.add(hours + " hour" + (hours > 1 ? "s" : ""));
-    }
-    if (minutes != 0) {
-      joiner.add(minutes + " minute" + (minutes > 1 ? "s" : ""));
-    }
-    if (seconds != 0) {
-      joiner.add(seconds + " second" + (seconds > 1 ? "s" : ""));
+  public static @NotNull String bytes(final long bytes) {
+    if (bytes < 1024L) {
+      return bytes + " B";
     }
 
-    return joiner.toString();
+    final int exponent = (63 - Long.numberOfLeadingZeros(bytes)) / 10;
+    return String.format(Locale.ROOT, "%.1f %ciB", bytes / (double) (1L << (exponent * 10)), "KMGTPE".charAt(exponent - 1));
   }
 
-  private static long seconds(final ChronoUnit chronoUnit) {
-    return chronoUnit.getDuration().getSeconds();
+  public static @NotNull String timestamp(final @NotNull Instant instant) {
+    return TIMESTAMP_FORMATTER.format(instant.truncatedTo(ChronoUnit.SECONDS));
   }
 
   private Utils() {
@@ -0,0 +1,184 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work;
+
+import com.github.fefo.worldreset.config.CountdownDisplay;
+import com.github.fefo.worldreset.config.ResetProfile;
+import com.github.fefo.worldreset.config.ResetProfiles;
+import com.github.fefo.worldreset.config.YamlConfigAdapter;
+import com.github.fefo.worldreset.messages.AudienceIndex;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Single once-a-second task driving every live countdown (boss bar or action bar).
+// Each world's countdown is rendered once per tick no matter how many players see it,
+// and its viewer sets are reused between ticks. Runs on the main thread only
+public final class CountdownTicker implements Runnable {
+
+  private static final long PERIOD_TICKS = 20L;
+
+  private final Plugin plugin;
+  private final WorldsDataHandler worldsDataHandler;
+  private final YamlConfigAdapter configAdapter;
+  private final AudienceIndex audienceIndex;
+  private final Map<String, Countdown> countdowns = new HashMap<>();
+  private BukkitTask task;
+  private long tick = 0L;
+
+  public CountdownTicker(final Plugin plugin, final WorldsDataHandler worldsDataHandler,
+                         final YamlConfigAdapter configAdapter, final AudienceIndex audienceIndex) {
+    this.plugin = plugin;
+    this.worldsDataHandler = worldsDataHandler;
+    this.configAdapter = configAdapter;
+    this.audienceIndex = audienceIndex;
+  }
+
+  public void start() {
+    if (this.task == null) {
+      this.task = Bukkit.getScheduler().runTaskTimer(this.plugin, this, PERIOD_TICKS, PERIOD_TICKS);
+    }
+  }
+
+  public void stop() {
+    if (this.task != null) {
+      this.task.cancel();
+      this.task = null;
+    }
+
+    this.countdowns.values().forEach(Countdown::hide);
+    this.countdowns.clear();
+  }
+
+  @Override
+  public void run() {
+    final long tick = ++this.tick;
+    final Instant now = Instant.now();
+    final ResetProfiles profiles = this.configAdapter.config().getProfiles();
+
+    for (final ScheduledReset reset : this.worldsDataHandler.getScheduledResets()) {
+      final ResetProfile profile = profiles.forWorld(reset.getWorldName());
+      final CountdownDisplay display = profile.getCountdownDisplay();
+      final Duration timeLeft = Duration.between(now, reset.getEffectiveReset());
+      if (display == CountdownDisplay.NONE || timeLeft.isNegative()
+          || timeLeft.compareTo(profile.getCountdownFrom()) > 0) {
+        continue;
+      }
+
+      final String key = reset.getWorldName().toLowerCase(Locale.ROOT);
+      Countdown countdown = this.countdowns.get(key);
+      if (countdown == null || countdown.display != display) {
+        if (countdown != null) {
+          countdown.hide();
+        }
+        countdown = new Countdown(display);
+        this.countdowns.put(key, countdown);
+      }
+
+      countdown.update(tick, profile, reset.getWorldName(), timeLeft);
+    }
+
+    // Whatever wasn't touched this tick either reset, got unscheduled or had its countdown turned off
+    final Iterator<Countdown> iterator = this.countdowns.values().iterator();
+    while (iterator.hasNext()) {
+      final Countdown countdown = iterator.next();
+      if (countdown.tick != tick) {
+        countdown.hide();
+        iterator.remove();
+      }
+    }
+  }
+
+  private final class Countdown {
+
+    private final CountdownDisplay display;
+    private final BossBar bossBar;
+    private Set<Audience> viewers = new HashSet<>();
+    private Set<Audience> nextViewers = new HashSet<>();
+    private long tick;
+
+    private Countdown(final CountdownDisplay display) {
+      this.display = display;
+      this.bossBar = display == CountdownDisplay.BOSS_BAR
+                     ? BossBar.bossBar(Component.empty(), BossBar.MAX_PROGRESS, BossBar.Color.RED, BossBar.Overlay.PROGRESS)
+                     : null;
+    }
+
+    private void update(final long tick, final ResetProfile profile, final String worldName, final Duration timeLeft) {
+      this.tick = tick;
+      final Component text = profile.getBroadcastTemplate().render(worldName, Duration.ofSeconds(timeLeft.getSeconds()));
+      CountdownTicker.this.audienceIndex.collect(profile.getBroadcastTarget(), worldName,
+                                                 profile.getVisitorWindow(), this.nextViewers);
+
+      if (this.bossBar == null) {
+        for (final Audience viewer : this.nextViewers) {
+          viewer.sendActionBar(text);
+        }
+      } else {
+        final float progress = (float) timeLeft.toMillis() / profile.getCountdownFrom().toMillis();
+        this.bossBar.name(text);
+        this.bossBar.progress(Math.max(BossBar.MIN_PROGRESS, Math.min(BossBar.MAX_PROGRESS, progress)));
+
+        for (final Audience viewer : this.nextViewers) {
+          if (!this.viewers.contains(viewer)) {
+            viewer.showBossBar(this.bossBar);
+          }
+        }
+        for (final Audience viewer : this.viewers) {
+          if (!this.nextViewers.contains(viewer)) {
+            viewer.hideBossBar(this.bossBar);
+          }
+        }
+      }
+
+      // Swap instead of allocating new sets every second
+      final Set<Audience> previous = this.viewers;
+      this.viewers = this.nextViewers;
+      this.nextViewers = previous;
+      this.nextViewers.clear();
+    }
+
+    private void hide() {
+      if (this.bossBar != null) {
+        for (final Audience viewer : this.viewers) {
+          viewer.hideBossBar(this.bossBar);
+        }
+      }
+      this.viewers.clear();
+    }
+  }
+}
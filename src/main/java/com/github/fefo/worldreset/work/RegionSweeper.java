@@ -0,0 +1,479 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work;
+
+import com.github.fefo.worldreset.config.Dimension;
+import com.github.fefo.worldreset.config.RegionStorage;
+import com.github.fefo.worldreset.config.ResetProfile;
+import com.github.fefo.worldreset.metrics.FlightEvents;
+import com.github.fefo.worldreset.work.history.ResetRecord;
+import com.github.fefo.worldreset.work.plan.StagedPlan;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Deletes the region files of a world folder that its profile says should go, from the region, entities and poi
+// folders of the dimensions it selects. Those folders are listed directly, nothing else in the world folder is looked at.
+// Each storage type is listed and deleted in a task of its own, at the same time; the calling thread runs one of them
+// and waits for the rest, so the executor shouldn't be limited to the callers' own threads.
+// Doesn't touch the server at all, the world is expected to be unloaded (or not loaded yet)
+public final class RegionSweeper {
+
+  private final Logger logger;
+  private final FlightEvents flightEvents;
+  private final Executor executor;
+
+  public RegionSweeper(final @NotNull Logger logger, final @NotNull FlightEvents flightEvents,
+                       final @NotNull Executor executor) {
+    this.logger = logger;
+    this.flightEvents = flightEvents;
+    this.executor = executor;
+  }
+
+  public @NotNull ResetRecord sweep(final @NotNull String worldName, final @NotNull Path folder,
+                                   final @NotNull ResetProfile profile) {
+    return execute(plan(worldName, folder, profile));
+  }
+
+  // Finds the files to delete (scan + classify) without deleting anything yet
+  public @NotNull Plan plan(final @NotNull String worldName, final @NotNull Path folder,
+                            final @NotNull ResetProfile profile) {
+    return plan(worldName, folder, profile, null);
+  }
+
+  // Same files plan() would find (without max-files-per-reset), along with each folder's mtime.
+  // Meant to run ahead of the reset, while the world is still loaded
+  public @NotNull StagedPlan stage(final @NotNull String worldName, final @NotNull Path folder,
+                                   final @NotNull ResetProfile profile, final @NotNull Instant stagedFor) throws IOException {
+    final FlightEvents.Span span = this.flightEvents.resetPhase(worldName, "stage");
+    final List<List<StagedPlan.Directory>> staged = concurrently(storageFolders(folder, profile), directories -> {
+      final List<StagedPlan.Directory> stagedDirectories = new ArrayList<>(directories.size());
+      for (final Path directory : directories) {
+        final StagedPlan.Directory stagedDirectory = stage(folder, directory, profile);
+        if (stagedDirectory != null) {
+          stagedDirectories.add(stagedDirectory);
+        }
+      }
+      return stagedDirectories;
+    });
+
+    final List<StagedPlan.Directory> directories = new ArrayList<>();
+    int count = 0;
+    for (final List<StagedPlan.Directory> storage : staged) {
+      for (final StagedPlan.Directory directory : storage) {
+        directories.add(directory);
+        count += directory.size();
+      }
+    }
+    span.count(count).finish();
+    return new StagedPlan(stagedFor, profile.getSelectionHash(), directories);
+  }
+
+  // Same as plan(), but only re-checks what was staged: folders whose mtime changed are listed again,
+  // the staged files of every other folder are taken as they are. Files are picked by name only,
+  // so one the server kept writing to after staging (different size and mtime) still goes
+  public @NotNull Plan plan(final @NotNull String worldName, final @NotNull Path folder,
+                            final @NotNull ResetProfile profile, final @Nullable StagedPlan staged) {
+    final ResetRecord.Builder record = ResetRecord.builder(worldName);
+    final int maxDeletesPerSecond = profile.getMaxDeletesPerSecond();
+    if (Files.notExists(folder) || !Files.isDirectory(folder)) {
+      return new Plan(worldName, Collections.emptyList(), maxDeletesPerSecond, record);
+    }
+
+    final Map<String, StagedPlan.Directory> stagedDirectories = new HashMap<>();
+    if (staged != null) {
+      for (final StagedPlan.Directory directory : staged.getDirectories()) {
+        stagedDirectories.put(directory.getPath(), directory);
+      }
+    }
+
+    long start = System.nanoTime();
+    FlightEvents.Span span = this.flightEvents.resetPhase(worldName, "scan");
+    final List<Listing> listings;
+    try {
+      listings = concurrently(storageFolders(folder, profile), directories -> {
+        final Listing listing = new Listing();
+        for (final Path directory : directories) {
+          list(folder, directory, stagedDirectories, listing);
+        }
+        return listing;
+      });
+    } catch (final IOException | UncheckedIOException exception) {
+      span.finish();
+      if (staged != null) {
+        this.logger.log(Level.WARNING, "Could not re-check the staged plan for " + worldName + ", planning it again", exception);
+        return plan(worldName, folder, profile, null);
+      }
+      this.logger.log(Level.WARNING, "Could not scan " + folder, exception);
+      record.scanNanos(System.nanoTime() - start).error(exception);
+      return new Plan(worldName, Collections.emptyList(), maxDeletesPerSecond, record);
+    }
+    int scanned = 0;
+    for (final Listing listing : listings) {
+      scanned += listing.kept.size() + listing.listed.size();
+    }
+    span.count(scanned).finish();
+    record.scanNanos(System.nanoTime() - start);
+
+    // Only the listed files need classifying, staged ones already were
+    start = System.nanoTime();
+    span = this.flightEvents.resetPhase(worldName, "classify");
+    final List<List<Path>> files = new ArrayList<>(listings.size());
+    for (final Listing listing : listings) {
+      final List<Path> storageFiles = new ArrayList<>(listing.kept.size() + listing.listed.size());
+      storageFiles.addAll(listing.kept);
+      for (final Path file : listing.listed) {
+        if (profile.shouldDelete(file)) {
+          storageFiles.add(file);
+        }
+      }
+      files.add(storageFiles);
+    }
+    final List<List<Path>> regions = limit(files, profile.getMaxFilesPerReset());
+    final Plan plan = new Plan(worldName, regions, maxDeletesPerSecond, record);
+    span.count(plan.size()).finish();
+    record.classifyNanos(System.nanoTime() - start);
+    return plan;
+  }
+
+  public @NotNull ResetRecord execute(final @NotNull Plan plan) {
+    final ResetRecord.Builder record = plan.record;
+    final List<List<Path>> storages = new ArrayList<>(plan.files.size());
+    for (final List<Path> files : plan.files) {
+      if (!files.isEmpty()) {
+        storages.add(files);
+      }
+    }
+    // max-deletes-per-second is for the whole reset, each storage type gets its share
+    final long pauseNanos = plan.maxDeletesPerSecond > 0
+                            ? TimeUnit.SECONDS.toNanos(storages.size()) / plan.maxDeletesPerSecond
+                            : 0L;
+    final long start = System.nanoTime();
+    final FlightEvents.Span span = this.flightEvents.resetPhase(plan.worldName, "delete");
+    final List<Deletes> deletes;
+    try {
+      deletes = concurrently(storages, files -> delete(files, pauseNanos));
+    } catch (final IOException exception) {
+      // Deletes log and count their errors instead of throwing
+      throw new UncheckedIOException(exception);
+    }
+
+    int deleted = 0;
+    long freed = 0L;
+    for (final Deletes storage : deletes) {
+      for (int i = 0; i < storage.deleted.size(); ++i) {
+        plan.deleted.add(storage.deleted.get(i));
+        record.fileDeleted(storage.sizes[i]);
+        freed += storage.sizes[i];
+      }
+      deleted += storage.deleted.size();
+      for (final IOException error : storage.errors) {
+        record.error(error);
+      }
+    }
+    span.count(deleted).bytes(freed).finish();
+    record.deleteNanos(System.nanoTime() - start);
+
+    return record.build();
+  }
+
+  // For a plan that won't be executed after all: its scan and classify times, nothing deleted
+  public @NotNull ResetRecord skip(final @NotNull Plan plan) {
+    return plan.record.build();
+  }
+
+  // The folders of each selected storage type, one list per storage type
+  private static List<List<Path>> storageFolders(final Path folder, final ResetProfile profile) {
+    final List<List<Path>> folders = new ArrayList<>(profile.getStorage().size());
+    for (final RegionStorage storage : profile.getStorage()) {
+      final List<Path> storageFolders = new ArrayList<>(profile.getDimensions().size());
+      for (final Dimension dimension : profile.getDimensions()) {
+        final Path dimensionFolder = dimension.getFolder().isEmpty() ? folder : folder.resolve(dimension.getFolder());
+        storageFolders.add(dimensionFolder.resolve(storage.getName()));
+      }
+      folders.add(storageFolders);
+    }
+    return folders;
+  }
+
+  // Null if the folder doesn't exist. The mtime is read before listing, so anything added or removed
+  // while listing shows up as a changed folder later on
+  private static StagedPlan.Directory stage(final Path folder, final Path directory,
+                                            final ResetProfile profile) throws IOException {
+    final BasicFileAttributes attrs;
+    try {
+      attrs = Files.readAttributes(directory, BasicFileAttributes.class);
+    } catch (final NoSuchFileException exception) {
+      return null;
+    }
+    if (!attrs.isDirectory()) {
+      return null;
+    }
+
+    final List<String> names = new ArrayList<>();
+    try (final DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+      for (final Path entry : stream) {
+        if (profile.shouldDelete(entry)) {
+          names.add(entry.getFileName().toString());
+        }
+      }
+    }
+    return new StagedPlan.Directory(folder.relativize(directory).toString(), attrs.lastModifiedTime().toMillis(),
+                                    names.toArray(new String[0]));
+  }
+
+  // Staged files of an unchanged folder go to kept, everything in any other folder goes to listed
+  private static void list(final Path folder, final Path directory, final Map<String, StagedPlan.Directory> staged,
+                           final Listing into) throws IOException {
+    final BasicFileAttributes attrs;
+    try {
+      attrs = Files.readAttributes(directory, BasicFileAttributes.class);
+    } catch (final NoSuchFileException exception) {
+      return;
+    }
+    if (!attrs.isDirectory()) {
+      return;
+    }
+
+    final StagedPlan.Directory stagedDirectory = staged.get(folder.relativize(directory).toString());
+    if (stagedDirectory != null && attrs.lastModifiedTime().toMillis() == stagedDirectory.getModified()) {
+      for (int i = 0; i < stagedDirectory.size(); ++i) {
+        into.kept.add(directory.resolve(stagedDirectory.name(i)));
+      }
+      return;
+    }
+
+    try (final DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+      for (final Path entry : stream) {
+        into.listed.add(entry);
+      }
+    }
+  }
+
+  // max-files-per-reset counts regions, and a region takes its files from every storage type along:
+  // the first regions found (in any of them) are kept, with all of their files
+  private static List<List<Path>> limit(final List<List<Path>> files, final int maxRegions) {
+    if (maxRegions <= 0) {
+      return files;
+    }
+
+    final Set<String> regions = new LinkedHashSet<>();
+    outer:
+    for (final List<Path> storage : files) {
+      for (final Path file : storage) {
+        if (regions.size() == maxRegions) {
+          break outer;
+        }
+        regions.add(regionKey(file));
+      }
+    }
+
+    final List<List<Path>> limited = new ArrayList<>(files.size());
+    for (final List<Path> storage : files) {
+      final List<Path> kept = new ArrayList<>(Math.min(storage.size(), maxRegions));
+      for (final Path file : storage) {
+        if (regions.contains(regionKey(file))) {
+          kept.add(file);
+        }
+      }
+      limited.add(kept);
+    }
+    return limited;
+  }
+
+  // Dimension folder plus file name, the same for a region's region, entities and poi files
+  private static String regionKey(final Path file) {
+    return file.getParent().getParent().resolve(file.getFileName()).toString();
+  }
+
+  private Deletes delete(final List<Path> files, final long pauseNanos) {
+    final Deletes deletes = new Deletes(files.size());
+    for (int i = 0; i < files.size(); ++i) {
+      if (i > 0 && pauseNanos > 0L) {
+        // max-deletes-per-second, spread the deletes out instead of bursting
+        LockSupport.parkNanos(pauseNanos);
+      }
+
+      final Path file = files.get(i);
+      try {
+        final long size = Files.size(file);
+        Files.delete(file);
+        deletes.sizes[deletes.deleted.size()] = size;
+        deletes.deleted.add(file);
+      } catch (final IOException exception) {
+        this.logger.log(Level.WARNING, "Could not delete " + file, exception);
+        deletes.errors.add(exception);
+      }
+    }
+    return deletes;
+  }
+
+  // Runs the task for every input at the same time, the last one on the calling thread.
+  // Waits for all of them even if one fails; results come in the same order as the inputs
+  private <I, O> List<O> concurrently(final List<I> inputs, final Task<I, O> task) throws IOException {
+    final List<CompletableFuture<O>> futures = new ArrayList<>(inputs.size());
+    for (int i = 0; i < inputs.size() - 1; ++i) {
+      final I input = inputs.get(i);
+      futures.add(CompletableFuture.supplyAsync(() -> {
+        try {
+          return task.run(input);
+        } catch (final IOException exception) {
+          throw new UncheckedIOException(exception);
+        }
+      }, this.executor));
+    }
+
+    O last = null;
+    Throwable failure = null;
+    if (!inputs.isEmpty()) {
+      try {
+        last = task.run(inputs.get(inputs.size() - 1));
+      } catch (final IOException | RuntimeException exception) {
+        failure = exception;
+      }
+    }
+
+    final List<O> outputs = new ArrayList<>(inputs.size());
+    for (final CompletableFuture<O> future : futures) {
+      try {
+        outputs.add(future.join());
+      } catch (final CompletionException exception) {
+        if (failure == null) {
+          failure = exception.getCause();
+        }
+      }
+    }
+
+    if (failure instanceof UncheckedIOException) {
+      throw ((UncheckedIOException) failure).getCause();
+    }
+    if (failure instanceof IOException) {
+      throw (IOException) failure;
+    }
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    }
+    if (failure != null) {
+      throw new CompletionException(failure);
+    }
+    if (!inputs.isEmpty()) {
+      outputs.add(last);
+    }
+    return outputs;
+  }
+
+  @FunctionalInterface
+  private interface Task<I, O> {
+
+    O run(I input) throws IOException;
+  }
+
+  private static final class Listing {
+
+    private final List<Path> kept = new ArrayList<>();
+    private final List<Path> listed = new ArrayList<>();
+  }
+
+  private static final class Deletes {
+
+    private final List<Path> deleted;
+    private final long[] sizes;
+    private final List<IOException> errors = new ArrayList<>();
+
+    private Deletes(final int files) {
+      this.deleted = new ArrayList<>(files);
+      this.sizes = new long[files];
+    }
+  }
+
+  // Meant to be executed once, it carries the scan and classify times (and errors) into the record.
+  // Files are kept by storage type, so each one can be deleted on its own
+  public static final class Plan {
+
+    private final String worldName;
+    private final List<List<Path>> files;
+    private final int size;
+    private final int maxDeletesPerSecond;
+    private final ResetRecord.Builder record;
+    private final List<Path> deleted = new ArrayList<>();
+
+    private Plan(final String worldName, final List<List<Path>> files, final int maxDeletesPerSecond,
+                 final ResetRecord.Builder record) {
+      this.worldName = worldName;
+      this.files = files;
+      this.maxDeletesPerSecond = maxDeletesPerSecond;
+      this.record = record;
+      int size = 0;
+      for (final List<Path> storage : files) {
+        size += storage.size();
+      }
+      this.size = size;
+    }
+
+    public @NotNull String getWorldName() {
+      return this.worldName;
+    }
+
+    public int size() {
+      return this.size;
+    }
+
+    public @NotNull List<Path> getFiles() {
+      final List<Path> files = new ArrayList<>(this.size);
+      for (final List<Path> storage : this.files) {
+        files.addAll(storage);
+      }
+      return Collections.unmodifiableList(files);
+    }
+
+    // Filled in by execute()
+    public @NotNull List<Path> getDeletedFiles() {
+      return Collections.unmodifiableList(this.deleted);
+    }
+  }
+}
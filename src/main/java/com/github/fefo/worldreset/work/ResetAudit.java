@@ -0,0 +1,119 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work;
+
+import com.github.fefo.worldreset.config.ResetProfile;
+import com.github.fefo.worldreset.work.load.PlayerLoadHistogram;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// What an audit decides for each world, without acting on any of it (no broadcasts, staging or saving),
+// so WorldsDataHandler#auditResets and AuditBenchmark run the very same decisions.
+// Everything is judged against the given time, never the clock, so one audit sees one instant
+final class ResetAudit {
+
+  // The last broadcast goes out this many seconds before the reset
+  private static final long FINAL_BROADCAST_SECONDS = 5L;
+  // So the first broadcast before a chosen time isn't missed in between audits
+  private static final Duration CHOICE_SLACK = Duration.ofSeconds(10L);
+
+  // Once per cycle, as soon as the earliest time in the window would need its first broadcast:
+  // the quietest time left in the window, or the reset itself if there's no player load known for it yet.
+  // Null if there's nothing to choose (yet)
+  static @Nullable Instant chooseReset(final @NotNull ScheduledReset reset, final @NotNull ResetProfile profile,
+                                       final @NotNull Instant now, final @NotNull PlayerLoadHistogram playerLoad) {
+    if (!reset.hasWindow() || reset.getChosenReset() != null || reset.isDueAt(now)) {
+      return null;
+    }
+
+    final Duration halfInterval = reset.getInterval().dividedBy(2L);
+    final Duration window = reset.getWindow().compareTo(halfInterval) > 0 ? halfInterval : reset.getWindow();
+    final Instant from = now.plus(profile.getBroadcastWindow()).plus(CHOICE_SLACK);
+    if (from.isBefore(reset.getNextReset().minus(window))) {
+      return null;
+    }
+
+    final Instant quietest = playerLoad.quietest(from, reset.getNextReset().plus(window));
+    return quietest == null ? reset.getNextReset() : quietest;
+  }
+
+  static @NotNull Decision decide(final @NotNull ScheduledReset reset, final @NotNull ResetProfile profile,
+                                  final @NotNull Instant now) {
+    final long secondsLeft = Duration.between(now, reset.getEffectiveReset()).getSeconds();
+    final boolean stage = secondsLeft <= profile.getBroadcastWindow().getSeconds();
+    if (reset.isDueAt(now)) {
+      return new Decision(secondsLeft, stage, true, false, null);
+    }
+    return new Decision(secondsLeft, stage, false, secondsLeft < FINAL_BROADCAST_SECONDS, profile.dueBroadcast(secondsLeft));
+  }
+
+  static final class Decision {
+
+    private final long secondsLeft;
+    private final boolean stage;
+    private final boolean due;
+    private final boolean finalBroadcast;
+    private final Duration broadcast;
+
+    private Decision(final long secondsLeft, final boolean stage, final boolean due,
+                     final boolean finalBroadcast, final Duration broadcast) {
+      this.secondsLeft = secondsLeft;
+      this.stage = stage;
+      this.due = due;
+      this.finalBroadcast = finalBroadcast;
+      this.broadcast = broadcast;
+    }
+
+    long getSecondsLeft() {
+      return this.secondsLeft;
+    }
+
+    // Within the broadcast window, so its plan can be staged
+    boolean shouldStage() {
+      return this.stage;
+    }
+
+    // Past its time, applied on the next startup: nothing to broadcast anymore
+    boolean isDue() {
+      return this.due;
+    }
+
+    boolean isFinalBroadcast() {
+      return this.finalBroadcast;
+    }
+
+    // The broadcast moment that's due right now, if any
+    @Nullable Duration getBroadcast() {
+      return this.broadcast;
+    }
+  }
+
+  private ResetAudit() {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -0,0 +1,248 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work;
+
+import com.github.fefo.worldreset.api.ResetCause;
+import com.github.fefo.worldreset.config.ResetProfile;
+import com.github.fefo.worldreset.config.ResetProfiles;
+import com.github.fefo.worldreset.work.history.ResetHistory;
+import com.github.fefo.worldreset.work.history.ResetRecord;
+import com.github.fefo.worldreset.work.plan.PlanStore;
+import com.github.fefo.worldreset.work.plan.StagedPlan;
+import com.github.fefo.worldreset.work.storage.ScheduleStorage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+
+// Applies due resets to the world folders, the history and the storage, without anything from the server.
+// The plugin runs it on startup, the offline tool runs it while the server is stopped
+public final class ResetEngine {
+
+  private final Path worldsFolder;
+  private final ScheduleStorage storage;
+  private final ResetHistory history;
+  private final RegionSweeper sweeper;
+  private final PlanStore plans;
+
+  public ResetEngine(final @NotNull Path worldsFolder, final @NotNull ScheduleStorage storage,
+                     final @NotNull ResetHistory history, final @NotNull RegionSweeper sweeper,
+                     final @NotNull PlanStore plans) {
+    this.worldsFolder = worldsFolder;
+    this.storage = storage;
+    this.history = history;
+    this.sweeper = sweeper;
+    this.plans = plans;
+  }
+
+  // Resets every world that's due (unless this node already did and the leader hasn't moved it forward yet),
+  // or that another node already reset while this one was down.
+  // Each one becomes a job on the queue; the listener is called on the job's thread right after each one.
+  // Waits for all of them, worlds that already had a job (or got cancelled) are left out
+  public @NotNull List<Outcome> applyDue(final @NotNull Collection<ScheduledReset> resets,
+                                         final @NotNull ResetProfiles profiles,
+                                         final @NotNull Instant now,
+                                         final @NotNull ResetQueue queue,
+                                         final @NotNull Listener listener) throws IOException {
+    final List<ScheduledReset> toApply = new ArrayList<>();
+    final List<ScheduledReset> missed = new ArrayList<>();
+    for (final ScheduledReset reset : resets) {
+      if (reset.isDueAt(now)) {
+        if (!this.storage.alreadyApplied(reset)) {
+          toApply.add(reset);
+        }
+      } else if (this.storage.missedReset(reset)) {
+        toApply.add(reset);
+        missed.add(reset);
+      }
+    }
+
+    // The queue starts the first ones right away, so they go in by priority too
+    toApply.sort(Comparator.comparingInt((ScheduledReset reset) -> profiles.forWorld(reset.getWorldName()).getPriority())
+                           .reversed());
+    final List<ResetJob> jobs = new ArrayList<>(toApply.size());
+    for (final ScheduledReset reset : toApply) {
+      final ResetProfile profile = profiles.forWorld(reset.getWorldName());
+      final ResetCause cause = missed.contains(reset) ? ResetCause.MISSED : ResetCause.SCHEDULED;
+      final ResetJob job = queue.submit(reset.getWorldName(), profile.getPriority(),
+                                        submitted -> apply(submitted, reset.getWorldName(), reset, profile, cause, now, listener));
+      if (job != null) {
+        jobs.add(job);
+      }
+    }
+
+    // Wait for all of them even if one fails, nothing should still be deleting when this returns
+    final List<Outcome> outcomes = new ArrayList<>(jobs.size());
+    IOException failure = null;
+    for (final ResetJob job : jobs) {
+      try {
+        outcomes.add(job.completion().join());
+      } catch (final CancellationException exception) {
+        // Cancelled before it started
+      } catch (final CompletionException exception) {
+        if (!(exception.getCause() instanceof IOException)) {
+          throw exception;
+        }
+        if (failure == null) {
+          failure = (IOException) exception.getCause();
+        }
+      }
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+    return outcomes;
+  }
+
+  // Resets the world right away whether it's scheduled or not, its schedule stays as it is.
+  // Null if the world already has a job
+  public @Nullable ResetJob resetNow(final @NotNull String worldName, final @NotNull ResetProfile profile,
+                                     final @NotNull ResetQueue queue, final @NotNull Listener listener) {
+    return queue.submit(worldName, profile.getPriority(),
+                        job -> apply(job, worldName, null, profile, ResetCause.MANUAL, Instant.now(), listener));
+  }
+
+  // First reset of the schedule after now, skipping whatever was missed in between.
+  // Counted from the schedule, not from the time chosen within the window, which the next cycle chooses again
+  public static @NotNull ScheduledReset next(final @NotNull ScheduledReset reset, final @NotNull Instant now) {
+    Instant nextResetFrom = reset.getNextReset();
+    while (nextResetFrom.plus(reset.getInterval()).isBefore(now)) {
+      nextResetFrom = nextResetFrom.plus(reset.getInterval());
+    }
+    return new ScheduledReset(reset.getInterval(), nextResetFrom, reset.getWorldName(), reset.getWindow());
+  }
+
+  // A null reset means a manual one, which leaves the schedule alone
+  private Outcome apply(final ResetJob job, final String worldName, final @Nullable ScheduledReset reset,
+                        final ResetProfile profile, final ResetCause cause, final Instant now,
+                        final Listener listener) throws IOException {
+    final Path folder = this.worldsFolder.resolve(worldName);
+    // Staged during the broadcast window, if the plugin was running then
+    final StagedPlan staged = reset == null ? null : this.plans.take(worldName, reset.getNextReset(), profile.getSelectionHash());
+    final RegionSweeper.Plan plan = staged == null
+                                    ? this.sweeper.plan(worldName, folder, profile)
+                                    : this.sweeper.plan(worldName, folder, profile, staged);
+    final boolean cancelled = !listener.prepare(worldName, cause, folder, plan);
+    final ResetRecord record;
+    if (cancelled) {
+      record = this.sweeper.skip(plan);
+    } else {
+      job.running(plan.size());
+      record = this.sweeper.execute(plan);
+      this.history.append(record);
+    }
+    if (reset != null) {
+      this.storage.markApplied(worldName, now);
+    }
+
+    // Only the leader moves the schedule forward, other nodes will pick it up from storage.
+    // A cancelled reset still does, otherwise it'd be due again right away
+    final ScheduledReset next = cause == ResetCause.SCHEDULED && this.storage.isLeader() ? next(reset, now) : null;
+    final Outcome outcome = new Outcome(worldName, cause, reset, record, next, folder,
+                                        cancelled ? Collections.emptyList() : plan.getDeletedFiles(), cancelled);
+    listener.applied(outcome);
+    return outcome;
+  }
+
+  public interface Listener {
+
+    // Right before deleting anything, false skips the reset
+    default boolean prepare(final @NotNull String worldName, final @NotNull ResetCause cause,
+                            final @NotNull Path folder, final @NotNull RegionSweeper.Plan plan) {
+      return true;
+    }
+
+    void applied(@NotNull Outcome outcome) throws IOException;
+  }
+
+  public static final class Outcome {
+
+    private final String worldName;
+    private final ResetCause cause;
+    private final ScheduledReset reset;
+    private final ResetRecord record;
+    private final ScheduledReset next;
+    private final Path folder;
+    private final List<Path> deletedFiles;
+    private final boolean cancelled;
+
+    private Outcome(final String worldName, final ResetCause cause, final ScheduledReset reset,
+                    final ResetRecord record, final ScheduledReset next, final Path folder,
+                    final List<Path> deletedFiles, final boolean cancelled) {
+      this.worldName = worldName;
+      this.cause = cause;
+      this.reset = reset;
+      this.record = record;
+      this.next = next;
+      this.folder = folder;
+      this.deletedFiles = deletedFiles;
+      this.cancelled = cancelled;
+    }
+
+    public @NotNull String getWorldName() {
+      return this.worldName;
+    }
+
+    public @NotNull ResetCause getCause() {
+      return this.cause;
+    }
+
+    // The schedule it was applied for, null for a manual reset
+    public @Nullable ScheduledReset getReset() {
+      return this.reset;
+    }
+
+    public @NotNull ResetRecord getRecord() {
+      return this.record;
+    }
+
+    public @NotNull Path getFolder() {
+      return this.folder;
+    }
+
+    public @NotNull List<Path> getDeletedFiles() {
+      return this.deletedFiles;
+    }
+
+    public boolean isCancelled() {
+      return this.cancelled;
+    }
+
+    // Where the schedule goes from here, null if this node doesn't get to move it
+    public @Nullable ScheduledReset getNext() {
+      return this.next;
+    }
+  }
+}
@@ -0,0 +1,145 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work;
+
+import com.github.fefo.worldreset.work.history.ResetRecord;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+
+// One world's reset going through the ResetQueue. Its state only moves forward:
+// pending -> planning (scan + classify) -> running (delete) -> done or failed; pending ones can be cancelled
+public final class ResetJob {
+
+  // Higher priority first, then in the order they were submitted
+  static final Comparator<ResetJob> ORDER =
+      Comparator.comparingInt(ResetJob::getPriority).reversed().thenComparingInt(ResetJob::getId);
+
+  public enum State {
+    PENDING, PLANNING, RUNNING, DONE, FAILED, CANCELLED;
+
+    public boolean isFinished() {
+      return this == DONE || this == FAILED || this == CANCELLED;
+    }
+  }
+
+  private final int id;
+  private final String worldName;
+  private final int priority;
+  private final Instant submittedAt = Instant.now();
+  private final CompletableFuture<ResetEngine.Outcome> completion = new CompletableFuture<>();
+  private volatile State state = State.PENDING;
+  private volatile Instant startedAt;
+  private volatile Instant finishedAt;
+  private volatile int plannedFiles = -1;
+  private volatile ResetRecord record;
+  private volatile String failure;
+
+  ResetJob(final int id, final String worldName, final int priority) {
+    this.id = id;
+    this.worldName = worldName;
+    this.priority = priority;
+  }
+
+  public int getId() {
+    return this.id;
+  }
+
+  public @NotNull String getWorldName() {
+    return this.worldName;
+  }
+
+  public int getPriority() {
+    return this.priority;
+  }
+
+  public @NotNull State getState() {
+    return this.state;
+  }
+
+  public @NotNull Instant getSubmittedAt() {
+    return this.submittedAt;
+  }
+
+  public @Nullable Instant getStartedAt() {
+    return this.startedAt;
+  }
+
+  public @Nullable Instant getFinishedAt() {
+    return this.finishedAt;
+  }
+
+  // How many files the plan found, -1 until it's done planning
+  public int getPlannedFiles() {
+    return this.plannedFiles;
+  }
+
+  // Only once it's done
+  public @Nullable ResetRecord getRecord() {
+    return this.record;
+  }
+
+  // Only once it failed
+  public @Nullable String getFailure() {
+    return this.failure;
+  }
+
+  public @NotNull CompletableFuture<ResetEngine.Outcome> completion() {
+    return this.completion;
+  }
+
+  void planning() {
+    this.startedAt = Instant.now();
+    this.state = State.PLANNING;
+  }
+
+  void running(final int plannedFiles) {
+    this.plannedFiles = plannedFiles;
+    this.state = State.RUNNING;
+  }
+
+  void done(final ResetEngine.Outcome outcome) {
+    this.record = outcome.getRecord();
+    this.finishedAt = Instant.now();
+    this.state = State.DONE;
+    this.completion.complete(outcome);
+  }
+
+  void failed(final Throwable throwable) {
+    this.failure = String.valueOf(throwable.getMessage());
+    this.finishedAt = Instant.now();
+    this.state = State.FAILED;
+    this.completion.completeExceptionally(throwable);
+  }
+
+  void cancelled() {
+    this.finishedAt = Instant.now();
+    this.state = State.CANCELLED;
+    this.completion.cancel(false);
+  }
+}
@@ -0,0 +1,173 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.function.IntSupplier;
+
+// Runs reset jobs by priority, at most maxConcurrent of them at the same time (read on every dispatch,
+// so a config reload applies to the next job). A world only gets one job at a time, a second one is refused
+public final class ResetQueue {
+
+  private static final int FINISHED_KEPT = 20;
+
+  private final Executor executor;
+  private final IntSupplier maxConcurrent;
+  private final PriorityQueue<ResetJob> pending = new PriorityQueue<>(ResetJob.ORDER);
+  // Pending or running, keyed by lowercase world name
+  private final Map<String, ResetJob> active = new HashMap<>();
+  private final Deque<ResetJob> finished = new ArrayDeque<>(FINISHED_KEPT);
+  private final Map<ResetJob, Work> work = new HashMap<>();
+  private int running = 0;
+  private int nextId = 1;
+  private boolean closed = false;
+
+  public ResetQueue(final @NotNull Executor executor, final @NotNull IntSupplier maxConcurrent) {
+    this.executor = executor;
+    this.maxConcurrent = maxConcurrent;
+  }
+
+  // Null if the world already has a job, or if the queue was shut down
+  public synchronized @Nullable ResetJob submit(final @NotNull String worldName, final int priority,
+                                                final @NotNull Work work) {
+    if (this.closed || this.active.containsKey(key(worldName))) {
+      return null;
+    }
+
+    final ResetJob job = new ResetJob(this.nextId++, worldName, priority);
+    this.active.put(key(worldName), job);
+    this.work.put(job, work);
+    this.pending.add(job);
+    dispatch();
+    return job;
+  }
+
+  // Only pending jobs can be cancelled, there's no stopping one halfway through its deletes
+  public synchronized boolean cancel(final @NotNull String worldName) {
+    final ResetJob job = this.active.get(key(worldName));
+    if (job == null || job.getState() != ResetJob.State.PENDING) {
+      return false;
+    }
+
+    this.pending.remove(job);
+    this.work.remove(job);
+    this.active.remove(key(worldName));
+    job.cancelled();
+    retire(job);
+    return true;
+  }
+
+  // Running and pending jobs in the order they'll finish (more or less), then the last few that finished
+  public synchronized @NotNull List<ResetJob> jobs() {
+    final List<ResetJob> jobs = new ArrayList<>(this.active.size() + this.finished.size());
+    for (final ResetJob job : this.active.values()) {
+      if (job.getState() != ResetJob.State.PENDING) {
+        jobs.add(job);
+      }
+    }
+    jobs.sort(ResetJob.ORDER);
+
+    final List<ResetJob> pending = new ArrayList<>(this.pending);
+    pending.sort(ResetJob.ORDER);
+    jobs.addAll(pending);
+    jobs.addAll(this.finished);
+    return jobs;
+  }
+
+  public synchronized int pendingCount() {
+    return this.pending.size();
+  }
+
+  public synchronized int runningCount() {
+    return this.running;
+  }
+
+  // Cancels whatever didn't start yet, running jobs are left to finish
+  public synchronized void shutdown() {
+    this.closed = true;
+    ResetJob job;
+    while ((job = this.pending.poll()) != null) {
+      this.work.remove(job);
+      this.active.remove(key(job.getWorldName()));
+      job.cancelled();
+      retire(job);
+    }
+  }
+
+  private void dispatch() {
+    final int limit = Math.max(1, this.maxConcurrent.getAsInt());
+    while (this.running < limit && !this.pending.isEmpty()) {
+      final ResetJob job = this.pending.poll();
+      final Work work = this.work.remove(job);
+      ++this.running;
+      job.planning();
+      this.executor.execute(() -> run(job, work));
+    }
+  }
+
+  private void run(final ResetJob job, final Work work) {
+    try {
+      job.done(work.run(job));
+    } catch (final Throwable throwable) {
+      job.failed(throwable);
+    } finally {
+      synchronized (this) {
+        --this.running;
+        this.active.remove(key(job.getWorldName()));
+        retire(job);
+        if (!this.closed) {
+          dispatch();
+        }
+      }
+    }
+  }
+
+  private void retire(final ResetJob job) {
+    if (this.finished.size() == FINISHED_KEPT) {
+      this.finished.removeLast();
+    }
+    this.finished.addFirst(job);
+  }
+
+  private static String key(final String worldName) {
+    return worldName.toLowerCase(Locale.ROOT);
+  }
+
+  public interface Work {
+
+    @NotNull ResetEngine.Outcome run(@NotNull ResetJob job) throws Exception;
+  }
+}
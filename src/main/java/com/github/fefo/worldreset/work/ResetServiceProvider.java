@@ -0,0 +1,132 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work;
+
+import com.github.fefo.worldreset.api.ResetResult;
+import com.github.fefo.worldreset.api.WorldResetService;
+import com.github.fefo.worldreset.config.YamlConfigAdapter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// What gets registered as the WorldResetService. Schedule changes are written on a thread of its own
+// so callers never wait on the journal; resets go through the same queue as everything else
+public final class ResetServiceProvider implements WorldResetService {
+
+  private final WorldsDataHandler worldsDataHandler;
+  private final YamlConfigAdapter configAdapter;
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+                                            .setPriority(Thread.NORM_PRIORITY)
+                                            .setDaemon(false)
+                                            .setNameFormat("worldreset-service-thread-%d")
+                                            .build());
+
+  public ResetServiceProvider(final @NotNull WorldsDataHandler worldsDataHandler,
+                              final @NotNull YamlConfigAdapter configAdapter) {
+    this.worldsDataHandler = worldsDataHandler;
+    this.configAdapter = configAdapter;
+  }
+
+  @Override
+  public @NotNull Map<String, ScheduledReset> getSchedules() {
+    return this.worldsDataHandler.getScheduledResetsByWorld();
+  }
+
+  @Override
+  public @Nullable ScheduledReset getSchedule(final @NotNull String worldName) {
+    return getSchedules().get(worldName.toLowerCase(Locale.ROOT));
+  }
+
+  @Override
+  public @NotNull CompletableFuture<ScheduledReset> schedule(final @NotNull String worldName,
+                                                             final @NotNull Duration interval) {
+    return schedule(worldName, interval, this.configAdapter.config().getProfiles().forWorld(worldName).getResetWindow());
+  }
+
+  @Override
+  public @NotNull CompletableFuture<ScheduledReset> schedule(final @NotNull String worldName,
+                                                             final @NotNull Duration interval,
+                                                             final @NotNull Duration window) {
+    if (interval.isZero() || interval.isNegative() || window.isNegative()) {
+      throw new IllegalArgumentException("Invalid interval or window: " + interval + ", " + window);
+    }
+
+    final ScheduledReset reset = new ScheduledReset(interval, Instant.now(), Objects.requireNonNull(worldName, "worldName"), window);
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        this.worldsDataHandler.schedule(reset);
+      } catch (final IOException exception) {
+        throw new CompletionException(exception);
+      }
+      return reset;
+    }, this.executor);
+  }
+
+  @Override
+  public @NotNull CompletableFuture<Boolean> unschedule(final @NotNull String worldName) {
+    Objects.requireNonNull(worldName, "worldName");
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return this.worldsDataHandler.unschedule(worldName);
+      } catch (final IOException exception) {
+        throw new CompletionException(exception);
+      }
+    }, this.executor);
+  }
+
+  @Override
+  public @NotNull CompletableFuture<ResetResult> resetNow(final @NotNull String worldName) {
+    return this.worldsDataHandler.resetNow(Objects.requireNonNull(worldName, "worldName"));
+  }
+
+  @Override
+  public @NotNull List<ResetResult> getStartupResets() {
+    return this.worldsDataHandler.getStartupResets();
+  }
+
+  // Whatever was already asked for still gets written
+  public void shutdown() {
+    try {
+      this.executor.shutdown();
+      this.executor.awaitTermination(15L, TimeUnit.SECONDS);
+    } catch (final InterruptedException exception) {
+      exception.printStackTrace();
+    }
+  }
+}
@@ -25,12 +25,15 @@
 package com.github.fefo.worldreset.work;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Serializable;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
 
+// With a window the reset may happen anywhere within it around the next reset (the quietest time the
+// server usually has there), chosen once per cycle; without one it happens right at the next reset
 public final class ScheduledReset implements Serializable {
 
   private static final long serialVersionUID = 122278421932L;
@@ -38,19 +41,37 @@ public final class ScheduledReset implements Serializable {
   private final String worldName;
   private final Duration interval;
   private final Instant nextReset;
+  private final Duration window;
+  private final Instant chosenReset;
 
   public ScheduledReset(final @NotNull Duration interval, final @NotNull String worldName) {
     this(interval, Instant.now(), worldName);
   }
 
   public ScheduledReset(final @NotNull Duration interval, final @NotNull Instant from, final @NotNull String worldName) {
+    this(interval, from, worldName, Duration.ZERO);
+  }
+
+  public ScheduledReset(final @NotNull Duration interval, final @NotNull Instant from, final @NotNull String worldName,
+                        final @NotNull Duration window) {
+    this(worldName, interval, Objects.requireNonNull(from, "from").plus(interval), window, null);
+  }
+
+  private ScheduledReset(final String worldName, final Duration interval, final Instant nextReset,
+                         final Duration window, final Instant chosenReset) {
     this.worldName = Objects.requireNonNull(worldName, "worldName");
     this.interval = Objects.requireNonNull(interval, "interval");
-    this.nextReset = Objects.requireNonNull(from, "from").plus(interval);
+    this.nextReset = nextReset;
+    this.window = Objects.requireNonNull(window, "window");
+    this.chosenReset = chosenReset;
   }
 
   public boolean auditReset() {
-    return this.nextReset.isBefore(Instant.now());
+    return isDueAt(Instant.now());
+  }
+
+  public boolean isDueAt(final @NotNull Instant now) {
+    return getEffectiveReset().isBefore(now);
   }
 
   public @NotNull String getWorldName() {
@@ -61,10 +82,35 @@ public final class ScheduledReset implements Serializable {
     return this.interval;
   }
 
+  // When the schedule says it's due, the window (if any) is around this
   public @NotNull Instant getNextReset() {
     return this.nextReset;
   }
 
+  // How far before or after the next reset it may happen, zero for no window
+  public @NotNull Duration getWindow() {
+    return this.window;
+  }
+
+  public boolean hasWindow() {
+    return !this.window.isZero();
+  }
+
+  // Null until a time within the window is chosen for this cycle
+  public @Nullable Instant getChosenReset() {
+    return this.chosenReset;
+  }
+
+  // When it actually happens (and what broadcasts count down to)
+  public @NotNull Instant getEffectiveReset() {
+    return this.chosenReset == null ? this.nextReset : this.chosenReset;
+  }
+
+  public @NotNull ScheduledReset withChosenReset(final @NotNull Instant chosenReset) {
+    return new ScheduledReset(this.worldName, this.interval, this.nextReset, this.window,
+                              Objects.requireNonNull(chosenReset, "chosenReset"));
+  }
+
   @Override
   public boolean equals(final Object other) {
     if (this == other) {
@@ -77,7 +123,9 @@ public final class ScheduledReset implements Serializable {
     final ScheduledReset that = (ScheduledReset) other;
     return this.worldName.equals(that.worldName)
            && this.interval.equals(that.interval)
-           && this.nextReset.equals(that.nextReset);
+           && this.nextReset.equals(that.nextReset)
+           && this.window.equals(that.window)
+           && Objects.equals(this.chosenReset, that.chosenReset);
   }
 
   @Override
@@ -85,6 +133,8 @@ public final class ScheduledReset implements Serializable {
     int result = this.worldName.hashCode();
     result = 31 * result + this.interval.hashCode();
     result = 31 * result + this.nextReset.hashCode();
+    result = 31 * result + this.window.hashCode();
+    result = 31 * result + Objects.hashCode(this.chosenReset);
     return result;
   }
 }
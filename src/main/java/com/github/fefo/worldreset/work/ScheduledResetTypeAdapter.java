@@ -0,0 +1,212 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+// Mirrors the layout Gson used to produce reflectively so existing files keep loading:
+// {"worldName": "...", "interval": {"seconds": 0, "nanos": 0}, "nextReset": {"seconds": 0, "nanos": 0}}
+// plus "window" and "chosenReset" (same layout) only for resets that have them
+public final class ScheduledResetTypeAdapter extends TypeAdapter<ScheduledReset> {
+
+  public static final ScheduledResetTypeAdapter INSTANCE = new ScheduledResetTypeAdapter();
+
+  private static final String WORLD_NAME = "worldName";
+  private static final String INTERVAL = "interval";
+  private static final String NEXT_RESET = "nextReset";
+  private static final String WINDOW = "window";
+  private static final String CHOSEN_RESET = "chosenReset";
+  private static final String SECONDS = "seconds";
+  private static final String NANOS = "nanos";
+
+  private ScheduledResetTypeAdapter() {
+  }
+
+  // Handles both the current array layout and the legacy {"world": {...}} map layout in a single pass
+  public void readAll(final JsonReader reader, final Consumer<? super ScheduledReset> consumer) throws IOException {
+    final JsonToken token = reader.peek();
+    switch (token) {
+      case BEGIN_ARRAY:
+        reader.beginArray();
+        while (reader.hasNext()) {
+          acceptNonNull(read(reader), consumer);
+        }
+        reader.endArray();
+        break;
+
+      case BEGIN_OBJECT:
+        reader.beginObject();
+        while (reader.hasNext()) {
+          reader.nextName();
+          acceptNonNull(read(reader), consumer);
+        }
+        reader.endObject();
+        break;
+
+      case NULL:
+        reader.nextNull();
+        break;
+
+      default:
+        throw new JsonParseException("Expected an array or an object but got " + token);
+    }
+  }
+
+  public void writeAll(final JsonWriter writer, final Iterable<? extends ScheduledReset> resets) throws IOException {
+    writer.beginArray();
+    for (final ScheduledReset reset : resets) {
+      write(writer, reset);
+    }
+    writer.endArray();
+  }
+
+  @Override
+  public void write(final JsonWriter writer, final ScheduledReset reset) throws IOException {
+    if (reset == null) {
+      writer.nullValue();
+      return;
+    }
+
+    writer.beginObject();
+    writer.name(WORLD_NAME).value(reset.getWorldName());
+    writer.name(INTERVAL);
+    writeSecondsNanos(writer, reset.getInterval().getSeconds(), reset.getInterval().getNano());
+    writer.name(NEXT_RESET);
+    writeSecondsNanos(writer, reset.getNextReset().getEpochSecond(), reset.getNextReset().getNano());
+    if (reset.hasWindow()) {
+      writer.name(WINDOW);
+      writeSecondsNanos(writer, reset.getWindow().getSeconds(), reset.getWindow().getNano());
+    }
+    final Instant chosenReset = reset.getChosenReset();
+    if (chosenReset != null) {
+      writer.name(CHOSEN_RESET);
+      writeSecondsNanos(writer, chosenReset.getEpochSecond(), chosenReset.getNano());
+    }
+    writer.endObject();
+  }
+
+  @Override
+  public ScheduledReset read(final JsonReader reader) throws IOException {
+    if (reader.peek() == JsonToken.NULL) {
+      reader.nextNull();
+      return null;
+    }
+
+    String worldName = null;
+    Duration interval = null;
+    Instant nextReset = null;
+    Duration window = Duration.ZERO;
+    Instant chosenReset = null;
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case WORLD_NAME:
+          worldName = reader.nextString();
+          break;
+
+        case INTERVAL:
+          interval = readSecondsNanos(reader, Duration::ofSeconds);
+          break;
+
+        case NEXT_RESET:
+          nextReset = readSecondsNanos(reader, Instant::ofEpochSecond);
+          break;
+
+        case WINDOW:
+          window = readSecondsNanos(reader, Duration::ofSeconds);
+          break;
+
+        case CHOSEN_RESET:
+          chosenReset = readSecondsNanos(reader, Instant::ofEpochSecond);
+          break;
+
+        default:
+          reader.skipValue();
+          break;
+      }
+    }
+    reader.endObject();
+
+    if (worldName == null || interval == null || nextReset == null) {
+      throw new JsonParseException("Incomplete scheduled reset at " + reader.getPath());
+    }
+    final ScheduledReset reset = new ScheduledReset(interval, nextReset.minus(interval), worldName, window);
+    return chosenReset == null ? reset : reset.withChosenReset(chosenReset);
+  }
+
+  private static void acceptNonNull(final ScheduledReset reset, final Consumer<? super ScheduledReset> consumer) {
+    if (reset != null) {
+      consumer.accept(reset);
+    }
+  }
+
+  private static void writeSecondsNanos(final JsonWriter writer, final long seconds, final int nanos) throws IOException {
+    writer.beginObject();
+    writer.name(SECONDS).value(seconds);
+    writer.name(NANOS).value(nanos);
+    writer.endObject();
+  }
+
+  private static <T> T readSecondsNanos(final JsonReader reader, final SecondsNanosFactory<T> factory) throws IOException {
+    long seconds = 0L;
+    long nanos = 0L;
+
+    reader.beginObject();
+    while (reader.hasNext()) {
+      switch (reader.nextName()) {
+        case SECONDS:
+          seconds = reader.nextLong();
+          break;
+
+        case NANOS:
+          nanos = reader.nextLong();
+          break;
+
+        default:
+          reader.skipValue();
+          break;
+      }
+    }
+    reader.endObject();
+
+    return factory.create(seconds, nanos);
+  }
+
+  @FunctionalInterface
+  private interface SecondsNanosFactory<T> {
+
+    T create(long seconds, long nanos);
+  }
+}
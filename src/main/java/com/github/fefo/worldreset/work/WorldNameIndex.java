@@ -0,0 +1,193 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+// World names kept sorted by their lowercase form so tab completion only walks the names that
+// start with what's been typed, without touching the Bukkit world list or the schedule lock.
+// Loaded worlds come from world events (main thread), scheduled ones from WorldsDataHandler
+// and folders from a periodic scan (worker thread); lookups happen on the tab complete thread
+public final class WorldNameIndex implements Listener {
+
+  private final Path worldsFolder;
+  private final NavigableMap<String, String> loaded = new ConcurrentSkipListMap<>();
+  private final NavigableMap<String, String> scheduled = new ConcurrentSkipListMap<>();
+  private final NavigableMap<String, String> folders = new ConcurrentSkipListMap<>();
+
+  public WorldNameIndex(final @NotNull Plugin plugin, final @NotNull Path worldsFolder) {
+    this.worldsFolder = worldsFolder;
+
+    Bukkit.getPluginManager().registerEvents(this, plugin);
+    for (final World world : Bukkit.getWorlds()) {
+      put(this.loaded, world.getName());
+    }
+  }
+
+  public boolean isLoaded(final @NotNull String worldName) {
+    return this.loaded.containsKey(key(worldName));
+  }
+
+  public void loaded(final @NotNull String prefix, final @NotNull Consumer<? super String> consumer) {
+    range(this.loaded, prefix).values().forEach(consumer);
+  }
+
+  public void scheduled(final @NotNull String prefix, final @NotNull Consumer<? super String> consumer) {
+    range(this.scheduled, prefix).values().forEach(consumer);
+  }
+
+  // Scheduled worlds plus every world folder, for things that outlive a schedule (like the history)
+  public void known(final @NotNull String prefix, final @NotNull Consumer<? super String> consumer) {
+    scheduled(prefix, consumer);
+    for (final Map.Entry<String, String> entry : range(this.folders, prefix).entrySet()) {
+      if (!this.scheduled.containsKey(entry.getKey())) {
+        consumer.accept(entry.getValue());
+      }
+    }
+  }
+
+  // Loaded worlds and world folders whose name matches, each world once
+  public @NotNull List<String> matching(final @NotNull WorldPattern pattern) {
+    final List<String> matches = new ArrayList<>();
+    for (final String name : rangeFrom(this.loaded, pattern.getPrefix()).values()) {
+      if (pattern.matches(name)) {
+        matches.add(name);
+      }
+    }
+    for (final Map.Entry<String, String> entry : rangeFrom(this.folders, pattern.getPrefix()).entrySet()) {
+      if (!this.loaded.containsKey(entry.getKey()) && pattern.matches(entry.getValue())) {
+        matches.add(entry.getValue());
+      }
+    }
+    return matches;
+  }
+
+  public @NotNull List<String> scheduledMatching(final @NotNull WorldPattern pattern) {
+    final List<String> matches = new ArrayList<>();
+    for (final String name : rangeFrom(this.scheduled, pattern.getPrefix()).values()) {
+      if (pattern.matches(name)) {
+        matches.add(name);
+      }
+    }
+    return matches;
+  }
+
+  void addScheduled(final @NotNull String worldName) {
+    put(this.scheduled, worldName);
+  }
+
+  void removeScheduled(final @NotNull String worldName) {
+    this.scheduled.remove(key(worldName));
+  }
+
+  void replaceScheduled(final @NotNull Collection<? extends ScheduledReset> resets) {
+    final Map<String, String> names = new HashMap<>(resets.size());
+    for (final ScheduledReset reset : resets) {
+      names.put(key(reset.getWorldName()), reset.getWorldName());
+    }
+    replace(this.scheduled, names);
+  }
+
+  // Any folder with a level.dat in it
+  void scanFolders() {
+    final Map<String, String> names = new HashMap<>();
+    try (final DirectoryStream<Path> stream = Files.newDirectoryStream(this.worldsFolder, Files::isDirectory)) {
+      for (final Path folder : stream) {
+        if (Files.isRegularFile(folder.resolve("level.dat"))) {
+          final String name = folder.getFileName().toString();
+          names.put(key(name), name);
+        }
+      }
+    } catch (final IOException exception) {
+      exception.printStackTrace();
+      return;
+    }
+    replace(this.folders, names);
+  }
+
+  public void shutdown() {
+    HandlerList.unregisterAll(this);
+    this.loaded.clear();
+    this.scheduled.clear();
+    this.folders.clear();
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onWorldLoad(final WorldLoadEvent event) {
+    final String name = event.getWorld().getName();
+    put(this.loaded, name);
+    put(this.folders, name);
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onWorldUnload(final WorldUnloadEvent event) {
+    this.loaded.remove(key(event.getWorld().getName()));
+  }
+
+  // Adds the new names before dropping the stale ones so readers never see it empty midway
+  private static void replace(final NavigableMap<String, String> index, final Map<String, String> names) {
+    index.putAll(names);
+    index.keySet().retainAll(names.keySet());
+  }
+
+  private static NavigableMap<String, String> range(final NavigableMap<String, String> index, final String prefix) {
+    return rangeFrom(index, key(prefix));
+  }
+
+  private static NavigableMap<String, String> rangeFrom(final NavigableMap<String, String> index, final String key) {
+    return index.subMap(key, true, key + Character.MAX_VALUE, false);
+  }
+
+  private static void put(final NavigableMap<String, String> index, final String name) {
+    index.put(key(name), name);
+  }
+
+  private static String key(final String name) {
+    return name.toLowerCase(Locale.ROOT);
+  }
+}
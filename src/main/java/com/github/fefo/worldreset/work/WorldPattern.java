@@ -0,0 +1,96 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+// Case insensitive world name pattern: a glob ("arena_*", "lobby_?") or a regex when prefixed
+// with "regex:". Globs also give away the literal prefix every match starts with, so they can
+// be resolved with a range lookup on WorldNameIndex instead of testing every name
+public final class WorldPattern {
+
+  private static final String REGEX_PREFIX = "regex:";
+
+  public static @NotNull WorldPattern compile(final @NotNull String input) throws PatternSyntaxException {
+    if (input.regionMatches(true, 0, REGEX_PREFIX, 0, REGEX_PREFIX.length())) {
+      final String regex = input.substring(REGEX_PREFIX.length());
+      return new WorldPattern(input, "", Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE));
+    }
+
+    final StringBuilder regex = new StringBuilder(input.length() + 8);
+    int literalPrefix = -1;
+    int literalStart = 0;
+    for (int i = 0; i < input.length(); ++i) {
+      final char character = input.charAt(i);
+      if (character != '*' && character != '?') {
+        continue;
+      }
+
+      if (literalPrefix < 0) {
+        literalPrefix = i;
+      }
+      if (i > literalStart) {
+        regex.append(Pattern.quote(input.substring(literalStart, i)));
+      }
+      regex.append(character == '*' ? ".*" : ".");
+      literalStart = i + 1;
+    }
+    if (literalStart < input.length()) {
+      regex.append(Pattern.quote(input.substring(literalStart)));
+    }
+
+    final String prefix = input.substring(0, literalPrefix < 0 ? input.length() : literalPrefix);
+    return new WorldPattern(input, prefix.toLowerCase(Locale.ROOT),
+                            Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE));
+  }
+
+  private final String input;
+  private final String prefix;
+  private final Pattern pattern;
+
+  private WorldPattern(final String input, final String prefix, final Pattern pattern) {
+    this.input = input;
+    this.prefix = prefix;
+    this.pattern = pattern;
+  }
+
+  // Lowercase, every name this pattern matches starts with it
+  public @NotNull String getPrefix() {
+    return this.prefix;
+  }
+
+  public boolean matches(final @NotNull String worldName) {
+    return this.pattern.matcher(worldName).matches();
+  }
+
+  @Override
+  public String toString() {
+    return this.input;
+  }
+}
@@ -25,69 +25,93 @@
 package com.github.fefo.worldreset.work;
 
 import com.github.fefo.worldreset.WorldResetPlugin;
-import com.github.fefo.worldreset.config.ConfigKeys;
+import com.github.fefo.worldreset.api.ResetCause;
+import com.github.fefo.worldreset.api.ResetRegion;
+import com.github.fefo.worldreset.api.ResetResult;
+import com.github.fefo.worldreset.api.event.WorldResetCompleteEvent;
+import com.github.fefo.worldreset.api.event.WorldResetPrepareEvent;
+import com.github.fefo.worldreset.config.ResetProfile;
+import com.github.fefo.worldreset.config.ResetProfiles;
 import com.github.fefo.worldreset.config.YamlConfigAdapter;
+import com.github.fefo.worldreset.messages.AudienceIndex;
 import com.github.fefo.worldreset.messages.SubjectFactory;
-import com.github.fefo.worldreset.util.Utils;
+import com.github.fefo.worldreset.metrics.Counter;
+import com.github.fefo.worldreset.metrics.FlightEvents;
+import com.github.fefo.worldreset.metrics.Histogram;
+import com.github.fefo.worldreset.metrics.MetricsRegistry;
+import com.github.fefo.worldreset.work.history.ResetHistory;
+import com.github.fefo.worldreset.work.history.ResetRecord;
+import com.github.fefo.worldreset.work.load.PlayerLoadHistogram;
+import com.github.fefo.worldreset.work.plan.PlanStore;
+import com.github.fefo.worldreset.work.storage.ScheduleJournal;
+import com.github.fefo.worldreset.work.storage.ScheduleStorage;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.reflect.TypeToken;
+import net.kyori.adventure.audience.Audience;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
-import java.lang.reflect.Type;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
-import java.nio.file.PathMatcher;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.HashSet;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.regex.MatchResult;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-import static java.nio.charset.StandardCharsets.UTF_8;
-import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
-import static java.nio.file.StandardOpenOption.WRITE;
+import java.util.logging.Level;
 
 public final class WorldsDataHandler {
 
-  @Deprecated
-  private static final Type SCHEDULED_RESET_MAP_TYPE = new TypeToken<Map<String, ScheduledReset>>() { }.getType();
-  private static final Type SCHEDULED_RESET_SET_TYPE = new TypeToken<Set<ScheduledReset>>() { }.getType();
-  private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+  // stage is timed by the background task that stages a plan ahead of the reset, not by the reset itself
+  private static final String PHASE_HELP = "Time taken by each reset phase, and by staging a plan ahead of one";
   private static final Path WORLDS_FOLDER = Bukkit.getWorldContainer().toPath();
 
-  private static final PathMatcher REGION_FILE_MATCHER = FileSystems.getDefault().getPathMatcher("regex:r(?:\\.-?\\d){2}\\.mca");
-  private static final Predicate<Path> IS_INNER_REGION = path -> {
-    return path.endsWith("r.0.0.mca") || path.endsWith("r.0.-1.mca") || path.endsWith("r.-1.0.mca") || path.endsWith("r.-1.-1.mca");
-  };
-  private static final Predicate<Path> IS_OUTER_REGION = IS_INNER_REGION.negate().and(path -> REGION_FILE_MATCHER.matches(path.getFileName()));
 
   private final JavaPlugin plugin;
   private final SubjectFactory subjectFactory;
   private final YamlConfigAdapter configAdapter;
-  private final Path worldsJson;
-  private final Set<Duration> broadcastMoments = new HashSet<>();
-  private final Set<ScheduledReset> scheduledResets = new HashSet<>();
+  private final ScheduleStorage storage;
+  private final ResetHistory resetHistory;
+  private final WorldNameIndex worldNames;
+  private final RegionSweeper sweeper;
+  private final PlanStore plans;
+  private final ResetEngine engine;
+  private final ResetQueue resetQueue;
+  private final MetricsRegistry metrics;
+  private final FlightEvents flightEvents;
+  private final Histogram auditLatency;
+  private final Histogram saveLatency;
+  private final Histogram broadcastLatency;
+  private final Counter broadcasts;
+  private final Histogram scanLatency;
+  private final Histogram classifyLatency;
+  private final Histogram deleteLatency;
+  private final Histogram stageLatency;
+  private final PlayerLoadHistogram playerLoad = new PlayerLoadHistogram(ZoneId.systemDefault());
+  private final Path playerLoadFile;
+  // Keyed by lowercase world name
+  private final Map<String, ScheduledReset> scheduledResets = new HashMap<>();
+  // What getScheduledResets hands out, replaced (never changed) after every change to the map above
+  private volatile Map<String, ScheduledReset> snapshot = ImmutableMap.of();
+  private volatile List<ResetResult> startupResets = ImmutableList.of();
+  private final ResetEngine.Listener resetListener = new ResetListener();
+  // Keyed by lowercase world name, the reset each world was last staged for
+  private final Map<String, Instant> stagedFor = new ConcurrentHashMap<>();
   private final AtomicBoolean isShuttingDown = new AtomicBoolean(false);
   private final ScheduledExecutorService scheduler =
       Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
@@ -95,80 +119,100 @@ public final class WorldsDataHandler {
                                                      .setDaemon(false)
                                                      .setNameFormat("worldreset-worker-pool-thread-%d")
                                                      .build());
+  // Unbounded, the queue decides how many jobs run at the same time
+  private final ExecutorService resetExecutor =
+      Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                                        .setPriority(Thread.NORM_PRIORITY)
+                                        .setDaemon(false)
+                                        .setNameFormat("worldreset-reset-thread-%d")
+                                        .build());
 
-  public WorldsDataHandler(final WorldResetPlugin plugin) {
+  public WorldsDataHandler(final WorldResetPlugin plugin) throws IOException {
     this.plugin = plugin;
     this.subjectFactory = plugin.getSubjectFactory();
     this.configAdapter = plugin.getConfigAdapter();
-    this.worldsJson = plugin.getPluginDataFolder().resolve("worlds.json");
-  }
-
-  public void load() throws IOException {
-    if (Files.notExists(this.worldsJson)) {
-      Files.createFile(this.worldsJson);
-      try (final BufferedWriter writer = Files.newBufferedWriter(this.worldsJson, WRITE)) {
-        writer.write("[]");
-        writer.newLine();
-      }
-    }
-
-    JsonElement read;
-    try (final Reader reader = Files.newBufferedReader(this.worldsJson, UTF_8)) {
-      read = GSON.fromJson(reader, JsonElement.class);
-    } catch (final JsonParseException exception) {
-      final String message = String.format("There was an error reading %s, making backup and generating an empty JSON file. "
-                                           + "Please send the faulty file to the plugin author!",
-                                           this.worldsJson.toString());
-      this.plugin.getLogger().warning(message);
-      exception.printStackTrace();
 
-      final String backup = String.format("world.%s.err.json", System.currentTimeMillis());
-      Files.move(this.worldsJson, this.worldsJson.resolveSibling(backup));
-      Files.createFile(this.worldsJson);
-      try (final BufferedWriter writer = Files.newBufferedWriter(this.worldsJson, WRITE)) {
-        writer.write("[]");
-        writer.newLine();
-      }
+    final Path dataFolder = plugin.getPluginDataFolder();
+    this.storage = ScheduleStorage.open(this.configAdapter.config().getStorageType(),
+                                        this.configAdapter.config().getSharedStorageFolder(),
+                                        dataFolder, plugin.getLogger());
 
-      read = new JsonObject();
+    this.resetHistory = new ResetHistory(dataFolder.resolve("reset-history.dat"), ResetHistory.DEFAULT_CAPACITY);
+    this.worldNames = new WorldNameIndex(plugin, WORLDS_FOLDER);
+    this.playerLoadFile = dataFolder.resolve("player-load.dat");
+    try {
+      this.playerLoad.load(this.playerLoadFile);
+    } catch (final IOException exception) {
+      plugin.getLogger().log(Level.WARNING, "Could not read " + this.playerLoadFile.getFileName() + ", starting over", exception);
     }
 
-    final Set<ScheduledReset> set;
-    if (read.isJsonObject()) {
-      final Map<String, ScheduledReset> map = GSON.fromJson(read, SCHEDULED_RESET_MAP_TYPE);
-      set = new HashSet<>(map != null ? map.values() : ImmutableSet.of());
-    } else if (read.isJsonArray()) {
-      set = GSON.fromJson(read, SCHEDULED_RESET_SET_TYPE);
-    } else {
-      set = null;
-    }
-    this.scheduledResets.addAll(set != null ? set : ImmutableSet.of());
+    this.metrics = plugin.getMetrics();
+    this.flightEvents = plugin.getFlightEvents();
+    this.sweeper = new RegionSweeper(plugin.getLogger(), this.flightEvents, this.resetExecutor);
+    this.plans = new PlanStore(dataFolder.resolve("plans"), plugin.getLogger());
+    this.engine = new ResetEngine(WORLDS_FOLDER, this.storage, this.resetHistory, this.sweeper, this.plans);
+    this.resetQueue = new ResetQueue(this.resetExecutor, () -> this.configAdapter.config().getMaxConcurrentResets());
+    this.auditLatency = this.metrics.latency("worldreset_audit_seconds", "Time taken by each reset audit");
+    this.saveLatency = this.metrics.latency("worldreset_save_seconds", "Time taken to compact the schedule storage");
+    this.broadcastLatency = this.metrics.latency("worldreset_broadcast_seconds", "Time taken to send a reset broadcast");
+    this.broadcasts = this.metrics.counter("worldreset_broadcasts_total", "Reset broadcasts sent");
+    this.scanLatency = this.metrics.latency("worldreset_reset_phase_seconds", PHASE_HELP, "phase", "scan");
+    this.classifyLatency = this.metrics.latency("worldreset_reset_phase_seconds", PHASE_HELP, "phase", "classify");
+    this.deleteLatency = this.metrics.latency("worldreset_reset_phase_seconds", PHASE_HELP, "phase", "delete");
+    this.stageLatency = this.metrics.latency("worldreset_reset_phase_seconds", PHASE_HELP, "phase", "stage");
+    this.metrics.gauge("worldreset_scheduled_worlds", "Worlds with a scheduled reset", this::scheduledCount);
+    this.metrics.gauge("worldreset_reset_jobs_pending", "Reset jobs waiting for their turn", this.resetQueue::pendingCount);
+    this.metrics.gauge("worldreset_reset_jobs_running", "Reset jobs planning or deleting", this.resetQueue::runningCount);
+  }
+
+  public void load() throws IOException {
+    reload();
 
-    this.broadcastMoments.addAll(this.configAdapter.get(ConfigKeys.BROADCAST_PRIOR_RESET)
-                                                   .stream()
-                                                   .map(Utils::parseDuration)
-                                                   .collect(Collectors.toSet()));
     this.scheduler.scheduleWithFixedDelay(this::auditResets, 5L, 5L, TimeUnit.SECONDS);
+    this.scheduler.scheduleWithFixedDelay(this::compactIfNeeded, 1L, 1L, TimeUnit.MINUTES);
+    this.scheduler.scheduleWithFixedDelay(this.worldNames::scanFolders, 0L, 1L, TimeUnit.MINUTES);
+    this.scheduler.scheduleAtFixedRate(this::samplePlayerLoad, 1L, 1L, TimeUnit.MINUTES);
+    this.scheduler.scheduleWithFixedDelay(this::pruneVisits, 1L, 1L, TimeUnit.MINUTES);
+    this.scheduler.scheduleWithFixedDelay(this::savePlayerLoad, 15L, 15L, TimeUnit.MINUTES);
   }
 
-  public void deleteAny() {
-    final Instant now = Instant.now();
-    getScheduledResets().stream().filter(ScheduledReset::auditReset).forEach(reset -> {
-      deleteRegionsRecursively(WORLDS_FOLDER.resolve(reset.getWorldName()));
+  public void deleteAny() throws IOException {
+    // This runs before the worlds are loaded, so it waits for every job to finish
+    final List<ResetEngine.Outcome> outcomes =
+        this.engine.applyDue(getScheduledResets(), this.configAdapter.config().getProfiles(), Instant.now(),
+                             this.resetQueue, this.resetListener);
+    final ImmutableList.Builder<ResetResult> results = ImmutableList.builder();
+    for (final ResetEngine.Outcome outcome : outcomes) {
+      results.add(result(outcome));
+    }
+    this.startupResets = results.build();
+  }
 
-      Instant nextResetFrom = reset.getNextReset();
-      while (nextResetFrom.plus(reset.getInterval()).isBefore(now)) {
-        nextResetFrom = nextResetFrom.plus(reset.getInterval());
-      }
+  // Fails if the world is loaded or already has a job
+  public @NotNull CompletableFuture<ResetResult> resetNow(final @NotNull String worldName) {
+    final ResetJob job = this.worldNames.isLoaded(worldName)
+                         ? null
+                         : this.engine.resetNow(worldName, this.configAdapter.config().getProfiles().forWorld(worldName),
+                                                this.resetQueue, this.resetListener);
+    if (job == null) {
+      final CompletableFuture<ResetResult> failed = new CompletableFuture<>();
+      failed.completeExceptionally(new IllegalStateException(
+          worldName + " is loaded, already has a reset running or waiting to, or the plugin is disabling"));
+      return failed;
+    }
+    return job.completion().thenApply(WorldsDataHandler::result);
+  }
 
-      this.scheduledResets.add(new ScheduledReset(reset.getInterval(), nextResetFrom, reset.getWorldName()));
-    });
+  public @NotNull List<ResetResult> getStartupResets() {
+    return this.startupResets;
   }
 
-  public void save() throws IOException {
-    try (final Writer writer = Files.newBufferedWriter(this.worldsJson, WRITE, TRUNCATE_EXISTING)) {
-      GSON.toJson(this.scheduledResets, SCHEDULED_RESET_SET_TYPE, writer);
-    }
+  public synchronized void save() throws IOException {
+    final long start = System.nanoTime();
+    final FlightEvents.Span span = this.flightEvents.save("compact");
+    this.storage.compact();
+    span.finish();
+    this.saveLatency.recordSince(start);
   }
 
   public void shutdown() {
@@ -176,25 +220,185 @@ public final class WorldsDataHandler {
       this.isShuttingDown.set(true);
       this.scheduler.shutdown();
       this.scheduler.awaitTermination(15L, TimeUnit.SECONDS);
-      this.scheduledResets.clear();
-      this.broadcastMoments.clear();
-    } catch (final InterruptedException exception) {
+      savePlayerLoad();
+      this.resetQueue.shutdown();
+      this.resetExecutor.shutdown();
+      this.resetExecutor.awaitTermination(15L, TimeUnit.SECONDS);
+      this.storage.close();
+      this.resetHistory.close();
+      this.worldNames.shutdown();
+      synchronized (this) {
+        this.scheduledResets.clear();
+        publish();
+      }
+    } catch (final InterruptedException | IOException exception) {
       exception.printStackTrace();
     }
   }
 
-  public Set<ScheduledReset> getScheduledResets() {
-    return new HashSet<>(this.scheduledResets);
+  public ResetHistory getResetHistory() {
+    return this.resetHistory;
   }
 
-  public WorldOperationResult schedule(final String worldName, final Duration interval) {
-    final boolean removed = this.scheduledResets.removeIf(reset -> reset.getWorldName().equalsIgnoreCase(worldName));
-    this.scheduledResets.add(new ScheduledReset(interval, worldName));
+  public ResetQueue getResetQueue() {
+    return this.resetQueue;
+  }
+
+  public WorldNameIndex getWorldNames() {
+    return this.worldNames;
+  }
+
+  public Collection<ScheduledReset> getScheduledResets() {
+    return this.snapshot.values();
+  }
+
+  // Keyed by lowercase world name, the same instance until something changes
+  public Map<String, ScheduledReset> getScheduledResetsByWorld() {
+    return this.snapshot;
+  }
+
+  public synchronized WorldOperationResult schedule(final ScheduledReset reset) throws IOException {
+    final String worldName = reset.getWorldName();
+    final boolean removed = this.scheduledResets.put(key(worldName), reset) != null;
+    publish();
+    this.worldNames.addScheduled(worldName);
+    append(ScheduleJournal.Entry.schedule(reset));
     return removed ? WorldOperationResult.SUCCESS_OTHER : WorldOperationResult.SUCCESS_RESCHEDULED;
   }
 
-  public boolean unschedule(final String worldName) {
-    return this.scheduledResets.removeIf(reset -> reset.getWorldName().equalsIgnoreCase(worldName));
+  public synchronized boolean unschedule(final String worldName) throws IOException {
+    if (this.scheduledResets.remove(key(worldName)) != null) {
+      publish();
+      this.worldNames.removeScheduled(worldName);
+      discardPlan(worldName);
+      append(ScheduleJournal.Entry.unschedule(worldName));
+      return true;
+    }
+    return false;
+  }
+
+  // Schedules all of them with the same interval (and each with its profile's window) and persists that in one write.
+  // Returns how many of them were already scheduled
+  public synchronized int scheduleAll(final Collection<String> worldNames, final Duration interval) throws IOException {
+    final Instant now = Instant.now();
+    final ResetProfiles profiles = this.configAdapter.config().getProfiles();
+    final List<ScheduleJournal.Entry> entries = new ArrayList<>(worldNames.size());
+    int rescheduled = 0;
+    for (final String worldName : worldNames) {
+      final ScheduledReset reset =
+          new ScheduledReset(interval, now, worldName, profiles.forWorld(worldName).getResetWindow());
+      if (this.scheduledResets.put(key(worldName), reset) != null) {
+        ++rescheduled;
+      }
+      this.worldNames.addScheduled(worldName);
+      entries.add(ScheduleJournal.Entry.schedule(reset));
+    }
+    publish();
+
+    if (!entries.isEmpty()) {
+      append(entries);
+    }
+    return rescheduled;
+  }
+
+  // Returns how many of them were actually scheduled
+  public synchronized int unscheduleAll(final Collection<String> worldNames) throws IOException {
+    final List<ScheduleJournal.Entry> entries = new ArrayList<>(worldNames.size());
+    for (final String worldName : worldNames) {
+      if (this.scheduledResets.remove(key(worldName)) != null) {
+        this.worldNames.removeScheduled(worldName);
+        discardPlan(worldName);
+        entries.add(ScheduleJournal.Entry.unschedule(worldName));
+      }
+    }
+    publish();
+
+    if (!entries.isEmpty()) {
+      append(entries);
+    }
+    return entries.size();
+  }
+
+  private void append(final ScheduleJournal.Entry entry) throws IOException {
+    final FlightEvents.Span span = this.flightEvents.save("append").count(1);
+    this.storage.append(entry);
+    span.finish();
+  }
+
+  private void append(final List<ScheduleJournal.Entry> entries) throws IOException {
+    final FlightEvents.Span span = this.flightEvents.save("append").count(entries.size());
+    this.storage.append(entries);
+    span.finish();
+  }
+
+  private void discardPlan(final String worldName) throws IOException {
+    this.stagedFor.remove(key(worldName));
+    this.plans.discard(worldName);
+  }
+
+  private long scheduledCount() {
+    return this.snapshot.size();
+  }
+
+  // Only while holding this' lock
+  private void publish() {
+    this.snapshot = ImmutableMap.copyOf(this.scheduledResets);
+  }
+
+  private static ResetResult result(final ResetEngine.Outcome outcome) {
+    return new ResetResult(outcome.getWorldName(), outcome.getCause(), outcome.getRecord(),
+                           regions(outcome.getFolder(), outcome.getDeletedFiles()), outcome.isCancelled());
+  }
+
+  private static ImmutableSet<ResetRegion> regions(final Path folder, final List<Path> files) {
+    final ImmutableSet.Builder<ResetRegion> regions = ImmutableSet.builder();
+    for (final Path file : files) {
+      final ResetRegion region = ResetRegion.of(folder, file);
+      if (region != null) {
+        regions.add(region);
+      }
+    }
+    return regions.build();
+  }
+
+  private void recordReset(final ResetRecord record) {
+    final String worldName = record.getWorldName();
+    this.scanLatency.record(record.getScanTime().toNanos());
+    this.classifyLatency.record(record.getClassifyTime().toNanos());
+    this.deleteLatency.record(record.getDeleteTime().toNanos());
+    this.metrics.counter("worldreset_resets_total", "Resets applied", "world", worldName).increment();
+    this.metrics.counter("worldreset_files_deleted_total", "Region files deleted by resets", "world", worldName)
+                .add(record.getFilesDeleted());
+    this.metrics.counter("worldreset_bytes_freed_total", "Bytes freed by resets", "world", worldName)
+                .add(record.getBytesFreed());
+    this.metrics.counter("worldreset_reset_errors_total", "Errors while resetting", "world", worldName)
+                .add(record.getErrors());
+  }
+
+  private static String key(final String worldName) {
+    return worldName.toLowerCase(Locale.ROOT);
+  }
+
+  private synchronized void reload() throws IOException {
+    final Collection<ScheduledReset> loaded = this.storage.load();
+    this.scheduledResets.clear();
+    for (final ScheduledReset reset : loaded) {
+      this.scheduledResets.put(key(reset.getWorldName()), reset);
+    }
+    publish();
+    this.worldNames.replaceScheduled(loaded);
+  }
+
+  private void compactIfNeeded() {
+    if (this.isShuttingDown.get() || !this.storage.needsCompaction()) {
+      return;
+    }
+
+    try {
+      save();
+    } catch (final IOException exception) {
+      exception.printStackTrace();
+    }
   }
 
   public void auditResets() {
@@ -202,56 +406,165 @@ public final class WorldsDataHandler {
       return;
     }
 
-    for (final ScheduledReset scheduledReset : getScheduledResets()) {
-      if (scheduledReset.auditReset()) {
+    final long start = System.nanoTime();
+    try {
+      if (this.storage.poll()) {
+        reload();
+      }
+    } catch (final IOException exception) {
+      exception.printStackTrace();
+    }
+
+    final ResetProfiles profiles = this.configAdapter.config().getProfiles();
+    final Instant now = Instant.now();
+    for (final ScheduledReset listed : getScheduledResets()) {
+      final ResetProfile profile = profiles.forWorld(listed.getWorldName());
+      final ScheduledReset scheduledReset = chooseReset(listed, profile, now);
+      final ResetAudit.Decision decision = ResetAudit.decide(scheduledReset, profile, now);
+      if (decision.shouldStage()) {
+        stage(scheduledReset, profile);
+      }
+      if (decision.isDue()) {
         continue;
       }
 
-      final Duration timeLeft = Duration.between(Instant.now(), scheduledReset.getNextReset());
-      if (timeLeft.getSeconds() < 5L) {
-        broadcast(result -> "the next restart",
-                  result -> "the next restart",
-                  result -> scheduledReset.getWorldName());
+      final FlightEvents.Span span = this.flightEvents.audit(scheduledReset.getWorldName());
+      if (decision.isFinalBroadcast()) {
+        broadcast(profile, scheduledReset.getWorldName(), Duration.ZERO);
       }
 
-      for (final Duration moment : this.broadcastMoments) {
-        final long diff = Math.abs(timeLeft.getSeconds() - moment.getSeconds());
-        if (diff < 3L) {
-          broadcast(result -> Utils.shortDuration(timeLeft),
-                    result -> Utils.longDuration(timeLeft),
-                    result -> scheduledReset.getWorldName());
-          break;
-        }
+      final Duration moment = decision.getBroadcast();
+      if (moment != null) {
+        broadcast(profile, scheduledReset.getWorldName(), moment);
       }
+      span.finish();
     }
+    this.auditLatency.recordSince(start);
   }
 
-  private void broadcast(final Function<? super MatchResult, ? extends String> timeLeftShort,
-                         final Function<? super MatchResult, ? extends String> timeLeftLong,
-                         final Function<? super MatchResult, ? extends String> world) {
-    String message = this.configAdapter.get(ConfigKeys.BROADCAST_MESSAGE);
-    message = Utils.replaceAll(Utils.TIME_LEFT_PATTERN, message, timeLeftShort);
-    message = Utils.replaceAll(Utils.TIME_LEFT_LONG_PATTERN, message, timeLeftLong);
-    message = Utils.replaceAll(Utils.WORLD_NAME_PATTERN, message, world);
-    this.subjectFactory.permission("worldreset.receivebroadcast")
-                       .sendMessage(Utils.fromLegacy(message));
+  // Only the leader chooses, everyone else picks the choice up from the storage
+  private ScheduledReset chooseReset(final ScheduledReset reset, final ResetProfile profile, final Instant now) {
+    if (!this.storage.isLeader()) {
+      return reset;
+    }
+    final Instant chosen = ResetAudit.chooseReset(reset, profile, now, this.playerLoad);
+    if (chosen == null) {
+      return reset;
+    }
+
+    final ScheduledReset withChosen = reset.withChosenReset(chosen);
+    synchronized (this) {
+      // Unless it got rescheduled or unscheduled in the meantime
+      if (!this.scheduledResets.replace(key(reset.getWorldName()), reset, withChosen)) {
+        return reset;
+      }
+      publish();
+      try {
+        append(ScheduleJournal.Entry.resetChosen(withChosen));
+      } catch (final IOException exception) {
+        this.plugin.getLogger().log(Level.WARNING, "Could not save the reset time chosen for " + reset.getWorldName(), exception);
+      }
+    }
+    return withChosen;
+  }
+
+  private void samplePlayerLoad() {
+    this.playerLoad.record(Instant.now(), Bukkit.getOnlinePlayers().size());
+  }
+
+  private void pruneVisits() {
+    final ResetProfiles profiles = this.configAdapter.config().getProfiles();
+    this.subjectFactory.getAudienceIndex().pruneVisits(worldName -> profiles.forWorld(worldName).getVisitorWindow());
   }
 
-  private void deleteRegionsRecursively(final Path folder) {
-    if (Files.notExists(folder) || !Files.isDirectory(folder)) {
+  private void savePlayerLoad() {
+    try {
+      this.playerLoad.save(this.playerLoadFile);
+    } catch (final IOException exception) {
+      this.plugin.getLogger().log(Level.WARNING, "Could not save " + this.playerLoadFile.getFileName(), exception);
+    }
+  }
+
+  // Once per reset, in the background: whatever is staged doesn't have to be looked for when the reset happens
+  private void stage(final ScheduledReset reset, final ResetProfile profile) {
+    final String worldName = reset.getWorldName();
+    if (reset.getNextReset().equals(this.stagedFor.put(key(worldName), reset.getNextReset()))) {
       return;
     }
 
-    try (final Stream<Path> stream = Files.walk(folder)) {
-      stream.filter(IS_OUTER_REGION).forEach(region -> {
-        try {
-          Files.delete(region);
-        } catch (final IOException exception) {
-          exception.printStackTrace();
+    this.resetExecutor.execute(() -> {
+      final long start = System.nanoTime();
+      try {
+        this.plans.write(worldName, this.sweeper.stage(worldName, WORLDS_FOLDER.resolve(worldName), profile, reset.getNextReset()));
+        this.stageLatency.recordSince(start);
+      } catch (final IOException | UncheckedIOException exception) {
+        this.plugin.getLogger().log(Level.WARNING, "Could not stage the reset plan for " + worldName, exception);
+      }
+    });
+  }
+
+  // Zero means the reset is about to happen
+  private void broadcast(final ResetProfile profile, final String worldName, final Duration moment) {
+    final long start = System.nanoTime();
+    final FlightEvents.Span span =
+        this.flightEvents.broadcast(worldName, profile.getBroadcastTarget().name(), moment.getSeconds());
+    final AudienceIndex audienceIndex = this.subjectFactory.getAudienceIndex();
+    final Audience audience;
+    switch (profile.getBroadcastTarget()) {
+      case WORLD:
+        audience = audienceIndex.inWorld(worldName);
+        break;
+      case VISITORS:
+        audience = audienceIndex.visitors(worldName, profile.getVisitorWindow());
+        break;
+      default:
+        audience = audienceIndex.everyone();
+        break;
+    }
+    audience.sendMessage(profile.getBroadcastTemplate().cached(worldName, moment));
+    span.finish();
+    this.broadcasts.increment();
+    this.broadcastLatency.recordSince(start);
+  }
+
+  // Fires the API events and moves schedules forward, on the reset's thread
+  private final class ResetListener implements ResetEngine.Listener {
+
+    @Override
+    public boolean prepare(final @NotNull String worldName, final @NotNull ResetCause cause,
+                           final @NotNull Path folder, final @NotNull RegionSweeper.Plan plan) {
+      if (WorldResetPrepareEvent.getHandlerList().getRegisteredListeners().length == 0) {
+        return true;
+      }
+
+      final WorldResetPrepareEvent event = new WorldResetPrepareEvent(worldName, cause, regions(folder, plan.getFiles()));
+      Bukkit.getPluginManager().callEvent(event);
+      if (event.isCancelled()) {
+        WorldsDataHandler.this.plugin.getLogger().info("The reset of " + worldName + " was cancelled by another plugin");
+      }
+      return !event.isCancelled();
+    }
+
+    @Override
+    public void applied(final @NotNull ResetEngine.Outcome outcome) throws IOException {
+      if (!outcome.isCancelled()) {
+        recordReset(outcome.getRecord());
+      }
+
+      final ScheduledReset next = outcome.getNext();
+      if (next != null) {
+        synchronized (WorldsDataHandler.this) {
+          // Unless it got rescheduled or unscheduled in the meantime
+          if (WorldsDataHandler.this.scheduledResets.replace(key(next.getWorldName()), outcome.getReset(), next)) {
+            publish();
+            append(ScheduleJournal.Entry.resetCompleted(next));
+          }
         }
-      });
-    } catch (final IOException exception) {
-      exception.printStackTrace();
+      }
+
+      if (!outcome.isCancelled() && WorldResetCompleteEvent.getHandlerList().getRegisteredListeners().length != 0) {
+        Bukkit.getPluginManager().callEvent(new WorldResetCompleteEvent(result(outcome)));
+      }
     }
   }
 }
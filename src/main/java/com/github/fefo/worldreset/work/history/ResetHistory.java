@@ -0,0 +1,219 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work.history;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// Fixed-size ring of reset records. Once full the oldest record gets overwritten,
+// so the file never grows past HEADER_SIZE + capacity * RECORD_SIZE bytes.
+//
+// header: int magic, int version, int capacity, long written (total records ever written)
+// record: long startedAt (epoch millis), long scan, long classify, long delete (nanos),
+//         int files, long bytes, int errors, short + bytes world name, short + bytes first error
+public final class ResetHistory {
+
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  private static final int MAGIC = 0x57524853; // WRHS
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 4 + 4 + 4 + 8;
+  private static final int RECORD_SIZE = 256;
+  private static final int MAX_WORLD_NAME_BYTES = 64;
+  private static final int MAX_ERROR_BYTES = RECORD_SIZE - (8 * 4 + 4 + 8 + 4) - 2 - MAX_WORLD_NAME_BYTES - 2;
+
+  private final FileChannel channel;
+  private final int capacity;
+  private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+  private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+  private long written;
+
+  public ResetHistory(final @NotNull Path file, final int capacity) throws IOException {
+    this.channel = FileChannel.open(file, CREATE, READ, WRITE);
+
+    if (this.channel.size() >= HEADER_SIZE) {
+      readFully(this.header, 0L);
+      this.header.flip();
+      if (this.header.getInt() == MAGIC && this.header.getInt() == VERSION) {
+        final int storedCapacity = this.header.getInt();
+        final long storedWritten = this.header.getLong();
+        // Records go in before the header counts them, so the file is never shorter than what it claims to hold
+        if (storedCapacity > 0 && storedWritten >= 0L
+            && this.channel.size() >= HEADER_SIZE + Math.min(storedWritten, storedCapacity) * RECORD_SIZE) {
+          this.capacity = storedCapacity;
+          this.written = storedWritten;
+          return;
+        }
+      }
+    }
+
+    // New, unreadable or truncated file, start over
+    this.capacity = capacity;
+    this.written = 0L;
+    this.channel.truncate(0L);
+    writeHeader();
+  }
+
+  public synchronized void append(final @NotNull ResetRecord entry) throws IOException {
+    this.record.clear();
+    this.record.putLong(entry.getStartedAt().toEpochMilli())
+               .putLong(entry.scanNanos())
+               .putLong(entry.classifyNanos())
+               .putLong(entry.deleteNanos())
+               .putInt(entry.getFilesDeleted())
+               .putLong(entry.getBytesFreed())
+               .putInt(entry.getErrors());
+    putString(this.record, entry.getWorldName(), MAX_WORLD_NAME_BYTES);
+    putString(this.record, entry.getFirstError(), MAX_ERROR_BYTES);
+    while (this.record.hasRemaining()) {
+      this.record.put((byte) 0);
+    }
+    this.record.flip();
+
+    writeFully(this.record, position(this.written));
+    ++this.written;
+    writeHeader();
+  }
+
+  public synchronized int size() {
+    return (int) Math.min(this.written, this.capacity);
+  }
+
+  // Newest first, reading one record at a time from the end of the ring.
+  // A null world matches every record
+  public synchronized @NotNull List<ResetRecord> page(final @Nullable String worldName,
+                                                      final int page, final int pageSize) throws IOException {
+    final List<ResetRecord> result = new ArrayList<>(pageSize);
+    final long oldest = Math.max(0L, this.written - this.capacity);
+    int toSkip = Math.max(0, page - 1) * pageSize;
+
+    for (long index = this.written - 1; index >= oldest && result.size() < pageSize; --index) {
+      final ResetRecord entry = read(index);
+      if (worldName != null && !entry.getWorldName().equalsIgnoreCase(worldName)) {
+        continue;
+      }
+
+      if (toSkip > 0) {
+        --toSkip;
+        continue;
+      }
+      result.add(entry);
+    }
+
+    return result;
+  }
+
+  public synchronized void close() throws IOException {
+    this.channel.close();
+  }
+
+  private ResetRecord read(final long index) throws IOException {
+    this.record.clear();
+    readFully(this.record, position(index));
+    this.record.flip();
+
+    final Instant startedAt = Instant.ofEpochMilli(this.record.getLong());
+    final long scan = this.record.getLong();
+    final long classify = this.record.getLong();
+    final long delete = this.record.getLong();
+    final int files = this.record.getInt();
+    final long bytes = this.record.getLong();
+    final int errors = this.record.getInt();
+    final String worldName = getString(this.record);
+    final String firstError = getString(this.record);
+    return new ResetRecord(worldName == null ? "" : worldName, startedAt,
+                           scan, classify, delete, files, bytes, errors, firstError);
+  }
+
+  private long position(final long index) {
+    return HEADER_SIZE + (index % this.capacity) * RECORD_SIZE;
+  }
+
+  private void writeHeader() throws IOException {
+    this.header.clear();
+    this.header.putInt(MAGIC).putInt(VERSION).putInt(this.capacity).putLong(this.written);
+    this.header.flip();
+    writeFully(this.header, 0L);
+  }
+
+  private void readFully(final ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      final int read = this.channel.read(buffer, position);
+      if (read < 0) {
+        throw new IOException("Unexpected end of reset history file");
+      }
+      position += read;
+    }
+  }
+
+  private void writeFully(final ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      position += this.channel.write(buffer, position);
+    }
+  }
+
+  // -1 length marks a null string
+  private static void putString(final ByteBuffer buffer, final String string, final int maxBytes) {
+    if (string == null) {
+      buffer.putShort((short) -1);
+      return;
+    }
+
+    String truncated = string;
+    byte[] bytes = truncated.getBytes(StandardCharsets.UTF_8);
+    while (bytes.length > maxBytes) {
+      // Chop whole chars off so multi-byte sequences never get split
+      truncated = truncated.substring(0, truncated.length() - 1);
+      bytes = truncated.getBytes(StandardCharsets.UTF_8);
+    }
+
+    buffer.putShort((short) bytes.length);
+    buffer.put(bytes);
+  }
+
+  private static String getString(final ByteBuffer buffer) {
+    final short length = buffer.getShort();
+    if (length < 0) {
+      return null;
+    }
+
+    final byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
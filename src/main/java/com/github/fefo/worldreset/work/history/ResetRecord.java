@@ -0,0 +1,168 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work.history;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+public final class ResetRecord {
+
+  public static @NotNull Builder builder(final @NotNull String worldName) {
+    return new Builder(worldName);
+  }
+
+  private final String worldName;
+  private final Instant startedAt;
+  private final long scanNanos;
+  private final long classifyNanos;
+  private final long deleteNanos;
+  private final int filesDeleted;
+  private final long bytesFreed;
+  private final int errors;
+  private final String firstError;
+
+  ResetRecord(final String worldName, final Instant startedAt,
+              final long scanNanos, final long classifyNanos, final long deleteNanos,
+              final int filesDeleted, final long bytesFreed,
+              final int errors, final String firstError) {
+    this.worldName = Objects.requireNonNull(worldName, "worldName");
+    this.startedAt = Objects.requireNonNull(startedAt, "startedAt");
+    this.scanNanos = scanNanos;
+    this.classifyNanos = classifyNanos;
+    this.deleteNanos = deleteNanos;
+    this.filesDeleted = filesDeleted;
+    this.bytesFreed = bytesFreed;
+    this.errors = errors;
+    this.firstError = firstError;
+  }
+
+  public @NotNull String getWorldName() {
+    return this.worldName;
+  }
+
+  public @NotNull Instant getStartedAt() {
+    return this.startedAt;
+  }
+
+  public @NotNull Duration getScanTime() {
+    return Duration.ofNanos(this.scanNanos);
+  }
+
+  public @NotNull Duration getClassifyTime() {
+    return Duration.ofNanos(this.classifyNanos);
+  }
+
+  public @NotNull Duration getDeleteTime() {
+    return Duration.ofNanos(this.deleteNanos);
+  }
+
+  public @NotNull Duration getTotalTime() {
+    return Duration.ofNanos(this.scanNanos + this.classifyNanos + this.deleteNanos);
+  }
+
+  public int getFilesDeleted() {
+    return this.filesDeleted;
+  }
+
+  public long getBytesFreed() {
+    return this.bytesFreed;
+  }
+
+  public int getErrors() {
+    return this.errors;
+  }
+
+  public @Nullable String getFirstError() {
+    return this.firstError;
+  }
+
+  long scanNanos() {
+    return this.scanNanos;
+  }
+
+  long classifyNanos() {
+    return this.classifyNanos;
+  }
+
+  long deleteNanos() {
+    return this.deleteNanos;
+  }
+
+  public static final class Builder {
+
+    private final String worldName;
+    private final Instant startedAt = Instant.now();
+    private long scanNanos = 0L;
+    private long classifyNanos = 0L;
+    private long deleteNanos = 0L;
+    private int filesDeleted = 0;
+    private long bytesFreed = 0L;
+    private int errors = 0;
+    private String firstError = null;
+
+    private Builder(final String worldName) {
+      this.worldName = worldName;
+    }
+
+    public Builder scanNanos(final long scanNanos) {
+      this.scanNanos = scanNanos;
+      return this;
+    }
+
+    public Builder classifyNanos(final long classifyNanos) {
+      this.classifyNanos = classifyNanos;
+      return this;
+    }
+
+    public Builder deleteNanos(final long deleteNanos) {
+      this.deleteNanos = deleteNanos;
+      return this;
+    }
+
+    public Builder fileDeleted(final long bytes) {
+      ++this.filesDeleted;
+      this.bytesFreed += bytes;
+      return this;
+    }
+
+    public Builder error(final @NotNull Throwable throwable) {
+      if (this.errors++ == 0) {
+        this.firstError = throwable.toString();
+      }
+      return this;
+    }
+
+    public ResetRecord build() {
+      return new ResetRecord(this.worldName, this.startedAt,
+                             this.scanNanos, this.classifyNanos, this.deleteNanos,
+                             this.filesDeleted, this.bytesFreed,
+                             this.errors, this.firstError);
+    }
+  }
+}
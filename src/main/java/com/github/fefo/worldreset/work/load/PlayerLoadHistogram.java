@@ -0,0 +1,141 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work.load;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+// How many players are usually online at each 15 minutes of the week (local time).
+// Each slot averages its samples until it has MEMORY of them, from then on it's a moving average
+// that mostly remembers the last few weeks, so a change of habits shows up within a month
+public final class PlayerLoadHistogram {
+
+  public static final Duration SLOT = Duration.ofMinutes(15L);
+  public static final int SLOTS = 7 * 24 * 4;
+
+  private static final int MAGIC = 0x57524c48; // WRLH
+  private static final int VERSION = 1;
+  // 15 one minute samples per slot a week, ~4 weeks
+  private static final int MEMORY = 60;
+
+  private final ZoneId zone;
+  private final float[] averages = new float[SLOTS];
+  private final int[] samples = new int[SLOTS];
+  private boolean dirty = false;
+
+  public PlayerLoadHistogram(final @NotNull ZoneId zone) {
+    this.zone = zone;
+  }
+
+  public synchronized void record(final @NotNull Instant when, final int players) {
+    final int slot = slot(when);
+    final int samples = Math.min(this.samples[slot] + 1, MEMORY);
+    this.averages[slot] += (players - this.averages[slot]) / samples;
+    this.samples[slot] = samples;
+    this.dirty = true;
+  }
+
+  // The start of the quietest slot between from and to (or from itself, if its slot is the quietest one),
+  // the earliest one on ties. Null if none of them was ever sampled
+  public synchronized @Nullable Instant quietest(final @NotNull Instant from, final @NotNull Instant to) {
+    Instant quietest = null;
+    float lowest = Float.MAX_VALUE;
+    Instant candidate = from;
+    while (!candidate.isAfter(to)) {
+      final int slot = slot(candidate);
+      if (this.samples[slot] != 0 && this.averages[slot] < lowest) {
+        lowest = this.averages[slot];
+        quietest = candidate;
+      }
+      candidate = slotStart(candidate).plus(SLOT);
+    }
+    return quietest;
+  }
+
+  // header: int magic, int version, int slots
+  // slot: float average, int samples
+  public synchronized void load(final @NotNull Path file) throws IOException {
+    if (Files.notExists(file)) {
+      return;
+    }
+
+    try (final DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (input.readInt() != MAGIC || input.readInt() != VERSION || input.readInt() != SLOTS) {
+        throw new IOException("Not a player load file, or from another version");
+      }
+      for (int slot = 0; slot < SLOTS; ++slot) {
+        this.averages[slot] = input.readFloat();
+        this.samples[slot] = Math.min(input.readInt(), MEMORY);
+      }
+    }
+    this.dirty = false;
+  }
+
+  // Only if something was recorded since the last load or save
+  public synchronized void save(final @NotNull Path file) throws IOException {
+    if (!this.dirty) {
+      return;
+    }
+
+    final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+      output.writeInt(MAGIC);
+      output.writeInt(VERSION);
+      output.writeInt(SLOTS);
+      for (int slot = 0; slot < SLOTS; ++slot) {
+        output.writeFloat(this.averages[slot]);
+        output.writeInt(this.samples[slot]);
+      }
+    }
+    Files.move(temp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+    this.dirty = false;
+  }
+
+  private int slot(final Instant when) {
+    final ZonedDateTime local = when.atZone(this.zone);
+    return (local.getDayOfWeek().getValue() - 1) * 96 + local.getHour() * 4 + local.getMinute() / 15;
+  }
+
+  private Instant slotStart(final Instant when) {
+    final ZonedDateTime local = when.atZone(this.zone).truncatedTo(ChronoUnit.MINUTES);
+    return local.withMinute(local.getMinute() / 15 * 15).toInstant();
+  }
+}
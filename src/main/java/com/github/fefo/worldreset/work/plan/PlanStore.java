@@ -0,0 +1,100 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work.plan;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+// One <world>.plan file per world with a staged plan. A plan is only good for the reset
+// (and the selection) it was staged for, taking it removes the file either way
+public final class PlanStore {
+
+  private final Path folder;
+  private final Logger logger;
+
+  public PlanStore(final @NotNull Path folder, final @NotNull Logger logger) {
+    this.folder = folder;
+    this.logger = logger;
+  }
+
+  public void write(final @NotNull String worldName, final @NotNull StagedPlan plan) throws IOException {
+    Files.createDirectories(this.folder);
+    final Path file = file(worldName);
+    final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+      plan.write(output);
+    }
+    Files.move(temp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+  }
+
+  // Null if there's none, or if it was staged for another reset or another selection
+  public @Nullable StagedPlan take(final @NotNull String worldName, final @NotNull Instant stagedFor,
+                                   final int selection) {
+    final Path file = file(worldName);
+    if (Files.notExists(file)) {
+      return null;
+    }
+
+    try {
+      final StagedPlan plan;
+      try (final DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+        plan = StagedPlan.read(input);
+      } finally {
+        Files.deleteIfExists(file);
+      }
+      // Stored in millis
+      final boolean matches = plan.getStagedFor().equals(stagedFor.truncatedTo(ChronoUnit.MILLIS))
+                              && plan.getSelection() == selection;
+      return matches ? plan : null;
+    } catch (final IOException exception) {
+      this.logger.log(Level.WARNING, "Could not read the staged plan for " + worldName + ", ignoring it", exception);
+      return null;
+    }
+  }
+
+  public void discard(final @NotNull String worldName) throws IOException {
+    Files.deleteIfExists(file(worldName));
+  }
+
+  private Path file(final String worldName) {
+    return this.folder.resolve(worldName.toLowerCase(Locale.ROOT) + ".plan");
+  }
+}
@@ -0,0 +1,149 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work.plan;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// What a reset would delete, found ahead of time while the world is still loaded.
+// Every region folder the profile resets is listed with its mtime, so new or removed files show up
+// as a changed directory, along with the names of the files to delete in it. Files are picked by name only,
+// a loaded world keeps writing to its region files and those still have to go
+public final class StagedPlan {
+
+  private static final int MAGIC = 0x5752504c; // WRPL
+  private static final int VERSION = 2;
+
+  private final Instant stagedFor;
+  private final int selection;
+  private final List<Directory> directories;
+
+  // stagedFor is the reset it was staged for, selection is ResetProfile#getSelectionHash
+  public StagedPlan(final @NotNull Instant stagedFor, final int selection,
+                    final @NotNull List<Directory> directories) {
+    this.stagedFor = stagedFor;
+    this.selection = selection;
+    this.directories = Collections.unmodifiableList(directories);
+  }
+
+  public @NotNull Instant getStagedFor() {
+    return this.stagedFor;
+  }
+
+  public int getSelection() {
+    return this.selection;
+  }
+
+  public @NotNull List<Directory> getDirectories() {
+    return this.directories;
+  }
+
+  public int fileCount() {
+    int count = 0;
+    for (final Directory directory : this.directories) {
+      count += directory.size();
+    }
+    return count;
+  }
+
+  // header: int magic, int version, long stagedFor (epoch millis), int selection, int directories
+  // directory: utf path (relative to the world folder), long mtime, int files
+  // file: utf name
+  public void write(final @NotNull DataOutput output) throws IOException {
+    output.writeInt(MAGIC);
+    output.writeInt(VERSION);
+    output.writeLong(this.stagedFor.toEpochMilli());
+    output.writeInt(this.selection);
+    output.writeInt(this.directories.size());
+    for (final Directory directory : this.directories) {
+      output.writeUTF(directory.path);
+      output.writeLong(directory.modified);
+      output.writeInt(directory.names.length);
+      for (final String name : directory.names) {
+        output.writeUTF(name);
+      }
+    }
+  }
+
+  public static @NotNull StagedPlan read(final @NotNull DataInput input) throws IOException {
+    if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+      throw new IOException("Not a staged plan, or from another version");
+    }
+
+    final Instant stagedFor = Instant.ofEpochMilli(input.readLong());
+    final int selection = input.readInt();
+    final int directoryCount = input.readInt();
+    final List<Directory> directories = new ArrayList<>(directoryCount);
+    for (int d = 0; d < directoryCount; ++d) {
+      final String path = input.readUTF();
+      final long modified = input.readLong();
+      final int files = input.readInt();
+      final String[] names = new String[files];
+      for (int i = 0; i < files; ++i) {
+        names[i] = input.readUTF();
+      }
+      directories.add(new Directory(path, modified, names));
+    }
+    return new StagedPlan(stagedFor, selection, directories);
+  }
+
+  public static final class Directory {
+
+    private final String path;
+    private final long modified;
+    private final String[] names;
+
+    // modified is the folder's mtime in epoch millis
+    public Directory(final @NotNull String path, final long modified, final @NotNull String[] names) {
+      this.path = path;
+      this.modified = modified;
+      this.names = names;
+    }
+
+    // Relative to the world folder, like region or DIM-1/poi
+    public @NotNull String getPath() {
+      return this.path;
+    }
+
+    public long getModified() {
+      return this.modified;
+    }
+
+    public int size() {
+      return this.names.length;
+    }
+
+    public @NotNull String name(final int index) {
+      return this.names[index];
+    }
+  }
+}
@@ -0,0 +1,84 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work.storage;
+
+import com.github.fefo.worldreset.work.ScheduledReset;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+public final class LocalScheduleStorage implements ScheduleStorage {
+
+  private static final int COMPACTION_THRESHOLD = 256;
+
+  private final ScheduleFiles files;
+
+  public LocalScheduleStorage(final @NotNull Path dataFolder, final @NotNull Logger logger) {
+    this.files = new ScheduleFiles(dataFolder, logger);
+  }
+
+  @Override
+  public @NotNull Collection<ScheduledReset> load() throws IOException {
+    final Map<String, ScheduledReset> resets = new LinkedHashMap<>();
+    final boolean cleanJournal = this.files.read(resets);
+    if (!cleanJournal || this.files.getJournal().size() != 0) {
+      // Fold whatever was left over from last run into the snapshot straight away,
+      // this also gets rid of any torn entry at the end of the journal
+      this.files.write(resets.values());
+    }
+    this.files.getJournal().open();
+    return resets.values();
+  }
+
+  @Override
+  public void append(final @NotNull ScheduleJournal.Entry entry) throws IOException {
+    this.files.getJournal().append(entry);
+  }
+
+  @Override
+  public void append(final @NotNull Collection<ScheduleJournal.Entry> entries) throws IOException {
+    this.files.getJournal().append(entries);
+  }
+
+  @Override
+  public void compact() throws IOException {
+    this.files.compact();
+  }
+
+  @Override
+  public boolean needsCompaction() {
+    return this.files.getJournal().size() >= COMPACTION_THRESHOLD;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.files.getJournal().close();
+  }
+}
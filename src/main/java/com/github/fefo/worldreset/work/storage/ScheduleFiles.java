@@ -0,0 +1,139 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work.storage;
+
+import com.github.fefo.worldreset.work.ScheduledReset;
+import com.github.fefo.worldreset.work.ScheduledResetTypeAdapter;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// worlds.json snapshot + worlds.journal tail living in the same folder
+final class ScheduleFiles {
+
+  static String key(final String worldName) {
+    return worldName.toLowerCase(Locale.ROOT);
+  }
+
+  private final Path snapshot;
+  private final ScheduleJournal journal;
+  private final Logger logger;
+
+  ScheduleFiles(final Path folder, final Logger logger) {
+    this.snapshot = folder.resolve("worlds.json");
+    this.journal = new ScheduleJournal(folder.resolve("worlds.journal"), logger);
+    this.logger = logger;
+  }
+
+  Path getSnapshot() {
+    return this.snapshot;
+  }
+
+  ScheduleJournal getJournal() {
+    return this.journal;
+  }
+
+  // Returns false if the journal had a malformed entry and should be compacted away
+  boolean read(final Map<String, ScheduledReset> into) throws IOException {
+    if (Files.notExists(this.snapshot)) {
+      writeEmpty();
+    }
+
+    try (final JsonReader reader = new JsonReader(Files.newBufferedReader(this.snapshot, UTF_8))) {
+      reader.setLenient(true);
+      if (reader.peek() != JsonToken.END_DOCUMENT) {
+        ScheduledResetTypeAdapter.INSTANCE.readAll(reader, reset -> into.put(key(reset.getWorldName()), reset));
+      }
+    } catch (final JsonParseException | MalformedJsonException | IllegalStateException
+        | NumberFormatException | ArithmeticException | DateTimeException | EOFException exception) {
+      final String message = String.format("There was an error reading %s, making backup and generating an empty JSON file. "
+                                           + "Please send the faulty file to the plugin author!",
+                                           this.snapshot.toString());
+      this.logger.warning(message);
+      exception.printStackTrace();
+
+      final String backup = String.format("world.%s.err.json", System.currentTimeMillis());
+      Files.move(this.snapshot, this.snapshot.resolveSibling(backup));
+      writeEmpty();
+
+      into.clear();
+    }
+
+    return this.journal.replay(entry -> {
+      final ScheduledReset reset = entry.toScheduledReset();
+      if (reset == null) {
+        into.remove(key(entry.getWorldName()));
+      } else {
+        into.put(key(entry.getWorldName()), reset);
+      }
+    });
+  }
+
+  void write(final Collection<? extends ScheduledReset> resets) throws IOException {
+    final Path temp = this.snapshot.resolveSibling(this.snapshot.getFileName() + ".tmp");
+    try (final JsonWriter writer = new JsonWriter(Files.newBufferedWriter(temp, UTF_8, CREATE, WRITE, TRUNCATE_EXISTING))) {
+      writer.setIndent("  ");
+      ScheduledResetTypeAdapter.INSTANCE.writeAll(writer, resets);
+    }
+    Files.move(temp, this.snapshot, ATOMIC_MOVE, REPLACE_EXISTING);
+    this.journal.truncate();
+  }
+
+  // Folds the journal into the snapshot straight from disk. Every mutation is journaled,
+  // so this is exactly the in-memory state without having to hand it over
+  void compact() throws IOException {
+    final Map<String, ScheduledReset> resets = new LinkedHashMap<>();
+    read(resets);
+    write(resets.values());
+  }
+
+  private void writeEmpty() throws IOException {
+    try (final BufferedWriter writer = Files.newBufferedWriter(this.snapshot, UTF_8, CREATE, WRITE, TRUNCATE_EXISTING)) {
+      writer.write("[]");
+      writer.newLine();
+    }
+  }
+}
@@ -0,0 +1,283 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work.storage;
+
+import com.github.fefo.worldreset.work.ScheduledReset;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// Line-delimited log of schedule mutations applied on top of the last worlds.json snapshot.
+// Every entry carries absolute state (never deltas), so replaying a tail that was already
+// folded into the snapshot yields the same result; "write snapshot, then truncate" is then
+// safe to interrupt at any point
+public final class ScheduleJournal {
+
+  private static final char SEPARATOR = '\t';
+  private static final Pattern SEPARATOR_PATTERN = Pattern.compile(String.valueOf(SEPARATOR), Pattern.LITERAL);
+  private static final String NOT_CHOSEN = "-";
+
+  private final Path file;
+  private final Logger logger;
+  private Writer writer;
+  private int entries = 0;
+
+  public ScheduleJournal(final @NotNull Path file, final @NotNull Logger logger) {
+    this.file = file;
+    this.logger = logger;
+  }
+
+  public @NotNull Path getFile() {
+    return this.file;
+  }
+
+  // Returns false if replaying had to stop early because of a malformed entry
+  public synchronized boolean replay(final @NotNull Consumer<? super Entry> consumer) throws IOException {
+    this.entries = 0;
+    if (Files.notExists(this.file)) {
+      return true;
+    }
+
+    try (final BufferedReader reader = Files.newBufferedReader(this.file, UTF_8)) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        ++lineNumber;
+        if (line.isEmpty()) {
+          continue;
+        }
+
+        final Entry entry = Entry.parse(line);
+        if (entry == null) {
+          // Most likely a torn write from a crash, anything after it can't be trusted either
+          this.logger.warning(String.format("Ignoring malformed entry at %s:%d and everything after it",
+                                            this.file.getFileName(), lineNumber));
+          return false;
+        }
+
+        consumer.accept(entry);
+        ++this.entries;
+      }
+    }
+    return true;
+  }
+
+  public synchronized void open() throws IOException {
+    if (this.writer == null) {
+      this.writer = Files.newBufferedWriter(this.file, UTF_8, CREATE, WRITE, APPEND);
+    }
+  }
+
+  public synchronized void append(final @NotNull Entry entry) throws IOException {
+    open();
+    this.writer.write(entry.toString());
+    this.writer.write('\n');
+    this.writer.flush();
+    ++this.entries;
+  }
+
+  // Same as appending them one by one, but flushed only once at the end
+  public synchronized void append(final @NotNull Collection<? extends Entry> entries) throws IOException {
+    open();
+    for (final Entry entry : entries) {
+      this.writer.write(entry.toString());
+      this.writer.write('\n');
+    }
+    this.writer.flush();
+    this.entries += entries.size();
+  }
+
+  // Only call right after the snapshot has been safely written
+  public synchronized void truncate() throws IOException {
+    close();
+    this.writer = Files.newBufferedWriter(this.file, UTF_8, CREATE, WRITE, TRUNCATE_EXISTING);
+    this.entries = 0;
+  }
+
+  public synchronized int size() {
+    return this.entries;
+  }
+
+  public synchronized void close() throws IOException {
+    if (this.writer != null) {
+      try {
+        this.writer.close();
+      } finally {
+        this.writer = null;
+      }
+    }
+  }
+
+  public enum Operation {
+    SCHEDULE('S'),
+    UNSCHEDULE('U'),
+    RESET_COMPLETED('R'),
+    // Any of the above but unschedule for a reset with a window; its own code so older versions
+    // stop at it instead of reading the extra fields as part of the world name
+    WINDOWED('W');
+
+    private final char code;
+
+    Operation(final char code) {
+      this.code = code;
+    }
+
+    private static Operation fromCode(final String code) {
+      if (code.length() != 1) {
+        return null;
+      }
+
+      for (final Operation operation : values()) {
+        if (operation.code == code.charAt(0)) {
+          return operation;
+        }
+      }
+      return null;
+    }
+  }
+
+  public static final class Entry {
+
+    public static @NotNull Entry schedule(final @NotNull ScheduledReset reset) {
+      return of(Operation.SCHEDULE, reset);
+    }
+
+    public static @NotNull Entry unschedule(final @NotNull String worldName) {
+      return new Entry(Operation.UNSCHEDULE, worldName, null);
+    }
+
+    public static @NotNull Entry resetCompleted(final @NotNull ScheduledReset reset) {
+      return of(Operation.RESET_COMPLETED, reset);
+    }
+
+    // Once a time within the reset's window was chosen
+    public static @NotNull Entry resetChosen(final @NotNull ScheduledReset reset) {
+      return of(Operation.WINDOWED, reset);
+    }
+
+    private static Entry of(final Operation operation, final ScheduledReset reset) {
+      return new Entry(reset.hasWindow() ? Operation.WINDOWED : operation, reset.getWorldName(), reset);
+    }
+
+    // S/R <interval seconds> <interval nanos> <next reset seconds> <next reset nanos> <world>
+    // W <same as S/R> <window seconds> <window nanos> <chosen seconds or -> <chosen nanos or -> <world>
+    // U <world>
+    // World name goes last so it can be read as "the rest of the line"
+    private static Entry parse(final String line) {
+      final int codeEnd = line.indexOf(SEPARATOR);
+      final Operation operation = codeEnd < 0 ? null : Operation.fromCode(line.substring(0, codeEnd));
+      if (operation == null) {
+        return null;
+      }
+
+      final String[] parts = SEPARATOR_PATTERN.split(line, operation == Operation.WINDOWED ? 10 : 6);
+      try {
+        if (operation == Operation.UNSCHEDULE) {
+          return parts.length == 2 && !parts[1].isEmpty() ? new Entry(operation, parts[1], null) : null;
+        }
+
+        final String worldName = parts[parts.length - 1];
+        if (parts.length != (operation == Operation.WINDOWED ? 10 : 6) || worldName.isEmpty()) {
+          return null;
+        }
+
+        final Duration interval = Duration.ofSeconds(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        final Instant nextReset = Instant.ofEpochSecond(Long.parseLong(parts[3]), Long.parseLong(parts[4]));
+        if (operation != Operation.WINDOWED) {
+          return new Entry(operation, worldName, new ScheduledReset(interval, nextReset.minus(interval), worldName));
+        }
+
+        final Duration window = Duration.ofSeconds(Long.parseLong(parts[5]), Long.parseLong(parts[6]));
+        final ScheduledReset reset = new ScheduledReset(interval, nextReset.minus(interval), worldName, window);
+        if (parts[7].equals(NOT_CHOSEN)) {
+          return new Entry(operation, worldName, reset);
+        }
+        final Instant chosenReset = Instant.ofEpochSecond(Long.parseLong(parts[7]), Long.parseLong(parts[8]));
+        return new Entry(operation, worldName, reset.withChosenReset(chosenReset));
+      } catch (final NumberFormatException | ArithmeticException | DateTimeException exception) {
+        return null;
+      }
+    }
+
+    private final Operation operation;
+    private final String worldName;
+    private final ScheduledReset reset;
+
+    private Entry(final Operation operation, final String worldName, final ScheduledReset reset) {
+      this.operation = operation;
+      this.worldName = worldName;
+      this.reset = reset;
+    }
+
+    public @NotNull Operation getOperation() {
+      return this.operation;
+    }
+
+    public @NotNull String getWorldName() {
+      return this.worldName;
+    }
+
+    public @Nullable ScheduledReset toScheduledReset() {
+      return this.reset;
+    }
+
+    @Override
+    public String toString() {
+      final StringBuilder builder = new StringBuilder(64).append(this.operation.code).append(SEPARATOR);
+      if (this.reset != null) {
+        builder.append(this.reset.getInterval().getSeconds()).append(SEPARATOR)
+               .append(this.reset.getInterval().getNano()).append(SEPARATOR)
+               .append(this.reset.getNextReset().getEpochSecond()).append(SEPARATOR)
+               .append(this.reset.getNextReset().getNano()).append(SEPARATOR);
+      }
+      if (this.operation == Operation.WINDOWED) {
+        final Instant chosenReset = this.reset.getChosenReset();
+        builder.append(this.reset.getWindow().getSeconds()).append(SEPARATOR)
+               .append(this.reset.getWindow().getNano()).append(SEPARATOR)
+               .append(chosenReset == null ? NOT_CHOSEN : Long.toString(chosenReset.getEpochSecond())).append(SEPARATOR)
+               .append(chosenReset == null ? NOT_CHOSEN : Integer.toString(chosenReset.getNano())).append(SEPARATOR);
+      }
+      return builder.append(this.worldName).toString();
+    }
+  }
+}
@@ -0,0 +1,91 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work.storage;
+
+import com.github.fefo.worldreset.work.ScheduledReset;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.logging.Logger;
+
+public interface ScheduleStorage {
+
+  // storage-type and shared-storage-folder from the config, the shared folder is relative to dataFolder
+  static @NotNull ScheduleStorage open(final @NotNull String storageType, final @NotNull String sharedFolder,
+                                       final @NotNull Path dataFolder, final @NotNull Logger logger) throws IOException {
+    if (storageType.equalsIgnoreCase("shared")) {
+      if (sharedFolder.isEmpty()) {
+        throw new IllegalArgumentException("storage-type is set to \"shared\" but shared-storage-folder is empty");
+      }
+      return new SharedScheduleStorage(dataFolder.resolve(sharedFolder), dataFolder, logger);
+    }
+
+    if (!storageType.equalsIgnoreCase("local")) {
+      logger.warning("Unknown storage-type \"" + storageType + "\", falling back to \"local\"");
+    }
+    return new LocalScheduleStorage(dataFolder, logger);
+  }
+
+  // Reads the latest stored state (snapshot plus whatever journal tail is left)
+  @NotNull Collection<ScheduledReset> load() throws IOException;
+
+  void append(@NotNull ScheduleJournal.Entry entry) throws IOException;
+
+  // Persists a batch of mutations in one go
+  void append(@NotNull Collection<ScheduleJournal.Entry> entries) throws IOException;
+
+  // Folds the journal into the snapshot; no-op for nodes that aren't allowed to write snapshots
+  void compact() throws IOException;
+
+  boolean needsCompaction();
+
+  // Whether this node gets to make scheduling decisions (advancing resets, compacting)
+  default boolean isLeader() {
+    return true;
+  }
+
+  // Re-checks leadership and returns whether the stored state changed since it was last loaded
+  default boolean poll() throws IOException {
+    return false;
+  }
+
+  // Whether this node skipped a reset that some other node already advanced past
+  default boolean missedReset(final @NotNull ScheduledReset reset) throws IOException {
+    return false;
+  }
+
+  // Whether this node already applied a reset that's still due, because only the leader moves schedules forward
+  default boolean alreadyApplied(final @NotNull ScheduledReset reset) {
+    return false;
+  }
+
+  default void markApplied(final @NotNull String worldName, final @NotNull Instant when) throws IOException {
+  }
+
+  void close() throws IOException;
+}
@@ -0,0 +1,280 @@
+//
+// This file is part of WorldReset, licensed under the MIT License.
+//
+// Copyright (c) 2021 Fefo6644 <federico.lopez.1999@outlook.com>
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files (the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions:
+//
+// The above copyright notice and this permission notice shall be included in all
+// copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+// SOFTWARE.
+//
+
+package com.github.fefo.worldreset.work.storage;
+
+import com.github.fefo.worldreset.work.ScheduledReset;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// Schedule store shared by several servers through a common folder.
+// - Any node may append to the journal while holding the write lock (write.lock).
+// - Whoever holds leader.lock advances resets and compacts. The OS drops the lock when
+//   the process dies, so another node takes over on its next poll.
+// - Every node keeps its own record of when it last reset each world (the worlds
+//   themselves aren't shared), so a reset the leader already advanced isn't skipped.
+public final class SharedScheduleStorage implements ScheduleStorage {
+
+  private static final int COMPACTION_THRESHOLD = 256;
+
+  private final ScheduleFiles files;
+  private final Path writeLockFile;
+  private final Path leaderLockFile;
+  private final Path markersFile;
+  private final Logger logger;
+  private final Properties markers = new Properties();
+  private FileChannel leaderChannel;
+  private FileLock leaderLock;
+  private Stamp stamp = Stamp.NONE;
+  private boolean stale = false;
+
+  public SharedScheduleStorage(final @NotNull Path sharedFolder, final @NotNull Path dataFolder,
+                               final @NotNull Logger logger) throws IOException {
+    Files.createDirectories(sharedFolder);
+    this.files = new ScheduleFiles(sharedFolder, logger);
+    this.writeLockFile = sharedFolder.resolve("write.lock");
+    this.leaderLockFile = sharedFolder.resolve("leader.lock");
+    this.markersFile = dataFolder.resolve("applied-resets.properties");
+    this.logger = logger;
+
+    if (Files.exists(this.markersFile)) {
+      try (final InputStream inputStream = Files.newInputStream(this.markersFile)) {
+        this.markers.load(inputStream);
+      }
+    }
+  }
+
+  @Override
+  public synchronized @NotNull Collection<ScheduledReset> load() throws IOException {
+    tryLead();
+    final Map<String, ScheduledReset> resets = new LinkedHashMap<>();
+    try (final FileChannel channel = FileChannel.open(this.writeLockFile, CREATE, WRITE);
+         final FileLock ignored = channel.lock()) {
+      final boolean cleanJournal = this.files.read(resets);
+      if (isLeader() && (!cleanJournal || this.files.getJournal().size() >= COMPACTION_THRESHOLD)) {
+        this.files.write(resets.values());
+      }
+      this.stamp = Stamp.of(this.files);
+      this.stale = false;
+    }
+    this.files.getJournal().open();
+    return resets.values();
+  }
+
+  @Override
+  public void append(final @NotNull ScheduleJournal.Entry entry) throws IOException {
+    append(Collections.singletonList(entry));
+  }
+
+  // One lock acquisition for the whole batch
+  @Override
+  public synchronized void append(final @NotNull Collection<ScheduleJournal.Entry> entries) throws IOException {
+    try (final FileChannel channel = FileChannel.open(this.writeLockFile, CREATE, WRITE);
+         final FileLock ignored = channel.lock()) {
+      if (!Stamp.of(this.files).equals(this.stamp)) {
+        // Somebody else wrote since we last loaded, make sure the next poll picks it up
+        this.stale = true;
+      }
+      this.files.getJournal().append(entries);
+      this.stamp = Stamp.of(this.files);
+    }
+  }
+
+  @Override
+  public synchronized void compact() throws IOException {
+    if (!isLeader()) {
+      return;
+    }
+
+    try (final FileChannel channel = FileChannel.open(this.writeLockFile, CREATE, WRITE);
+         final FileLock ignored = channel.lock()) {
+      final boolean changed = !Stamp.of(this.files).equals(this.stamp);
+      this.files.compact();
+      this.stamp = Stamp.of(this.files);
+      this.stale |= changed;
+    }
+  }
+
+  @Override
+  public synchronized boolean needsCompaction() {
+    return isLeader() && this.files.getJournal().size() >= COMPACTION_THRESHOLD;
+  }
+
+  @Override
+  public synchronized boolean isLeader() {
+    return this.leaderLock != null && this.leaderLock.isValid();
+  }
+
+  @Override
+  public synchronized boolean poll() throws IOException {
+    tryLead();
+    return this.stale || !Stamp.of(this.files).equals(this.stamp);
+  }
+
+  @Override
+  public synchronized boolean missedReset(final @NotNull ScheduledReset reset) throws IOException {
+    final Instant applied = applied(reset.getWorldName());
+    if (applied == null) {
+      // First time this node sees the world, there's nothing it could've missed
+      markApplied(reset.getWorldName(), Instant.now());
+      return false;
+    }
+
+    // The previous one might have happened as early as its window allowed
+    final Instant previousReset = reset.getNextReset().minus(reset.getInterval()).minus(reset.getWindow());
+    return applied.isBefore(previousReset);
+  }
+
+  // Until the leader moves a schedule forward it stays due for everyone else,
+  // and a node that restarts in the meantime must not reset the world again
+  @Override
+  public synchronized boolean alreadyApplied(final @NotNull ScheduledReset reset) {
+    if (isLeader()) {
+      return false;
+    }
+
+    final Instant applied = applied(reset.getWorldName());
+    return applied != null && !applied.isBefore(reset.getEffectiveReset());
+  }
+
+  @Override
+  public synchronized void markApplied(final @NotNull String worldName, final @NotNull Instant when) throws IOException {
+    this.markers.setProperty(ScheduleFiles.key(worldName), Long.toString(when.toEpochMilli()));
+
+    final Path temp = this.markersFile.resolveSibling(this.markersFile.getFileName() + ".tmp");
+    try (final OutputStream outputStream = Files.newOutputStream(temp)) {
+      this.markers.store(outputStream, "Last time each world was reset on this server");
+    }
+    Files.move(temp, this.markersFile, ATOMIC_MOVE, REPLACE_EXISTING);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    try {
+      this.files.getJournal().close();
+    } finally {
+      if (this.leaderChannel != null) {
+        // Closing the channel releases the lease as well
+        this.leaderChannel.close();
+        this.leaderChannel = null;
+        this.leaderLock = null;
+      }
+    }
+  }
+
+  // Null if this node never reset the world, or if its marker can't be read (then it's like the first time)
+  private @Nullable Instant applied(final String worldName) {
+    final String applied = this.markers.getProperty(ScheduleFiles.key(worldName));
+    if (applied == null) {
+      return null;
+    }
+
+    try {
+      return Instant.ofEpochMilli(Long.parseLong(applied));
+    } catch (final NumberFormatException exception) {
+      this.logger.warning("Ignoring the unreadable reset marker of " + worldName + ": " + applied);
+      return null;
+    }
+  }
+
+  private void tryLead() throws IOException {
+    if (isLeader()) {
+      return;
+    }
+
+    if (this.leaderChannel == null) {
+      this.leaderChannel = FileChannel.open(this.leaderLockFile, CREATE, WRITE);
+    }
+
+    this.leaderLock = this.leaderChannel.tryLock();
+    if (this.leaderLock != null) {
+      this.logger.info("This server is now the leader for scheduling decisions on " + this.files.getSnapshot().getParent());
+    }
+  }
+
+  // Cheap version of the shared state: two stat calls instead of reading the files
+  private static final class Stamp {
+
+    private static final Stamp NONE = new Stamp(-1L, -1L, -1L);
+
+    private static Stamp of(final ScheduleFiles files) throws IOException {
+      final Path snapshot = files.getSnapshot();
+      final Path journal = files.getJournal().getFile();
+      return new Stamp(Files.exists(snapshot) ? Files.getLastModifiedTime(snapshot).toMillis() : -1L,
+                       Files.exists(snapshot) ? Files.size(snapshot) : -1L,
+                       Files.exists(journal) ? Files.size(journal) : -1L);
+    }
+
+    private final long snapshotModified;
+    private final long snapshotSize;
+    private final long journalSize;
+
+    private Stamp(final long snapshotModified, final long snapshotSize, final long journalSize) {
+      this.snapshotModified = snapshotModified;
+      this.snapshotSize = snapshotSize;
+      this.journalSize = journalSize;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof Stamp)) {
+        return false;
+      }
+
+      final Stamp that = (Stamp) other;
+      return this.snapshotModified == that.snapshotModified
+             && this.snapshotSize == that.snapshotSize
+             && this.journalSize == that.journalSize;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.snapshotModified, this.snapshotSize, this.journalSize);
+    }
+  }
+}